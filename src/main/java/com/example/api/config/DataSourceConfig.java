@@ -0,0 +1,94 @@
+package com.example.api.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.sqlite.SQLiteConfig;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * SQLiteをWALモードで利用するデータソース設定。
+ * 複数接続の読み取り用プールと単一接続の書き込み用プールを用意し、
+ * トランザクションのreadOnlyフラグで振り分けます。
+ * 各プールはHikariCPのメトリクスとして {@code pool} タグ付きで公開されます。
+ */
+@Configuration
+public class DataSourceConfig {
+    @Value("${app.datasource.busy-timeout:5000}")
+    private int busyTimeout;
+
+    /**
+     * 書き込み用の単一接続プールを生成します。
+     * 書き込みトランザクションは開始時点で予約ロックを取得し、ロック昇格時のSQLITE_BUSYを避けます。
+     *
+     * @param properties spring.datasourceの接続設定
+     * @return 書き込み用プール
+     */
+    @Bean
+    @ConfigurationProperties("app.datasource.writer")
+    public HikariDataSource writerDataSource(DataSourceProperties properties) {
+        SQLiteConfig sqliteConfig = baseConfig();
+        sqliteConfig.setTransactionMode(SQLiteConfig.TransactionMode.IMMEDIATE);
+        return build(properties, sqliteConfig);
+    }
+
+    /**
+     * 読み取り用の複数接続プールを生成します。
+     *
+     * @param properties spring.datasourceの接続設定
+     * @return 読み取り用プール
+     */
+    @Bean
+    @ConfigurationProperties("app.datasource.reader")
+    public HikariDataSource readerDataSource(DataSourceProperties properties) {
+        return build(properties, baseConfig());
+    }
+
+    /**
+     * アプリケーションが利用するデータソースを生成します。
+     * 接続取得をトランザクション開始後まで遅延させ、readOnlyフラグに基づいて振り分けます。
+     *
+     * @param writer 書き込み用プール
+     * @param reader 読み取り用プール
+     * @return 振り分けデータソース
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("writerDataSource") DataSource writer,
+                                 @Qualifier("readerDataSource") DataSource reader) {
+        TransactionRoutingDataSource routing = new TransactionRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                TransactionRoutingDataSource.Route.WRITE, writer,
+                TransactionRoutingDataSource.Route.READ, reader));
+        routing.setDefaultTargetDataSource(writer);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * 両プール共通のSQLite接続設定（WAL、synchronous=NORMAL、busy_timeout、外部キー制約）を返します。
+     * foreign_keysは接続単位の設定のため、ON DELETE CASCADEを効かせるには全接続で有効にする必要があります。
+     */
+    private SQLiteConfig baseConfig() {
+        SQLiteConfig sqliteConfig = new SQLiteConfig();
+        sqliteConfig.enforceForeignKeys(true);
+        sqliteConfig.setJournalMode(SQLiteConfig.JournalMode.WAL);
+        sqliteConfig.setSynchronous(SQLiteConfig.SynchronousMode.NORMAL);
+        sqliteConfig.setBusyTimeout(busyTimeout);
+        return sqliteConfig;
+    }
+
+    private HikariDataSource build(DataSourceProperties properties, SQLiteConfig sqliteConfig) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setDataSourceProperties(sqliteConfig.toProperties());
+        return dataSource;
+    }
+}
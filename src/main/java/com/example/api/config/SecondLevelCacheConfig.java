@@ -0,0 +1,86 @@
+package com.example.api.config;
+
+import com.example.api.entity.CareerHistoryEntity;
+import com.example.api.entity.UserEntity;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Hibernateの二次キャッシュ設定（{@code app.cache.second-level.enabled=true} の場合のみ有効）。
+ * ユーザー・職歴エンティティと職歴コレクションを、プロセス内のCaffeine（JCache）へREAD_WRITE戦略で保持します。
+ * 各リージョンは件数上限（W-TinyLFUによる退避のため、一覧の走査で頻出ユーザーが押し出されにくい）と
+ * 書き込みからのTTLで制限し、ヒット・ミス・退避件数を {@code cache.*} メトリクスとして公開します。
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.cache.second-level.enabled", havingValue = "true")
+public class SecondLevelCacheConfig {
+    /** キャッシュ対象のリージョン名（Hibernateの既定どおりエンティティ名・コレクションのロール名）。 */
+    public static final List<String> REGIONS = List.of(
+            UserEntity.class.getName(),
+            UserEntity.class.getName() + ".careerHistories",
+            CareerHistoryEntity.class.getName());
+
+    private static final URI CACHE_MANAGER_URI = URI.create("hibernate-second-level-cache");
+
+    /**
+     * 二次キャッシュ用のJCache CacheManagerを生成し、各リージョンのキャッシュを作成します。
+     *
+     * @param maxEntries    リージョンごとの最大件数
+     * @param ttl           書き込みからの有効期間
+     * @param meterRegistry メトリクス登録先
+     * @return CacheManager
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(@Value("${app.cache.second-level.max-entries:10000}") long maxEntries,
+                                                @Value("${app.cache.second-level.ttl:10m}") Duration ttl,
+                                                MeterRegistry meterRegistry) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(CACHE_MANAGER_URI, getClass().getClassLoader());
+        for (String region : REGIONS) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+            // Hibernateのキャッシュエントリは分解済みの不変な状態のため、格納時の複製は不要
+            configuration.setStoreByValue(false);
+            configuration.setStatisticsEnabled(true);
+            Cache<Object, Object> cache = cacheManager.createCache(region, configuration);
+            JCacheMetrics.monitor(meterRegistry, cache, Tags.of("cacheManager", "hibernate"));
+        }
+        return cacheManager;
+    }
+
+    /**
+     * HibernateのJCacheリージョンファクトリへCacheManagerを渡し、二次キャッシュを有効にします。
+     * 未作成のリージョンがあれば起動時にエラーとします。
+     *
+     * @param secondLevelCacheManager 二次キャッシュ用CacheManager
+     * @return Hibernateプロパティのカスタマイザ
+     */
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheProperties(CacheManager secondLevelCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.api.config;
+
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.repository.spec.UserSortKey;
+import com.example.api.service.UserPage;
+import com.example.api.service.UserService;
+import com.example.api.service.cache.UserJsonCache;
+import com.example.api.service.cache.UserListCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 起動直後のリクエストが遅くならないよう、トラフィックを受け付ける前に実行するウォームアップ。
+ *
+ * <p>{@link ApplicationStartedEvent} の処理中に同期的に実行するため、Readiness（{@code /actuator/health/readiness}）が
+ * ACCEPTING_TRAFFIC に変わるのはウォームアップの完了後です。次の順に実行し、所要時間をログへ出力します。</p>
+ * <ol>
+ *   <li>読み取り用・書き込み用プールの接続を上限数まで確立する</li>
+ *   <li>読み取りの経路（件数、offset/カーソルの一覧（絞り込みあり/なし）、limit=0の一覧の逐次読み込み、詳細取得、複数件の取得）を
+ *       指定回数繰り返し、Hibernateのクエリ計画、MapStruct・Jacksonのシリアライザ、JITによるコンパイルを済ませる
+ *       （毎回キャッシュを破棄してDBから読み込む）</li>
+ *   <li>先頭から指定件数のユーザーを読み込み、ユーザーJSONキャッシュへ載せる</li>
+ * </ol>
+ *
+ * <p>対象は読み取りのみです。作成・更新・削除・upsert（名前からのID解決を含む）は書き込みロックを取ってコミットするため、
+ * エクスポートは全件を読み込むため実行せず、これらは最初の呼び出し時に準備されます。</p>
+ *
+ * <p>ウォームアップが失敗しても起動は継続し、警告ログを出力します。</p>
+ */
+@Component
+public class StartupWarmup {
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+    /** 絞り込みありの問い合わせに用いる名前。 */
+    private static final String SAMPLE_NAME = "a";
+    private static final int PAGE_SIZE = 10;
+    private static final int PRELOAD_PAGE_SIZE = 100;
+
+    private final UserService userService;
+    private final UserJsonCache userJsonCache;
+    private final UserListCache userListCache;
+    private final ObjectMapper objectMapper;
+    private final HikariDataSource readerDataSource;
+    private final HikariDataSource writerDataSource;
+    private final boolean enabled;
+    private final int iterations;
+    private final int preloadUsers;
+
+    /**
+     * @param userService      ユーザーサービス
+     * @param userJsonCache    ユーザーJSONキャッシュ
+     * @param userListCache    一覧の結果キャッシュ
+     * @param objectMapper     詳細取得するユーザーIDの読み取りに用いるObjectMapper
+     * @param readerDataSource 読み取り用プール
+     * @param writerDataSource 書き込み用プール
+     * @param enabled          ウォームアップを行うか
+     * @param iterations       代表的な読み取りを繰り返す回数
+     * @param preloadUsers     ユーザーJSONキャッシュへ載せるユーザー数
+     */
+    public StartupWarmup(UserService userService,
+                         UserJsonCache userJsonCache,
+                         UserListCache userListCache,
+                         ObjectMapper objectMapper,
+                         @Qualifier("readerDataSource") HikariDataSource readerDataSource,
+                         @Qualifier("writerDataSource") HikariDataSource writerDataSource,
+                         @Value("${app.warmup.enabled:true}") boolean enabled,
+                         @Value("${app.warmup.iterations:20}") int iterations,
+                         @Value("${app.warmup.preload-users:1000}") int preloadUsers) {
+        this.userService = userService;
+        this.userJsonCache = userJsonCache;
+        this.userListCache = userListCache;
+        this.objectMapper = objectMapper;
+        this.readerDataSource = readerDataSource;
+        this.writerDataSource = writerDataSource;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.preloadUsers = preloadUsers;
+    }
+
+    /**
+     * ウォームアップを実行します。ユーザーIDフィルタなど他の起動時処理の後に実行します。
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void warmUp() {
+        if (!enabled) return;
+        long started = System.nanoTime();
+        try {
+            int connections = openConnections(readerDataSource) + openConnections(writerDataSource);
+            long opened = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                userListCache.invalidateAll();
+                userJsonCache.invalidateAll();
+                runQueries();
+            }
+            long exercised = System.nanoTime();
+            userListCache.invalidateAll();
+            userJsonCache.invalidateAll();
+            int preloaded = preload();
+            long finished = System.nanoTime();
+            log.info("Warm-up finished: connections={} iterations={} preloadedUsers={} poolMs={} queriesMs={} preloadMs={} elapsedMs={}",
+                    connections, iterations, preloaded, millis(started, opened), millis(opened, exercised),
+                    millis(exercised, finished), millis(started, finished));
+        } catch (RuntimeException | SQLException | IOException ex) {
+            log.warn("Warm-up failed after {} ms; continuing startup", millis(started, System.nanoTime()), ex);
+        }
+    }
+
+    /**
+     * プールの上限数の接続を同時に借り、確立させてから返却します。
+     *
+     * @return 借りた接続の数
+     */
+    private static int openConnections(HikariDataSource dataSource) throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < dataSource.getMaximumPoolSize(); i++) {
+                connections.add(dataSource.getConnection());
+            }
+            return connections.size();
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * 一覧・件数・詳細取得の各読み取り経路を1回ずつ実行します。
+     * limit=0の一覧は末尾の1ページ分だけを読むよう、offsetを総件数から求めます。
+     */
+    private void runQueries() throws IOException {
+        int total = userService.count(null);
+        userService.count(SAMPLE_NAME);
+        UserPage page = userService.listPage(null, UserSortKey.ID, PAGE_SIZE, 0);
+        userService.listPage(SAMPLE_NAME, UserSortKey.NAME, PAGE_SIZE, 0);
+        UserPage first = userService.listAfter(null, UserSortKey.ID, null, PAGE_SIZE);
+        if (first.getNextCursor() != null) {
+            userService.listAfter(null, UserSortKey.ID, first.getNextCursor(), PAGE_SIZE);
+        }
+        if (!page.getUsers().isEmpty()) {
+            long id = objectMapper.readTree(page.getUsers().get(0)).path("id").asLong();
+            userService.getJson(id);
+            userService.getJsonAll(Arrays.asList(id, Long.MAX_VALUE));
+        }
+        userService.streamList(null, UserSortKey.ID, Math.max(0, total - PAGE_SIZE), user -> { });
+        try {
+            userService.getJson(Long.MAX_VALUE);
+        } catch (ResourceNotFoundException expected) {
+            // 見つからない場合の経路も実行しておく
+        }
+    }
+
+    /**
+     * ID順の先頭から、指定件数までのユーザーを読み込んでキャッシュへ載せます。
+     *
+     * @return 読み込んだユーザー数
+     */
+    private int preload() {
+        int loaded = 0;
+        String cursor = null;
+        while (loaded < preloadUsers) {
+            UserPage page = userService.listAfter(null, UserSortKey.ID, cursor, Math.min(PRELOAD_PAGE_SIZE, preloadUsers - loaded));
+            loaded += page.getUsers().size();
+            cursor = page.getNextCursor();
+            if (cursor == null) break;
+        }
+        userListCache.invalidateAll();
+        return loaded;
+    }
+
+    private static long millis(long from, long to) {
+        return (to - from) / 1_000_000;
+    }
+}
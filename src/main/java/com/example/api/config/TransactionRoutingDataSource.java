@@ -0,0 +1,20 @@
+package com.example.api.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 現在のトランザクションのreadOnlyフラグに応じて接続先プールを切り替えるデータソース。
+ * readOnlyトランザクションは読み取り用プール、それ以外は書き込み用プールへ振り分けます。
+ * トランザクション開始後に判定させるため、{@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}
+ * で包んで利用します。
+ */
+public class TransactionRoutingDataSource extends AbstractRoutingDataSource {
+    /** 振り分け先のキー。 */
+    public enum Route { READ, WRITE }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.READ : Route.WRITE;
+    }
+}
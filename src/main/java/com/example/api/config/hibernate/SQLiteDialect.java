@@ -6,14 +6,35 @@ import org.hibernate.dialect.function.SQLFunctionTemplate;
 import org.hibernate.type.StandardBasicTypes;
 import org.hibernate.dialect.identity.IdentityColumnSupport;
 import org.hibernate.dialect.identity.IdentityColumnSupportImpl;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.exception.spi.SQLExceptionConversionDelegate;
+import org.hibernate.exception.spi.TemplatedViolatedConstraintNameExtracter;
+import org.hibernate.exception.spi.ViolatedConstraintNameExtracter;
+import org.hibernate.internal.util.JdbcExceptionHelper;
 
+import java.sql.SQLException;
 import java.sql.Types;
 
 /**
  * SQLite向けの簡易Hibernate Dialect。
- * IDENTITYとLIMITの最小実装、および基本関数の登録のみ行います。
+ * IDENTITYとLIMITの最小実装、基本関数とFTS5のMATCH条件（fts_match）の登録、
+ * および制約違反エラー（SQLITE_CONSTRAINT）の変換のみ行います。
  */
 public class SQLiteDialect extends Dialect {
+    /** SQLITE_CONSTRAINTの基本リザルトコード（拡張リザルトコードの下位8ビット）。 */
+    private static final int SQLITE_CONSTRAINT = 19;
+
+    /**
+     * 「UNIQUE constraint failed: users.name」形式のメッセージから、違反した制約を「テーブル名.列名」で取り出します。
+     */
+    private static final ViolatedConstraintNameExtracter CONSTRAINT_NAME_EXTRACTER =
+            new TemplatedViolatedConstraintNameExtracter() {
+                @Override
+                protected String doExtractConstraintName(SQLException sqle) {
+                    return extractUsingTemplate("constraint failed: ", ")", sqle.getMessage());
+                }
+            };
+
     public SQLiteDialect() {
         registerColumnType(Types.INTEGER, "integer");
         registerColumnType(Types.BIGINT, "bigint");
@@ -41,6 +62,9 @@ public class SQLiteDialect extends Dialect {
         registerFunction("substr", new StandardSQLFunction("substr", StandardBasicTypes.STRING));
         registerFunction("coalesce", new StandardSQLFunction("coalesce"));
         registerFunction("concat", new SQLFunctionTemplate(StandardBasicTypes.STRING, "(?1 || ?2)"));
+        // FTS5の全文検索条件。MATCHはWHERE句の独立した条件でなければ仮想テーブルのインデックスに渡らないため、
+        // HQLが付与する「= true」を常に真の別条件（and 1 = 1）として切り離す
+        registerFunction("fts_match", new SQLFunctionTemplate(StandardBasicTypes.BOOLEAN, "?1 match ?2 and 1"));
     }
 
     /** SQLite専用のIDENTITYサポートを返します。 */
@@ -48,6 +72,29 @@ public class SQLiteDialect extends Dialect {
     public IdentityColumnSupport getIdentityColumnSupport() {
         return SQLiteIdentityColumnSupport.INSTANCE;
     }
+
+    /** 制約違反メッセージから違反した制約（「テーブル名.列名」）を取り出すExtracterを返します。 */
+    @Override
+    public ViolatedConstraintNameExtracter getViolatedConstraintNameExtracter() {
+        return CONSTRAINT_NAME_EXTRACTER;
+    }
+
+    /**
+     * SQLiteはSQLSTATEを返さないため、リザルトコードでSQLITE_CONSTRAINTを判定し
+     * {@link ConstraintViolationException}へ変換します。Springはこれを
+     * {@link org.springframework.dao.DataIntegrityViolationException}として扱います。
+     */
+    @Override
+    public SQLExceptionConversionDelegate buildSQLExceptionConversionDelegate() {
+        return (SQLException sqlException, String message, String sql) -> {
+            if ((JdbcExceptionHelper.extractErrorCode(sqlException) & 0xFF) != SQLITE_CONSTRAINT) {
+                return null;
+            }
+            String constraintName = getViolatedConstraintNameExtracter().extractConstraintName(sqlException);
+            return new ConstraintViolationException(message, sqlException, sql, constraintName);
+        };
+    }
+
     /** LIMIT句をサポートするためtrueを返します。 */
     @Override
     public boolean supportsLimit() { return true; }
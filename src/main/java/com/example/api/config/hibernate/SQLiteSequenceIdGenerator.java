@@ -0,0 +1,77 @@
+package com.example.api.config.hibernate;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.io.Serializable;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.WeakHashMap;
+
+/**
+ * SQLiteのAUTOINCREMENT用シーケンス（sqlite_sequence）を起点に、トランザクション内でIDを払い出すHi-Lo方式のジェネレータ。
+ * トランザクションで最初にIDが必要になった時点で対象テーブルの現在値を1回だけ読み取り、
+ * 以降は同じトランザクションが終わるまでメモリ上で連番を払い出します。
+ * INSERT前にIDが確定するため、HibernateがINSERTをJDBCバッチにまとめられます。
+ *
+ * <p>書き込みトランザクションはBEGIN IMMEDIATEで開始され、開始時点で書き込みロックを保持しているため、
+ * 他プロセスを含めて同じ値を払い出すことはありません。払い出した値で行が挿入されると
+ * sqlite_sequenceはSQLite自身が更新します。払い出し範囲はトランザクション単位で破棄するため、
+ * セーブポイントやトランザクションのロールバックで採番テーブルとの不整合が生じることもありません。</p>
+ */
+public class SQLiteSequenceIdGenerator implements IdentifierGenerator {
+    private final Map<SharedSessionContractImplementor, long[]> nextValues = Collections.synchronizedMap(new WeakHashMap<>());
+    private String table;
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        table = params.getProperty(PersistentIdentifierGenerator.TABLE);
+        if (table == null) {
+            throw new MappingException("Target table is not available for " + getClass().getSimpleName());
+        }
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        long[] next = nextValues.get(session);
+        if (next == null) {
+            next = new long[]{readSequence(session) + 1};
+            nextValues.put(session, next);
+            // トランザクション終了時（コミット・ロールバックとも）に払い出し範囲を破棄する
+            ((SessionImplementor) session).getActionQueue()
+                    .registerProcess((success, completedSession) -> nextValues.remove(completedSession));
+        }
+        return next[0]++;
+    }
+
+    /**
+     * 現在のトランザクションの接続で、対象テーブルのsqlite_sequenceと最大IDの大きい方を読み取ります。
+     */
+    private long readSequence(SharedSessionContractImplementor session) {
+        String sql = "SELECT MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = ?), 0), "
+                + "COALESCE((SELECT MAX(rowid) FROM " + table + "), 0))";
+        PreparedStatement statement = session.getJdbcCoordinator().getStatementPreparer().prepareStatement(sql);
+        try {
+            statement.setString(1, table);
+            ResultSet resultSet = session.getJdbcCoordinator().getResultSetReturn().extract(statement);
+            resultSet.next();
+            return resultSet.getLong(1);
+        } catch (SQLException ex) {
+            throw session.getJdbcServices().getSqlExceptionHelper()
+                    .convert(ex, "Could not read sequence for " + table, sql);
+        } finally {
+            session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release(statement);
+            session.getJdbcCoordinator().afterStatementExecution();
+        }
+    }
+}
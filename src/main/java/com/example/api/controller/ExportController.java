@@ -0,0 +1,252 @@
+package com.example.api.controller;
+
+import com.example.api.dto.ExportCreateRequest;
+import com.example.api.dto.ExportJobResponse;
+import com.example.api.exception.ApiErrorResponse;
+import com.example.api.exception.ErrorCatalog;
+import com.example.api.openapi.OpenApiExamples;
+import com.example.api.service.export.ExportFormat;
+import com.example.api.service.export.ExportJob;
+import com.example.api.service.export.UserExportJobs;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * 全ユーザーのエクスポート（非同期ジョブ）のRESTコントローラ。
+ * ジョブを受け付け、完了したファイルをRangeリクエストに対応してダウンロードさせます。
+ */
+@RestController
+@RequestMapping("/api/v1/exports")
+@Validated
+@Tag(name = "Exports")
+@RequiredArgsConstructor
+public class ExportController {
+    /** 実行中のジョブを再確認するまでの秒数（Retry-After）。 */
+    private static final String RETRY_AFTER_SECONDS = "1";
+    /** sendfileを使えない場合のコピー用バッファのサイズ。 */
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final UserExportJobs userExportJobs;
+
+    /**
+     * 全ユーザーのエクスポートを受け付けます。ファイルはバックグラウンドで作成し、Locationのジョブから取得します。
+     * @param exportRequest エクスポート作成リクエスト（任意、省略時はNDJSON）
+     * @return ジョブの状態とLocationヘッダを含む202応答
+     */
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE, produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "ユーザーのエクスポート作成")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Accepted",
+                    headers = {@Header(name = "Location", description = "ジョブのURI",
+                            schema = @Schema(type = "string", example = OpenApiExamples.Exports.LOCATION))},
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ExportJobResponse.class),
+                            examples = @ExampleObject(value = OpenApiExamples.Exports.JOB_JSON))),
+            @ApiResponse(responseCode = "422", description = "処理不能（形式の誤りなど）",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "UnprocessableEntity", value = OpenApiExamples.ErrorResponses.UNPROCESSABLE_ENTITY))),
+            @ApiResponse(responseCode = "503", description = "実行待ちのエクスポートが上限に達している",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(required = false,
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ExportCreateRequest.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Exports.REQUEST_JSON)))
+    public ResponseEntity<ExportJobResponse> create(@Valid @RequestBody(required = false) ExportCreateRequest exportRequest) {
+        String format = exportRequest != null && exportRequest.getFormat() != null
+                ? exportRequest.getFormat()
+                : ExportFormat.NDJSON.parameter();
+        ExportJob job = userExportJobs.submit(ExportFormat.fromParameter(format));
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/exports/" + job.getId()))
+                .body(toResponse(job));
+    }
+
+    /**
+     * エクスポートを取得します。完了していればファイルを返し（Rangeリクエストに対応）、
+     * 実行中であればジョブの状態を202で返します。
+     * @param exportId ジョブID
+     * @param request リクエスト（Range/If-Rangeヘッダ）
+     * @param response レスポンス（ファイルを直接書き出す）
+     * @return 実行中の場合はジョブの状態、ファイルを返した場合はnull
+     * @throws IOException ファイルの書き出しに失敗した場合
+     */
+    @GetMapping("/{export_id}")
+    @Operation(summary = "ユーザーのエクスポート取得（ダウンロード）")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK（ファイル全体）",
+                    headers = {@Header(name = "Accept-Ranges", schema = @Schema(type = "string", example = "bytes"))},
+                    content = {
+                            @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                                    examples = @ExampleObject(value = OpenApiExamples.Users.EXPORT_NDJSON)),
+                            @Content(mediaType = "text/csv",
+                                    examples = @ExampleObject(value = OpenApiExamples.Exports.CSV))}),
+            @ApiResponse(responseCode = "206", description = "Partial Content（Rangeで指定した範囲）",
+                    headers = {@Header(name = "Content-Range", schema = @Schema(type = "string", example = "bytes 0-99/8812345"))}),
+            @ApiResponse(responseCode = "202", description = "Accepted（作成中）",
+                    headers = {@Header(name = "Retry-After", schema = @Schema(type = "integer", example = RETRY_AFTER_SECONDS))},
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ExportJobResponse.class),
+                            examples = @ExampleObject(value = OpenApiExamples.Exports.JOB_JSON))),
+            @ApiResponse(responseCode = "404", description = "未存在（または保持期間の経過により削除済み）",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "NotFound", value = OpenApiExamples.ErrorResponses.NOT_FOUND))),
+            @ApiResponse(responseCode = "416", description = "Rangeがファイルの範囲外",
+                    headers = {@Header(name = "Content-Range", schema = @Schema(type = "string", example = "bytes */8812345"))}),
+            @ApiResponse(responseCode = "500", description = "エクスポートに失敗した",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "InternalServerError", value = OpenApiExamples.ErrorResponses.INTERNAL_SERVER_ERROR)))
+    })
+    public ResponseEntity<ExportJobResponse> get(
+            @Parameter(description = "ジョブID", example = OpenApiExamples.Exports.ID)
+            @PathVariable("export_id") String exportId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ExportJob job = userExportJobs.get(exportId);
+        switch (job.getStatus()) {
+            case PENDING, RUNNING -> {
+                return ResponseEntity.accepted()
+                        .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(toResponse(job));
+            }
+            case FAILED -> throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, ErrorCatalog.Messages.EXPORT_FAILED);
+            default -> {
+                download(job, request, response);
+                return null;
+            }
+        }
+    }
+
+    /**
+     * 完成したファイルの全体またはRangeで指定された1つの範囲を書き出します。
+     * 複数範囲の指定と、ETagと一致しないIf-Rangeの場合はファイル全体を返します。
+     */
+    private void download(ExportJob job, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long size = job.getSize();
+        String etag = "\"" + job.getId() + "\"";
+        long start = 0;
+        long end = size - 1;
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(range);
+            } catch (IllegalArgumentException ex) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                try {
+                    start = ranges.get(0).getRangeStart(size);
+                    end = ranges.get(0).getRangeEnd(size);
+                } catch (IllegalArgumentException ex) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                if (start > end) {
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+        String filename = "users-" + job.getId() + "." + job.getFormat().parameter();
+        response.setContentType(job.getFormat().mediaType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString());
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if (length <= 0) return;
+        transfer(job.getFile(), start, length, request, response);
+    }
+
+    /**
+     * ファイルの範囲を送信します。コネクタがsendfileに対応していればTomcatへ委ね、ユーザー空間へ読み込まずに送信します。
+     * 対応していない接続（TLSなど）では、固定サイズのバッファで範囲を逐次コピーします（ファイル全体をヒープへ読み込みません）。
+     */
+    private static void transfer(Path file, long start, long length, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toRealPath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            OutputStream out = response.getOutputStream();
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(BUFFER_SIZE, length));
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), remaining));
+                int read = channel.read(buffer, position);
+                if (read < 0) throw new EOFException("Export file is shorter than expected: " + file);
+                out.write(buffer.array(), 0, read);
+                position += read;
+                remaining -= read;
+            }
+        }
+        response.flushBuffer();
+    }
+
+    private static ExportJobResponse toResponse(ExportJob job) {
+        ExportJobResponse body = new ExportJobResponse();
+        body.setId(job.getId());
+        body.setFormat(job.getFormat().parameter());
+        body.setStatus(job.getStatus().name());
+        body.setCreatedAt(job.getCreatedAt().toString());
+        if (job.getCompletedAt() != null) body.setCompletedAt(job.getCompletedAt().toString());
+        if (job.getStatus() == ExportJob.Status.COMPLETED) {
+            body.setUsers(job.getUsers());
+            body.setSize(job.getSize());
+        }
+        return body;
+    }
+}
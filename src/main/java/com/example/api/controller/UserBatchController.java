@@ -0,0 +1,111 @@
+package com.example.api.controller;
+
+import com.example.api.dto.UserBatchDeleteRequest;
+import com.example.api.dto.UserBatchDeleteResponse;
+import com.example.api.dto.UserBatchUpsertRequest;
+import com.example.api.dto.UserBatchUpsertResponse;
+import com.example.api.exception.ApiErrorResponse;
+import com.example.api.openapi.OpenApiExamples;
+import com.example.api.service.UserBatchUpserter;
+import com.example.api.service.UserService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.ExampleObject;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * ユーザーの一括操作（{@code /api/v1/users:<操作>} 形式のカスタムメソッド）のRESTコントローラ。
+ * パスがユーザーリソースのコレクションの下の階層にならないため、{@link UserController} とは別に定義します。
+ */
+@RestController
+@RequestMapping(value = "/api/v1", produces = MediaType.APPLICATION_JSON_VALUE)
+@Validated
+@Tag(name = "Users")
+@RequiredArgsConstructor
+public class UserBatchController {
+    private final UserBatchUpserter userBatchUpserter;
+    private final UserService userService;
+
+    /**
+     * ユーザーをnameをキーに一括で登録または更新します。
+     * 各ユーザーはユーザー作成と同じ検証を行い、検証を通過したユーザーを1つのトランザクションでまとめて反映します。
+     * @param batchRequest 一括upsertリクエスト
+     * @return 1件ごとの結果（入力と同じ順序）
+     */
+    @PostMapping(value = "/users:batchUpsert", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "ユーザー一括upsert")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK（1件ごとの結果はresultsのstatus）",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = UserBatchUpsertResponse.class),
+                            examples = @ExampleObject(value = OpenApiExamples.Batch.UPSERT_RESPONSE))),
+            @ApiResponse(responseCode = "400", description = "不正なリクエスト（usersの欠落・JSONの構文エラーなど）",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "BadRequest", value = OpenApiExamples.ErrorResponses.BAD_REQUEST))),
+            @ApiResponse(responseCode = "422", description = "処理不能（件数の上限超過など）",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "UnprocessableEntity", value = OpenApiExamples.ErrorResponses.UNPROCESSABLE_ENTITY))),
+            @ApiResponse(responseCode = "500", description = "サーバーエラー",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "InternalServerError", value = OpenApiExamples.ErrorResponses.INTERNAL_SERVER_ERROR)))
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = UserBatchUpsertRequest.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Batch.UPSERT_REQUEST)))
+    public UserBatchUpsertResponse batchUpsert(@Valid @RequestBody UserBatchUpsertRequest batchRequest) {
+        return userBatchUpserter.upsert(batchRequest.getUsers());
+    }
+
+    /**
+     * IDの一覧、またはnameの部分一致に該当するユーザーを一括削除します（存在しないIDはエラーとしません）。
+     * 一定件数ごとに1文のDELETEで削除してコミットし、職歴はON DELETE CASCADEで削除されます。
+     * @param batchRequest 一括削除リクエスト
+     * @return 削除件数
+     */
+    @PostMapping(value = "/users:batchDelete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "ユーザー一括削除")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = UserBatchDeleteResponse.class),
+                            examples = @ExampleObject(value = OpenApiExamples.Batch.DELETE_RESPONSE))),
+            @ApiResponse(responseCode = "400", description = "不正なリクエスト（JSONの構文エラーなど）",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "BadRequest", value = OpenApiExamples.ErrorResponses.BAD_REQUEST))),
+            @ApiResponse(responseCode = "422", description = "処理不能（idsとnameの両方または一方も指定していないなど）",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "UnprocessableEntity", value = OpenApiExamples.ErrorResponses.UNPROCESSABLE_ENTITY))),
+            @ApiResponse(responseCode = "500", description = "サーバーエラー",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "InternalServerError", value = OpenApiExamples.ErrorResponses.INTERNAL_SERVER_ERROR)))
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = UserBatchDeleteRequest.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Batch.DELETE_REQUEST)))
+    public UserBatchDeleteResponse batchDelete(@Valid @RequestBody UserBatchDeleteRequest batchRequest) {
+        long deleted = batchRequest.getIds() != null
+                ? userService.deleteAll(batchRequest.getIds())
+                : userService.deleteByName(batchRequest.getName());
+        return new UserBatchDeleteResponse(deleted);
+    }
+}
@@ -1,12 +1,24 @@
 package com.example.api.controller;
 
 import com.example.api.dto.PageMeta;
+import com.example.api.dto.UserChangeListResponse;
 import com.example.api.dto.UserCreateRequest;
+import com.example.api.dto.UserImportResult;
 import com.example.api.dto.UserListResponse;
 import com.example.api.dto.UserResponse;
 import com.example.api.dto.UserUpdateRequest;
 import com.example.api.exception.ApiErrorResponse;
+import com.example.api.exception.BadRequestException;
+import com.example.api.exception.ErrorCatalog;
+import com.example.api.repository.spec.UserSortKey;
+import com.example.api.service.UserChangeFeed;
+import com.example.api.service.UserImporter;
+import com.example.api.service.UserPage;
 import com.example.api.service.UserService;
+import com.example.api.service.UserStreamHandler;
+import com.example.api.service.cache.HotKeyTracker;
+import com.example.api.service.cache.UserPagePrefetcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.example.api.openapi.OpenApiExamples;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -23,12 +35,20 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import javax.validation.constraints.Size;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import lombok.RequiredArgsConstructor;
@@ -43,14 +63,25 @@ import lombok.RequiredArgsConstructor;
 @Tag(name = "Users")
 @RequiredArgsConstructor
 public class UserController {
+    private static final int BUFFER_SIZE = 8192;
+    private static final byte[] USERS_START = ",\"users\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] USERS_END = "]}".getBytes(StandardCharsets.UTF_8);
+
     private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final UserPagePrefetcher userPagePrefetcher;
+    private final HotKeyTracker hotKeyTracker;
+    private final UserChangeFeed userChangeFeed;
+    private final UserImporter userImporter;
 
     /**
      * ユーザーの一覧を取得します。
      * @param name 名前の部分一致フィルタ（任意）
      * @param limit 取得件数（0〜100、既定値10）
      * @param offset オフセット（0以上、既定値0）
-     * @return ページ情報とユーザーの配列を含むレスポンス
+     * @param cursor 前ページで返したnextCursor（任意、指定時はキーセットページング）
+     * @param sort 並び順（id / name、既定値id）
+     * @param response ページ情報とユーザーの配列を書き出すレスポンス（limit=0の場合は逐次書き出し）
      */
     @GetMapping
     @Operation(summary = "ユーザー一覧取得")
@@ -84,7 +115,7 @@ public class UserController {
                             schema = @Schema(implementation = ApiErrorResponse.class),
                             examples = @ExampleObject(name = "InternalServerError", value = OpenApiExamples.ErrorResponses.INTERNAL_SERVER_ERROR)))
     })
-    public ResponseEntity<UserListResponse> list(
+    public void list(
             @Parameter(description = "名前の部分一致フィルタ", example = OpenApiExamples.Users.SEARCH_NAME,
                     schema = @Schema(minLength = 1, maxLength = 200, pattern = ".*\\D.*"))
             @RequestParam(name = "name", required = false)
@@ -95,20 +126,212 @@ public class UserController {
             @RequestParam(name = "limit", defaultValue = "10") @Min(value = 0, message = "{user.list.limit.min}") @Max(value = 100, message = "{user.list.limit.max}") int limit,
             @Parameter(description = "開始オフセット", example = OpenApiExamples.Page.OFFSET,
                     schema = @Schema(minimum = "0"))
-            @RequestParam(name = "offset", defaultValue = "0") @Min(value = 0, message = "{user.list.offset.min}") int offset
-    ) {
-        int totalCount = userService.count(name);
-        List<UserResponse> userResponses = userService.list(name, limit, offset);
+            @RequestParam(name = "offset", defaultValue = "0") @Min(value = 0, message = "{user.list.offset.min}") int offset,
+            @Parameter(description = "前ページのnextCursor（指定時はその続きをキーセットページングで取得）", example = OpenApiExamples.Page.CURSOR,
+                    schema = @Schema(maxLength = 512))
+            @RequestParam(name = "cursor", required = false) @Size(max = 512, message = "{user.list.cursor.size}") String cursor,
+            @Parameter(description = "並び順", example = OpenApiExamples.Page.SORT,
+                    schema = @Schema(allowableValues = {"id", "name"}))
+            @RequestParam(name = "sort", defaultValue = "id")
+            @javax.validation.constraints.Pattern(regexp = "id|name", message = "{user.list.sort.pattern}") String sort,
+            HttpServletRequest request,
+            HttpServletResponse response
+    ) throws IOException {
+        UserSortKey sortKey = UserSortKey.fromParameter(sort);
+        hotKeyTracker.recordName(name);
+        UserPage userPage;
+        if (cursor != null) {
+            if (offset > 0) {
+                throw new BadRequestException(ErrorCatalog.Messages.CURSOR_WITH_OFFSET, List.of(ErrorCatalog.fieldError(
+                        ErrorCatalog.DetailCodes.VALIDATION_ERROR,
+                        ErrorCatalog.Messages.CURSOR_WITH_OFFSET,
+                        "offset",
+                        "query",
+                        null)));
+            }
+            if (limit == 0) {
+                throw new BadRequestException(ErrorCatalog.Messages.CURSOR_WITH_UNLIMITED, List.of(ErrorCatalog.fieldError(
+                        ErrorCatalog.DetailCodes.VALIDATION_ERROR,
+                        ErrorCatalog.Messages.CURSOR_WITH_UNLIMITED,
+                        "limit",
+                        "query",
+                        null)));
+            }
+            userPage = userService.listAfter(name, sortKey, cursor, limit);
+        } else if (limit == 0) {
+            streamList(name, sortKey, offset, response);
+            return;
+        } else {
+            userPage = userService.listPage(name, sortKey, limit, offset);
+        }
         PageMeta pageMeta = new PageMeta();
         pageMeta.setLimit(limit);
         pageMeta.setOffset(offset);
-        pageMeta.setTotal(totalCount);
-        pageMeta.setHasNext(offset + limit < totalCount);
-        UserListResponse userListResponse = new UserListResponse();
-        userListResponse.setCount(totalCount);
-        userListResponse.setPage(pageMeta);
-        userListResponse.setUsers(userResponses);
-        return ResponseEntity.ok(userListResponse);
+        pageMeta.setTotal(userPage.getTotal());
+        pageMeta.setHasNext(userPage.isHasNext());
+        pageMeta.setNextCursor(userPage.getNextCursor());
+        UserListWriter writer = new UserListWriter(response);
+        writer.writeHeader(userPage.getTotal(), pageMeta);
+        for (byte[] user : userPage.getUsers()) {
+            writer.writeUser(user);
+        }
+        writer.finish();
+        if (cursor != null) {
+            userPagePrefetcher.onPageServedAfter(request.getRemoteAddr(), name, sortKey, cursor, limit, userPage);
+        } else {
+            userPagePrefetcher.onPageServed(request.getRemoteAddr(), name, sortKey, limit, offset, userPage);
+        }
+    }
+
+    /**
+     * offset以降の全ユーザー（limit=0）を、一覧レスポンスと同じ形式のJSONとしてレスポンスへ逐次書き出します。
+     * ユーザーはDBから読み込んだ順に1件ずつ書き出され、一覧全体をヒープへ保持しません。
+     */
+    private void streamList(String name, UserSortKey sortKey, int offset, HttpServletResponse response) throws IOException {
+        UserListWriter writer = new UserListWriter(response);
+        userService.streamList(name, sortKey, offset, new UserStreamHandler() {
+            @Override
+            public void onTotal(int total) throws IOException {
+                PageMeta pageMeta = new PageMeta();
+                pageMeta.setOffset(offset);
+                pageMeta.setTotal(total);
+                writer.writeHeader(total, pageMeta);
+            }
+
+            @Override
+            public void onUser(byte[] user) throws IOException {
+                writer.writeUser(user);
+            }
+        });
+        writer.finish();
+    }
+
+    /**
+     * 一覧レスポンス（{@link UserListResponse} と同じ形式）を、シリアライズ済みのユーザーJSONを連結して書き出すライタ。
+     * 見出し（count・page）を書き出すまではレスポンスに触れないため、それより前の例外は通常のエラー応答になります。
+     * 閉じ括弧は全ユーザーを書き出した後の {@link #finish()} でのみ書き出すため、途中で失敗した場合、
+     * バッファを送信する前であれば通常のエラー応答に、送信後であれば閉じていない（不正な）JSONになり、クライアントは失敗を検知できます。
+     */
+    private final class UserListWriter {
+        private final HttpServletResponse response;
+        private OutputStream out;
+        private boolean first = true;
+
+        private UserListWriter(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        private void writeHeader(int total, PageMeta pageMeta) throws IOException {
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            out = new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+            out.write(("{\"count\":" + total + ",\"page\":").getBytes(StandardCharsets.UTF_8));
+            out.write(objectMapper.writeValueAsBytes(pageMeta));
+            out.write(USERS_START);
+        }
+
+        private void writeUser(byte[] user) throws IOException {
+            if (!first) out.write(',');
+            first = false;
+            out.write(user);
+        }
+
+        private void finish() throws IOException {
+            if (out == null) return;
+            out.write(USERS_END);
+            out.flush();
+        }
+    }
+
+    /**
+     * 全ユーザーをID順にNDJSON（1行に1ユーザーのJSON）で出力します。
+     * 書き出しはリクエストスレッドを解放した非同期スレッドで行い、DBから前方向のカーソルで読み込んだ順に逐次書き出すため、
+     * 件数が多くてもヒープ使用量は増えません。出力は開始時点のスナップショットです。
+     * @return ユーザーを逐次書き出すレスポンスボディ
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "ユーザー全件エクスポート（NDJSON）")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = UserResponse.class),
+                            examples = @ExampleObject(value = OpenApiExamples.Users.EXPORT_NDJSON))),
+            @ApiResponse(responseCode = "500", description = "サーバエラー",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "InternalServerError", value = OpenApiExamples.ErrorResponses.INTERNAL_SERVER_ERROR)))
+    })
+    public ResponseEntity<StreamingResponseBody> export() {
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, BUFFER_SIZE);
+            userService.export(user -> {
+                out.write(user);
+                out.write('\n');
+            });
+            out.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * 指定した通番より後に変更されたユーザーを、ユーザーごとに最新の変更1件として通番順に取得します。
+     * 削除されたユーザーはユーザーを含まない変更（トゥームストーン）として返します。
+     * @param since 取得済みの通番（前回のnextSince、0は最初から）
+     * @param limit 取得件数（1〜1000、既定値100）
+     * @return 変更一覧と次回のsince
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "ユーザーの変更取得（差分）")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = UserChangeListResponse.class),
+                            examples = @ExampleObject(value = OpenApiExamples.Changes.LIST_JSON))),
+            @ApiResponse(responseCode = "400", description = "不正なパラメータ",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "BadRequest", value = OpenApiExamples.ErrorResponses.BAD_REQUEST))),
+            @ApiResponse(responseCode = "500", description = "サーバエラー",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "InternalServerError", value = OpenApiExamples.ErrorResponses.INTERNAL_SERVER_ERROR)))
+    })
+    public UserChangeListResponse changes(
+            @Parameter(description = "取得済みの通番（前回のnextSince）", example = OpenApiExamples.Changes.SINCE,
+                    schema = @Schema(minimum = "0"))
+            @RequestParam(name = "since", defaultValue = "0") @Min(value = 0, message = "{user.changes.since.min}") long since,
+            @Parameter(description = "取得件数", example = OpenApiExamples.Changes.LIMIT,
+                    schema = @Schema(minimum = "1", maximum = "1000"))
+            @RequestParam(name = "limit", defaultValue = "100") @Min(value = 1, message = "{user.changes.limit.min}") @Max(value = 1000, message = "{user.changes.limit.max}") int limit
+    ) {
+        return userChangeFeed.changesSince(since, limit);
+    }
+
+    /**
+     * ユーザーの変更をServer-Sent Eventsで配信します。各イベントは {@code id} が通番、{@code data} が変更（ユーザーを含まない）です。
+     * 再接続時はLast-Event-IDヘッダ（またはsince）以降の変更から再開します。
+     * @param since 受信済みの通番（任意、省略時は接続以降の変更のみ）
+     * @param lastEventId 再接続時にブラウザ等が付与する受信済みの通番（sinceより優先）
+     * @return イベントストリーム
+     */
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "ユーザーの変更配信（Server-Sent Events）")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK",
+                    content = @Content(mediaType = MediaType.TEXT_EVENT_STREAM_VALUE)),
+            @ApiResponse(responseCode = "400", description = "不正なパラメータ",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "BadRequest", value = OpenApiExamples.ErrorResponses.BAD_REQUEST)))
+    })
+    public SseEmitter changeStream(
+            @Parameter(description = "受信済みの通番", example = OpenApiExamples.Changes.SINCE,
+                    schema = @Schema(minimum = "0"))
+            @RequestParam(name = "since", required = false) @Min(value = 0, message = "{user.changes.since.min}") Long since,
+            @Parameter(description = "再接続時の受信済みの通番", in = io.swagger.v3.oas.annotations.enums.ParameterIn.HEADER)
+            @RequestHeader(name = "Last-Event-ID", required = false) @Min(value = 0, message = "{user.changes.since.min}") Long lastEventId
+    ) {
+        return userChangeFeed.subscribe(lastEventId != null ? lastEventId : since);
     }
 
     /**
@@ -158,6 +381,37 @@ public class UserController {
         return new ResponseEntity<>(headers, HttpStatus.CREATED);
     }
 
+    /**
+     * NDJSON（1行に1ユーザー、形式はユーザー作成と同じ）のユーザーを一括登録します。
+     * 各行はユーザー作成と同じ検証を行い、検証を通過した行を一定件数ごとにまとめて登録します。
+     * レスポンスは行ごとの結果（NDJSON）で、登録が確定するたびに逐次書き出します。
+     * @param request リクエスト（ボディをNDJSONとして逐次読み込む）
+     * @param response レスポンス（行ごとの結果を逐次書き出す）
+     * @throws IOException 入力の読み込み・結果の書き出しに失敗した場合
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "ユーザー一括登録（NDJSON）")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "OK（行ごとの結果）",
+                    content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = UserImportResult.class),
+                            examples = @ExampleObject(value = OpenApiExamples.Import.RESULTS_NDJSON))),
+            @ApiResponse(responseCode = "500", description = "サーバエラー",
+                    content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class),
+                            examples = @ExampleObject(name = "InternalServerError", value = OpenApiExamples.ErrorResponses.INTERNAL_SERVER_ERROR)))
+    })
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+            content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                    schema = @Schema(implementation = UserCreateRequest.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Import.REQUEST_NDJSON)))
+    public void importUsers(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), BUFFER_SIZE);
+        userImporter.importUsers(request.getInputStream(), out);
+    }
+
     /**
      * 指定IDのユーザーを更新します。
      * @param userId ユーザーID
@@ -243,7 +497,7 @@ public class UserController {
     /**
      * 指定IDのユーザーを取得します。
      * @param userId ユーザーID
-     * @return ユーザー情報
+     * @return ユーザー情報（シリアライズ済みのJSON）
      */
     @GetMapping(value = "/{user_id}")
     @Operation(summary = "ユーザー取得")
@@ -277,11 +531,11 @@ public class UserController {
                             schema = @Schema(implementation = ApiErrorResponse.class),
                             examples = @ExampleObject(name = "InternalServerError", value = OpenApiExamples.ErrorResponses.INTERNAL_SERVER_ERROR)))
     })
-    public ResponseEntity<UserResponse> get(
+    public ResponseEntity<byte[]> get(
             @Parameter(description = "ユーザーID", example = OpenApiExamples.Users.ID)
             @Min(1)
             @PathVariable("user_id") Long userId) {
-        UserResponse userResponse = userService.get(userId);
-        return ResponseEntity.ok(userResponse);
+        hotKeyTracker.recordId(userId);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(userService.getJson(userId));
     }
 }
@@ -0,0 +1,20 @@
+package com.example.api.dto;
+
+import com.example.api.openapi.OpenApiExamples;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.Pattern;
+
+/**
+ * エクスポート作成リクエストDTO。
+ */
+@Schema(name = "ExportCreateRequest", description = "エクスポート作成リクエスト",
+        example = OpenApiExamples.Exports.REQUEST_JSON)
+@Data
+public class ExportCreateRequest {
+    /** ファイルの形式（ndjson / csv、省略時はndjson）。 */
+    @Pattern(regexp = "^(ndjson|csv)$", message = "{export.format.pattern}")
+    @Schema(description = "ファイルの形式", allowableValues = {"ndjson", "csv"}, example = OpenApiExamples.Exports.FORMAT, nullable = true)
+    private String format;
+}
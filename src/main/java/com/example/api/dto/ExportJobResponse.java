@@ -0,0 +1,43 @@
+package com.example.api.dto;
+
+import com.example.api.openapi.OpenApiExamples;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+/**
+ * エクスポートジョブの状態DTO。
+ */
+@Schema(name = "ExportJobResponse", description = "エクスポートジョブの状態",
+        example = OpenApiExamples.Exports.JOB_JSON)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+public class ExportJobResponse {
+    /** ジョブID。 */
+    @Schema(description = "ジョブID", example = OpenApiExamples.Exports.ID)
+    private String id;
+
+    /** ファイルの形式。 */
+    @Schema(description = "ファイルの形式", allowableValues = {"ndjson", "csv"}, example = OpenApiExamples.Exports.FORMAT)
+    private String format;
+
+    /** 状態（PENDING/RUNNING/COMPLETED/FAILED）。 */
+    @Schema(description = "状態", allowableValues = {"PENDING", "RUNNING", "COMPLETED", "FAILED"}, example = "RUNNING")
+    private String status;
+
+    /** 受付日時（UTC、ISO-8601）。 */
+    @Schema(description = "受付日時（UTC、ISO-8601）", example = OpenApiExamples.Exports.CREATED_AT)
+    private String createdAt;
+
+    /** 完了日時（UTC、ISO-8601、完了・失敗時のみ）。 */
+    @Schema(description = "完了日時（UTC、ISO-8601、完了・失敗時のみ）", example = OpenApiExamples.Exports.COMPLETED_AT, nullable = true)
+    private String completedAt;
+
+    /** 書き出したユーザー数（完了時のみ）。 */
+    @Schema(description = "書き出したユーザー数（完了時のみ）", example = OpenApiExamples.Exports.USERS, nullable = true)
+    private Long users;
+
+    /** ファイルのバイト数（完了時のみ）。 */
+    @Schema(description = "ファイルのバイト数（完了時のみ）", example = OpenApiExamples.Exports.SIZE, nullable = true)
+    private Long size;
+}
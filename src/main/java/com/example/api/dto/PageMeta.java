@@ -26,4 +26,8 @@ public class PageMeta {
     /** 次のページが存在するか。 */
     @Schema(description = "次のページが存在するか", example = OpenApiExamples.Page.HAS_NEXT)
     private boolean hasNext;
+
+    /** 次のページを取得するためのカーソル（次のページがない場合はnull）。 */
+    @Schema(description = "次のページを取得するためのカーソル（cursorパラメータに指定）", example = OpenApiExamples.Page.CURSOR, nullable = true)
+    private String nextCursor;
 }
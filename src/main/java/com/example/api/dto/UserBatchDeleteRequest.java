@@ -0,0 +1,45 @@
+package com.example.api.dto;
+
+import com.example.api.openapi.OpenApiExamples;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * ユーザー一括削除リクエストDTO。idsまたはnameのいずれか一方で対象を指定します。
+ */
+@Schema(name = "UserBatchDeleteRequest", description = "ユーザー一括削除リクエスト（idsまたはnameのいずれか一方を指定）",
+        example = OpenApiExamples.Batch.DELETE_REQUEST)
+@Data
+public class UserBatchDeleteRequest {
+    /** 削除するユーザーID。 */
+    @Size(min = 1, max = 10000, message = "{user.batch.ids.size}")
+    @ArraySchema(arraySchema = @Schema(description = "削除するユーザーID", nullable = true),
+            schema = @Schema(type = "integer", format = "int64", example = OpenApiExamples.Users.ID), minItems = 1, maxItems = 10000)
+    private List<@NotNull(message = "{user.batch.ids.element}") Long> ids;
+
+    /** 名前の部分一致（GET /api/v1/users のnameと同じ照合）。 */
+    @Size(min = 1, max = 200, message = "{user.list.name.size}")
+    @Pattern(regexp = ".*\\D.*", message = "{user.list.name.pattern}")
+    @Schema(description = "名前の部分一致（GET /api/v1/users のnameと同じ照合）", example = OpenApiExamples.Users.NAME, nullable = true)
+    private String name;
+
+    /**
+     * idsとnameのいずれか一方のみが指定されているかを返します。
+     *
+     * @return いずれか一方のみが指定されている場合true
+     */
+    @JsonIgnore
+    @Schema(hidden = true)
+    @AssertTrue(message = "{user.batch.delete.target}")
+    public boolean isTargetSpecified() {
+        return (ids != null) != (name != null);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.api.dto;
+
+import com.example.api.openapi.OpenApiExamples;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ユーザー一括削除レスポンスDTO。
+ */
+@Schema(name = "UserBatchDeleteResponse", description = "ユーザー一括削除レスポンス",
+        example = OpenApiExamples.Batch.DELETE_RESPONSE)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchDeleteResponse {
+    /** 削除したユーザー数（存在しないIDは含みません）。 */
+    @Schema(description = "削除したユーザー数（存在しないIDは含まない）", example = OpenApiExamples.Batch.DELETED)
+    private long deleted;
+}
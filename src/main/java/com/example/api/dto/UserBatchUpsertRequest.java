@@ -0,0 +1,26 @@
+package com.example.api.dto;
+
+import com.example.api.openapi.OpenApiExamples;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * ユーザー一括upsertリクエストDTO。
+ * 各ユーザーはリクエスト全体ではなく1件ごとに検証するため、要素には検証をカスケードしません。
+ */
+@Schema(name = "UserBatchUpsertRequest", description = "ユーザー一括upsertリクエスト",
+        example = OpenApiExamples.Batch.UPSERT_REQUEST)
+@Data
+public class UserBatchUpsertRequest {
+    /** 登録・更新するユーザー（nameで既存のユーザーと照合）。 */
+    @NotNull(message = "{user.batch.users.required}")
+    @Size(min = 1, max = 1000, message = "{user.batch.users.size}")
+    @ArraySchema(arraySchema = @Schema(description = "登録・更新するユーザー（nameで既存のユーザーと照合）"),
+            schema = @Schema(implementation = UserCreateRequest.class), minItems = 1, maxItems = 1000)
+    private List<UserCreateRequest> users;
+}
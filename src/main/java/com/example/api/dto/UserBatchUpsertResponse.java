@@ -0,0 +1,25 @@
+package com.example.api.dto;
+
+import com.example.api.openapi.OpenApiExamples;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ユーザー一括upsertレスポンスDTO。
+ */
+@Schema(name = "UserBatchUpsertResponse", description = "ユーザー一括upsertレスポンス",
+        example = OpenApiExamples.Batch.UPSERT_RESPONSE)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchUpsertResponse {
+    /** 入力と同じ順序の結果。 */
+    @ArraySchema(arraySchema = @Schema(description = "入力と同じ順序の結果"),
+            schema = @Schema(implementation = UserBatchUpsertResult.class))
+    private List<UserBatchUpsertResult> results;
+}
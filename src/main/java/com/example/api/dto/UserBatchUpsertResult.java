@@ -0,0 +1,42 @@
+package com.example.api.dto;
+
+import com.example.api.exception.FieldErrorDetail;
+import com.example.api.openapi.OpenApiExamples;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 一括upsertの1件分の結果DTO。
+ * 成功時はユーザーID、失敗時はPOST /api/v1/users と同じ詳細エラーを含みます。
+ */
+@Schema(name = "UserBatchUpsertResult", description = "一括upsertの1件分の結果",
+        example = OpenApiExamples.Batch.UPSERT_RESULT)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchUpsertResult {
+    /** 入力の位置（0始まり）。 */
+    @Schema(description = "入力の位置（0始まり）", example = OpenApiExamples.Batch.INDEX)
+    private int index;
+
+    /** 結果のHTTPステータス（201: 登録、200: 更新、400/409/422: 個別に登録した場合と同じエラー）。 */
+    @Schema(description = "結果のHTTPステータス（201: 登録、200: 更新、400/409/422: エラー）",
+            allowableValues = {"200", "201", "400", "409", "422"}, example = "201")
+    private int status;
+
+    /** ユーザーID（成功時のみ）。 */
+    @Schema(description = "ユーザーID（成功時のみ）", example = OpenApiExamples.Users.ID, nullable = true)
+    private Long id;
+
+    /** 詳細エラー（失敗時のみ）。 */
+    @ArraySchema(arraySchema = @Schema(description = "詳細エラー（失敗時のみ）", nullable = true),
+            schema = @Schema(implementation = FieldErrorDetail.class))
+    private List<FieldErrorDetail> errors;
+}
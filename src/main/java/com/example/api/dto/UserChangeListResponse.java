@@ -0,0 +1,28 @@
+package com.example.api.dto;
+
+import com.example.api.openapi.OpenApiExamples;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * ユーザーの変更一覧レスポンスDTO。
+ * 指定した通番より後に変更されたユーザーごとに、最新の変更を通番順に含みます。
+ */
+@Schema(name = "UserChangeListResponse", description = "ユーザーの変更一覧レスポンス",
+        example = OpenApiExamples.Changes.LIST_JSON)
+@Data
+public class UserChangeListResponse {
+    /** 変更一覧（ユーザーごとに最新の1件）。 */
+    @io.swagger.v3.oas.annotations.media.ArraySchema(arraySchema = @Schema(description = "変更一覧"), schema = @Schema(implementation = UserChangeResponse.class))
+    private List<UserChangeResponse> changes;
+
+    /** 次回のsinceに指定する通番。 */
+    @Schema(description = "次回のsinceパラメータに指定する通番", example = OpenApiExamples.Changes.SEQ)
+    private long nextSince;
+
+    /** 続きの変更があるか。 */
+    @Schema(description = "続きの変更があるか", example = "false")
+    private boolean hasMore;
+}
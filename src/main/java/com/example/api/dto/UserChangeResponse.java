@@ -0,0 +1,41 @@
+package com.example.api.dto;
+
+import com.example.api.openapi.OpenApiExamples;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * ユーザーの変更DTO。削除（DELETE）の場合はユーザーを含みません（トゥームストーン）。
+ */
+@Schema(name = "UserChangeResponse", description = "ユーザーの変更",
+        example = OpenApiExamples.Changes.CHANGE_JSON)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserChangeResponse {
+    /** 変更の通番。 */
+    @Schema(description = "変更の通番（sinceパラメータ・Last-Event-IDに指定）", example = OpenApiExamples.Changes.SEQ)
+    private long seq;
+
+    /** 対象ユーザーID。 */
+    @Schema(description = "ユーザーID", example = OpenApiExamples.Users.ID)
+    private Long userId;
+
+    /** 操作（UPSERT/DELETE）。 */
+    @Schema(description = "操作", allowableValues = {"UPSERT", "DELETE"}, example = "UPSERT")
+    private String op;
+
+    /** 変更日時（UTC、ISO-8601）。 */
+    @Schema(description = "変更日時（UTC、ISO-8601）", example = OpenApiExamples.Changes.CHANGED_AT)
+    private String changedAt;
+
+    /** 変更後のユーザー（UserResponseのJSON、DELETEおよびストリームでは省略）。 */
+    @JsonRawValue
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "変更後のユーザー（DELETEの場合は省略）", implementation = UserResponse.class, nullable = true)
+    private String user;
+}
@@ -0,0 +1,37 @@
+package com.example.api.dto;
+
+import com.example.api.exception.ApiErrorResponse;
+import com.example.api.openapi.OpenApiExamples;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * インポートの1行分の結果DTO。
+ * 成功時は生成されたユーザーID、失敗時はPOST /api/v1/users と同じ形式のエラーを含みます。
+ */
+@Schema(name = "UserImportResult", description = "インポートの1行分の結果",
+        example = OpenApiExamples.Import.RESULT_JSON)
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResult {
+    /** 入力の行番号（1始まり）。 */
+    @Schema(description = "入力の行番号（1始まり）", example = OpenApiExamples.Import.LINE)
+    private int line;
+
+    /** 同じ内容をPOST /api/v1/users で登録した場合のHTTPステータス（201/400/409/422）。 */
+    @Schema(description = "同じ内容を個別に登録した場合のHTTPステータス", allowableValues = {"201", "400", "409", "422", "500"}, example = "201")
+    private int status;
+
+    /** 生成されたユーザーID（成功時のみ）。 */
+    @Schema(description = "生成されたユーザーID（成功時のみ）", example = OpenApiExamples.Users.ID, nullable = true)
+    private Long id;
+
+    /** エラー（失敗時のみ）。 */
+    @Schema(description = "エラー（失敗時のみ）", nullable = true)
+    private ApiErrorResponse error;
+}
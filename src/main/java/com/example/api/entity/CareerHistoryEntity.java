@@ -1,22 +1,32 @@
 package com.example.api.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 
 /**
  * career_historiesテーブルに対応するJPAエンティティ。
  * 期間はSQLiteのTEXT(yyyy/MM/dd)で保持します。
+ * 更新時は値が変わった列のみをUPDATE文に含めます（@DynamicUpdate）。
+ * 二次キャッシュ有効時（{@link com.example.api.config.SecondLevelCacheConfig}）はキャッシュ対象です。
  */
 @Entity
 @Table(name = "career_histories")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @Data
 @Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class CareerHistoryEntity {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "career_histories_id")
+    @GenericGenerator(name = "career_histories_id", strategy = "com.example.api.config.hibernate.SQLiteSequenceIdGenerator")
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,39 @@
+package com.example.api.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+
+/**
+ * ユーザーの変更履歴（user_changesテーブル）に対応する読み取り専用エンティティ。
+ * 行はusersテーブルのトリガーが変更と同じトランザクションで追加するため、アプリケーションからは更新しません。
+ */
+@Entity
+@Immutable
+@Table(name = "user_changes")
+@Getter
+@NoArgsConstructor
+public class UserChangeEntity {
+    /** 作成・更新を表す操作。 */
+    public static final String UPSERT = "UPSERT";
+    /** 削除を表す操作。 */
+    public static final String DELETE = "DELETE";
+
+    /** 変更の通番（単調増加）。 */
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    /** UPSERTまたはDELETE。 */
+    @Column(name = "op")
+    private String op;
+
+    /** 変更日時（UTC、ISO-8601）。 */
+    @Column(name = "changed_at")
+    private String changedAt;
+}
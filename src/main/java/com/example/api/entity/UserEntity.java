@@ -1,6 +1,10 @@
 package com.example.api.entity;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
 
 import javax.persistence.*;
 import java.util.List;
@@ -8,16 +12,28 @@ import java.util.List;
 /**
  * usersテーブルに対応するJPAエンティティ。
  * 日付はSQLiteのTEXT(yyyy/MM/dd)として保持します。
+ * 更新時は値が変わった列のみをUPDATE文に含めます（@DynamicUpdate）。
+ * 二次キャッシュ有効時（{@link com.example.api.config.SecondLevelCacheConfig}）はキャッシュ対象です。
  */
 @Entity
 @Table(name = "users")
+@DynamicUpdate
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@SqlResultSetMapping(name = UserEntity.WITH_TOTAL_MAPPING,
+        entities = @EntityResult(entityClass = UserEntity.class),
+        columns = @ColumnResult(name = "total_count", type = Long.class))
 @Data
 @Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserEntity {
+    /** ユーザー列と総件数列（total_count）を受け取るネイティブクエリ用の結果マッピング名。 */
+    public static final String WITH_TOTAL_MAPPING = "UserEntity.withTotal";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "users_id")
+    @GenericGenerator(name = "users_id", strategy = "com.example.api.config.hibernate.SQLiteSequenceIdGenerator")
     private Long id;
 
     @Column(name = "name", nullable = false, unique = true, length = 200)
@@ -44,5 +60,6 @@ public class UserEntity {
 
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderBy("id ASC")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     private List<CareerHistoryEntity> careerHistories;
 }
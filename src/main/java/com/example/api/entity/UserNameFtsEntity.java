@@ -0,0 +1,26 @@
+package com.example.api.entity;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+
+/**
+ * users.nameのトライグラム全文検索インデックス（FTS5仮想テーブルusers_name_fts）に対応する読み取り専用エンティティ。
+ * 行はusersテーブルのトリガーで同期されるため、アプリケーションからは更新しません。
+ * rowidはusers.idと一致します。
+ */
+@Entity
+@Immutable
+@Table(name = "users_name_fts")
+@Getter
+@NoArgsConstructor
+public class UserNameFtsEntity {
+    @Id
+    @Column(name = "rowid")
+    private Long id;
+
+    @Column(name = "name")
+    private String name;
+}
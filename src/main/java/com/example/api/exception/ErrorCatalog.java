@@ -1,12 +1,21 @@
 package com.example.api.exception;
 
 import com.example.api.validation.MessageAccessor;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import org.springframework.http.HttpStatus;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import javax.validation.metadata.ConstraintDescriptor;
 import java.util.Collections;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * エラーコード・メッセージ・理由の定義を一元管理するカタログ。
@@ -76,6 +85,12 @@ public final class ErrorCatalog {
         public static final String METHOD_NOT_ALLOWED = MessageAccessor.message("error.method.notAllowed");
         public static final String NOT_ACCEPTABLE = MessageAccessor.message("error.notAcceptable");
         public static final String TYPE_MISMATCH = MessageAccessor.message("error.type.mismatch");
+        public static final String INVALID_CURSOR = MessageAccessor.message("error.cursor.invalid");
+        public static final String CURSOR_WITH_OFFSET = MessageAccessor.message("error.cursor.withOffset");
+        public static final String CURSOR_WITH_UNLIMITED = MessageAccessor.message("error.cursor.withUnlimited");
+        public static final String EXPORT_NOT_FOUND = MessageAccessor.message("error.export.notFound");
+        public static final String EXPORT_BUSY = MessageAccessor.message("error.export.busy");
+        public static final String EXPORT_FAILED = MessageAccessor.message("error.export.failed");
         public static final String NOT_FOUND = MessageAccessor.message("error.resource.notFound");
         public static final String UNEXPECTED_ERROR = MessageAccessor.message("error.unexpected");
     }
@@ -158,4 +173,72 @@ public final class ErrorCatalog {
         String resolvedMessage = (message != null && !message.isBlank()) ? message : defaultMessage(status);
         return new ApiErrorResponse(code(status), resolvedMessage, traceId, errors);
     }
+
+    /**
+     * 制約違反から、詳細エラーの制約情報（min/max/pattern等）を取り出します。
+     *
+     * @param violation 制約違反
+     * @return 制約情報（対象外の制約の場合はnull）
+     */
+    public static Map<String, Object> constraints(ConstraintViolation<?> violation) {
+        if (violation == null) {
+            return null;
+        }
+        ConstraintDescriptor<?> descriptor = violation.getConstraintDescriptor();
+        if (descriptor == null || descriptor.getAnnotation() == null) {
+            return null;
+        }
+        Class<?> annotationType = descriptor.getAnnotation().annotationType();
+        Map<String, Object> attributes = descriptor.getAttributes();
+        if (Min.class.equals(annotationType)) {
+            return Map.of("min", attributes.get("value"));
+        }
+        if (Max.class.equals(annotationType)) {
+            return Map.of("max", attributes.get("value"));
+        }
+        if (Digits.class.equals(annotationType)) {
+            return Map.of(
+                    "integer", attributes.get("integer"),
+                    "fraction", attributes.get("fraction"));
+        }
+        if (Size.class.equals(annotationType)) {
+            return Map.of(
+                    "min", attributes.get("min"),
+                    "max", attributes.get("max"));
+        }
+        if (Pattern.class.equals(annotationType)) {
+            return Map.of(
+                    "pattern", attributes.get("regexp"),
+                    "flags", attributes.get("flags"));
+        }
+        return null;
+    }
+
+    /**
+     * JSONの値を型へ変換できなかった場合の詳細エラー（リクエストボディの項目）を生成します。
+     *
+     * @param ex 変換エラー
+     * @return FieldErrorDetail
+     */
+    public static FieldErrorDetail invalidFormat(InvalidFormatException ex) {
+        String invalidValue = String.valueOf(ex.getValue());
+        String expectedType = ex.getTargetType() != null ? ex.getTargetType().getSimpleName() : "unknown";
+        Map<String, Object> constraints = Map.of(
+                "invalidValue", invalidValue,
+                "expectedType", expectedType
+        );
+        String fieldPath = ex.getPath().stream()
+                .map(ref -> ref.getFieldName() != null ? ref.getFieldName() : "[" + ref.getIndex() + "]")
+                .collect(Collectors.joining("."))
+                .replace(".[", "[");
+        if (fieldPath.isBlank()) {
+            fieldPath = "payload";
+        }
+        return fieldError(
+                DetailCodes.VALIDATION_ERROR,
+                Messages.INVALID_INPUT_FORMAT,
+                fieldPath,
+                "body",
+                constraints);
+    }
 }
@@ -28,12 +28,6 @@ import org.springframework.validation.FieldError;
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
 import javax.validation.ElementKind;
-import javax.validation.constraints.Digits;
-import javax.validation.constraints.Max;
-import javax.validation.constraints.Min;
-import javax.validation.constraints.Pattern;
-import javax.validation.constraints.Size;
-import javax.validation.metadata.ConstraintDescriptor;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -214,37 +208,7 @@ public class GlobalExceptionHandler {
     }
 
     private Map<String, Object> extractConstraints(ConstraintViolation<?> violation) {
-        if (violation == null) {
-            return null;
-        }
-        ConstraintDescriptor<?> descriptor = violation.getConstraintDescriptor();
-        if (descriptor == null || descriptor.getAnnotation() == null) {
-            return null;
-        }
-        Class<?> annotationType = descriptor.getAnnotation().annotationType();
-        Map<String, Object> attributes = descriptor.getAttributes();
-        if (Min.class.equals(annotationType)) {
-            return Map.of("min", attributes.get("value"));
-        }
-        if (Max.class.equals(annotationType)) {
-            return Map.of("max", attributes.get("value"));
-        }
-        if (Digits.class.equals(annotationType)) {
-            return Map.of(
-                    "integer", attributes.get("integer"),
-                    "fraction", attributes.get("fraction"));
-        }
-        if (Size.class.equals(annotationType)) {
-            return Map.of(
-                    "min", attributes.get("min"),
-                    "max", attributes.get("max"));
-        }
-        if (Pattern.class.equals(annotationType)) {
-            return Map.of(
-                    "pattern", attributes.get("regexp"),
-                    "flags", attributes.get("flags"));
-        }
-        return null;
+        return ErrorCatalog.constraints(violation);
     }
 
     private HttpStatus resolveStatusFromAnnotation(Exception ex) {
@@ -273,25 +237,7 @@ public class GlobalExceptionHandler {
     }
 
     private List<FieldErrorDetail> buildInvalidFormatDetails(InvalidFormatException ex) {
-        String invalidValue = String.valueOf(ex.getValue());
-        String expectedType = ex.getTargetType() != null ? ex.getTargetType().getSimpleName() : "unknown";
-        Map<String, Object> constraints = Map.of(
-                "invalidValue", invalidValue,
-                "expectedType", expectedType
-        );
-        String fieldPath = ex.getPath().stream()
-                .map(ref -> ref.getFieldName() != null ? ref.getFieldName() : "[" + ref.getIndex() + "]")
-                .collect(Collectors.joining("."))
-                .replace(".[", "[");
-        if (fieldPath.isBlank()) {
-            fieldPath = "payload";
-        }
-        return List.of(ErrorCatalog.fieldError(
-                ErrorCatalog.DetailCodes.VALIDATION_ERROR,
-                ErrorCatalog.Messages.INVALID_INPUT_FORMAT,
-                fieldPath,
-                LOCATION_BODY,
-                constraints));
+        return List.of(ErrorCatalog.invalidFormat(ex));
     }
 
     private HttpStatus resolveStatusForFieldErrors(List<org.springframework.validation.FieldError> errors) {
@@ -22,6 +22,10 @@ public final class OpenApiExamples {
         public static final String ZIP_CODE = "123-4567";
         public static final String SEARCH_NAME = "Tar";
         public static final String ID = "1";
+        public static final String EXPORT_NDJSON = """
+                {"id":1,"name":"Taro Yamada","age":30,"birthday":"1994/04/01","height":170.5,"zipCode":"123-4567","careerHistories":[{"id":1,"title":"Software Engineer","period":{"from":"2018/04/01","to":"2021/03/31"}}]}
+                {"id":2,"name":"Hanako Suzuki","age":25,"birthday":"1999/05/12","height":160.0,"zipCode":"234-5678","careerHistories":[]}
+                """;
     }
 
     public static final class Career {
@@ -67,12 +71,15 @@ public final class OpenApiExamples {
         public static final String LIMIT = "10";
         public static final String TOTAL = "25";
         public static final String HAS_NEXT = "true";
+        public static final String CURSOR = "aWQ6MTA6";
+        public static final String SORT = "id";
         public static final String META_JSON = """
                 {
                   "offset": 0,
                   "limit": 10,
                   "total": 25,
-                  "hasNext": true
+                  "hasNext": true,
+                  "nextCursor": "aWQ6MTA6"
                 }
                 """;
     }
@@ -128,7 +135,7 @@ public final class OpenApiExamples {
         public static final String USER_LIST = """
                 {
                   "count": 25,
-                  "page": {"offset":0,"limit":10,"total":25,"hasNext":true},
+                  "page": {"offset":0,"limit":10,"total":25,"hasNext":true,"nextCursor":"aWQ6MTA6"},
                   "users": [
                     {
                       "id": 1,
@@ -182,6 +189,142 @@ public final class OpenApiExamples {
                 """;
     }
 
+    public static final class Changes {
+        private Changes() {
+        }
+
+        public static final String SEQ = "42";
+        public static final String SINCE = "0";
+        public static final String LIMIT = "100";
+        public static final String CHANGED_AT = "2024-04-01T09:00:00.000Z";
+        public static final String CHANGE_JSON = """
+                {
+                  "seq": 42,
+                  "userId": 1,
+                  "op": "UPSERT",
+                  "changedAt": "2024-04-01T09:00:00.000Z",
+                  "user": {"id":1,"name":"Taro Yamada","age":30,"birthday":"1994/04/01","height":170.5,"zipCode":"123-4567","careerHistories":[]}
+                }
+                """;
+        public static final String LIST_JSON = """
+                {
+                  "changes": [
+                    {
+                      "seq": 41,
+                      "userId": 2,
+                      "op": "DELETE",
+                      "changedAt": "2024-04-01T08:59:00.000Z"
+                    },
+                    {
+                      "seq": 42,
+                      "userId": 1,
+                      "op": "UPSERT",
+                      "changedAt": "2024-04-01T09:00:00.000Z",
+                      "user": {"id":1,"name":"Taro Yamada","age":30,"birthday":"1994/04/01","height":170.5,"zipCode":"123-4567","careerHistories":[]}
+                    }
+                  ],
+                  "nextSince": 42,
+                  "hasMore": false
+                }
+                """;
+    }
+
+    public static final class Import {
+        private Import() {
+        }
+
+        public static final String LINE = "1";
+        public static final String REQUEST_NDJSON = """
+                {"name":"Taro Yamada","age":30,"birthday":"1994/04/01","height":170.5,"zipCode":"123-4567"}
+                {"name":"Hanako Suzuki","age":25,"birthday":"1999/05/12","careerHistories":[{"title":"QA Engineer","period":{"from":"2020/06/01","to":"2022/03/31"}}]}
+                """;
+        public static final String RESULT_JSON = """
+                {
+                  "line": 1,
+                  "status": 201,
+                  "id": 1
+                }
+                """;
+        public static final String RESULTS_NDJSON = """
+                {"line":1,"status":201,"id":4}
+                {"line":2,"status":409,"error":{"code":"CONFLICT","message":"リソースが重複しています","traceId":"f1c2d3e4-5678-90ab-cdef-1234567890ab","errors":[{"code":"DUPLICATE","reason":"nameは既に存在しています","field":"name","location":"body","constraints":{"unique":true}}]}}
+                """;
+    }
+
+    public static final class Batch {
+        private Batch() {
+        }
+
+        public static final String INDEX = "0";
+        public static final String UPSERT_REQUEST = """
+                {
+                  "users": [
+                    {"name": "Taro Yamada", "age": 31, "birthday": "1994/04/01", "height": 170.5, "zipCode": "123-4567"},
+                    {"name": "Jiro Tanaka", "age": 28, "birthday": "1997/08/20", "careerHistories": [{"title": "Designer", "period": {"from": "2019/04/01", "to": "2023/03/31"}}]},
+                    {"name": "Saburo Sato", "age": 200, "birthday": "1990/01/01"}
+                  ]
+                }
+                """;
+        public static final String UPSERT_RESULT = """
+                {
+                  "index": 0,
+                  "status": 200,
+                  "id": 1
+                }
+                """;
+        public static final String UPSERT_RESPONSE = """
+                {
+                  "results": [
+                    {"index": 0, "status": 200, "id": 1},
+                    {"index": 1, "status": 201, "id": 4},
+                    {"index": 2, "status": 422, "errors": [{"code": "VALIDATION_ERROR", "reason": "年齢は150以下で入力してください", "field": "age", "location": "body", "constraints": {"max": 150}}]}
+                  ]
+                }
+                """;
+        public static final String DELETED = "2";
+        public static final String DELETE_REQUEST = """
+                {
+                  "ids": [1, 2, 999]
+                }
+                """;
+        public static final String DELETE_RESPONSE = """
+                {
+                  "deleted": 2
+                }
+                """;
+    }
+
+    public static final class Exports {
+        private Exports() {
+        }
+
+        public static final String ID = "3f2b8c1e-6a4d-4e8f-9b0a-2c7d5e1f4a96";
+        public static final String FORMAT = "ndjson";
+        public static final String CREATED_AT = "2024-04-01T09:00:00Z";
+        public static final String COMPLETED_AT = "2024-04-01T09:00:02Z";
+        public static final String USERS = "50000";
+        public static final String SIZE = "8812345";
+        public static final String LOCATION = "/api/v1/exports/3f2b8c1e-6a4d-4e8f-9b0a-2c7d5e1f4a96";
+        public static final String REQUEST_JSON = """
+                {
+                  "format": "csv"
+                }
+                """;
+        public static final String JOB_JSON = """
+                {
+                  "id": "3f2b8c1e-6a4d-4e8f-9b0a-2c7d5e1f4a96",
+                  "format": "ndjson",
+                  "status": "RUNNING",
+                  "createdAt": "2024-04-01T09:00:00Z"
+                }
+                """;
+        public static final String CSV = """
+                id,name,age,birthday,height,zipCode,careerHistoryId,careerTitle,careerFrom,careerTo
+                1,Taro Yamada,30,1994/04/01,170.5,123-4567,1,Software Engineer,2015/04/01,2019/03/31
+                2,Hanako Suzuki,25,1999/05/12,,,,,,
+                """;
+    }
+
     public static final class Headers {
         private Headers() {
         }
@@ -0,0 +1,33 @@
+package com.example.api.repository;
+
+import com.example.api.entity.UserChangeEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * ユーザーの変更履歴のリポジトリ。
+ */
+public interface UserChangeJpaRepository extends JpaRepository<UserChangeEntity, Long> {
+    /** 通番より後の変更を通番順に取得（同じユーザーの変更もそれぞれ返す） */
+    List<UserChangeEntity> findBySeqGreaterThanOrderBySeqAsc(long seq, Pageable pageable);
+
+    /** 最新の変更 */
+    Optional<UserChangeEntity> findTopByOrderBySeqDesc();
+
+    /**
+     * 通番より後に変更されたユーザーごとに、最新の変更だけを通番順に取得します。
+     *
+     * @param since 取得済みの通番
+     * @param limit 最大件数
+     * @return ユーザーごとの最新の変更
+     */
+    @Query(value = "SELECT c.* FROM user_changes c"
+            + " WHERE c.seq IN (SELECT MAX(seq) FROM user_changes WHERE seq > :since GROUP BY user_id)"
+            + " ORDER BY c.seq LIMIT :limit", nativeQuery = true)
+    List<UserChangeEntity> findLatestPerUserAfter(@Param("since") long since, @Param("limit") int limit);
+}
@@ -11,15 +11,10 @@ import java.util.Optional;
 
 /**
  * ユーザーエンティティのSpring Data JPAリポジトリ。
- * 派生クエリとSpecification実行を提供します。
+ * 派生クエリとSpecification実行、およびカスタムクエリを提供します。
  */
-public interface UserJpaRepository extends JpaRepository<UserEntity, Long>, JpaSpecificationExecutor<UserEntity> {
-    /** 指定したnameが存在するか */
-    boolean existsByName(String name);
-    /** 指定ID以外で同名が存在するか（更新時の一意制約確認） */
-    boolean existsByNameAndIdNot(String name, Long id);
-    /** name部分一致での件数 */
-    long countByNameContaining(String name);
+public interface UserJpaRepository extends JpaRepository<UserEntity, Long>, JpaSpecificationExecutor<UserEntity>,
+        UserJpaRepositoryCustom {
     /** name部分一致でのページ取得 */
     Page<UserEntity> findByNameContaining(String name, Pageable pageable);
 
@@ -0,0 +1,161 @@
+package com.example.api.repository;
+
+import com.example.api.entity.UserEntity;
+import com.example.api.repository.spec.UserSortKey;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Spring Dataの派生クエリでは表現できないユーザー検索を定義するカスタムリポジトリ。
+ */
+public interface UserJpaRepositoryCustom {
+    /**
+     * 条件と並び順を指定し、offset/limitをそのままSQLへ適用して取得します。
+     * Pageと異なり件数取得クエリは発行しません。
+     *
+     * @param spec   検索条件
+     * @param sort   並び順
+     * @param offset 読み飛ばす件数
+     * @param limit  取得件数（0は上限なし）
+     * @return ユーザーエンティティのリスト
+     */
+    List<UserEntity> findSlice(Specification<UserEntity> spec, Sort sort, int offset, int limit);
+
+    /**
+     * name部分一致に該当する件数を返します。
+     * 照合方法は {@link com.example.api.repository.spec.UserSpecifications#nameContains} と同じです。
+     *
+     * @param name 名前の部分一致（空でないこと）
+     * @return 件数
+     */
+    long countByNameContaining(String name);
+
+    /**
+     * name部分一致で検索し、offset/limitを適用した行を総件数（COUNT(*) OVER()）付きで取得します。
+     * 1文で取得するため、行と総件数は同一のスナップショットから読み取られます。
+     * 結果は前方向のカーソルで逐次読み込むため、利用後は必ずcloseしてください。
+     *
+     * @param name    名前の部分一致（任意）
+     * @param sortKey 並び順キー
+     * @param offset  読み飛ばす件数
+     * @param limit   取得件数（0は上限なし）
+     * @return ユーザーと総件数の組のストリーム
+     */
+    Stream<UserWithTotal> streamWithTotal(String name, UserSortKey sortKey, int offset, int limit);
+
+    /**
+     * 全ユーザーをID順に前方向のカーソルで逐次読み込みます。職歴は読み込みません。
+     * 総件数を求めないため、SQLiteは結果を一時領域へ溜めずに1行ずつ返します。利用後は必ずcloseしてください。
+     *
+     * @return ユーザーエンティティのストリーム
+     */
+    Stream<UserEntity> streamAll();
+
+    /**
+     * 指定したユーザーの職歴を1回のクエリ（ユーザーIDのIN条件による結合取得）でまとめて読み込み、
+     * 各エンティティの職歴コレクションを初期化します。
+     * ページ単位で取得したユーザーを変換する前に呼び出し、ユーザーごとの遅延ロード（N+1）を避けます。
+     *
+     * @param users 永続化コンテキストに属するユーザー
+     */
+    void fetchCareerHistories(Collection<UserEntity> users);
+
+    /**
+     * 職歴を含めてユーザーを取得します。
+     * 二次キャッシュにユーザーがあればキャッシュから組み立て、なければユーザーと職歴を結合した1文で読み込みます
+     * （読み込んだ結果は二次キャッシュに格納されます）。二次キャッシュが無効な場合は常に後者です。
+     *
+     * @param id ユーザーID
+     * @return ユーザー（存在しない場合は空）
+     */
+    Optional<UserEntity> findCachedWithCareerHistoriesById(Long id);
+
+    /**
+     * 指定IDのユーザーを1文のDELETEで削除します。職歴はスキーマのON DELETE CASCADEで削除されます。
+     * エンティティを読み込まないため、実行前に永続化コンテキストを反映し、実行後はクリアします。
+     * 二次キャッシュはリージョン全体ではなく対象ユーザーとその職歴コレクションのエントリのみを無効化します。
+     *
+     * @param id 対象ユーザーID
+     * @return 削除件数（存在しない場合は0）
+     */
+    int deleteUserById(Long id);
+
+    /**
+     * 指定IDのユーザーを1文のDELETE（IDのIN条件）でまとめて削除します。職歴はスキーマのON DELETE CASCADEで削除されます。
+     * 実行前に永続化コンテキストを反映し、実行後はクリアします。二次キャッシュは対象ユーザーのエントリのみを無効化します。
+     *
+     * @param ids 対象ユーザーID（SQLiteのバインド変数の上限を超えないこと）
+     * @return 削除件数（存在しないIDは数えません）
+     */
+    int deleteAllByIds(Collection<Long> ids);
+
+    /**
+     * name部分一致に該当するユーザーのIDを、指定したIDより後ろからID順に取得します（キーセットページング）。
+     * 照合方法は {@link com.example.api.repository.spec.UserSpecifications#nameContains} と同じです。
+     *
+     * @param name    名前の部分一致（空でないこと）
+     * @param afterId このIDより大きいIDのみを対象とする
+     * @param maxId   このID以下のIDのみを対象とする
+     * @param limit   取得件数
+     * @return ユーザーID
+     */
+    List<Long> findIdsByNameContaining(String name, long afterId, long maxId, int limit);
+
+    /**
+     * ユーザーと職歴を複数行INSERTでまとめて登録します。nameが既存（または同じリスト内で先に登録した）ユーザーと重複する
+     * ユーザーは登録せずに読み飛ばします（{@code ON CONFLICT (name) DO NOTHING}）。
+     * IDはエンティティのジェネレータで払い出して各エンティティへ設定するため、同じトランザクション内の他の登録と重複しません。
+     * エンティティは永続化コンテキストへ載せません。
+     *
+     * @param users 登録するユーザー（職歴はユーザーへの参照を持つこと）
+     * @return 登録したユーザーのID
+     */
+    Set<Long> insertAllSkippingDuplicateNames(List<UserEntity> users);
+
+    /**
+     * 指定したnameのユーザーのIDを1回のクエリ（nameのIN条件）で取得します。
+     *
+     * @param names 名前（完全一致）
+     * @return 存在したユーザーの名前とIDの組
+     */
+    Map<String, Long> findIdsByNames(Collection<String> names);
+
+    /**
+     * 既存ユーザーの項目（name以外）をJDBCのバッチ更新でまとめて書き換え、職歴をエンティティの職歴で置き換えます。
+     * 既存の職歴はユーザーIDのIN条件によるDELETEで削除し、新しい職歴は複数行INSERTで登録します（IDはジェネレータで払い出し）。
+     * エンティティを読み込まないため、実行前に永続化コンテキストを反映し、実行後はクリアします。
+     * 二次キャッシュは対象ユーザーとその職歴コレクションのエントリのみを無効化します。
+     *
+     * @param users IDが設定された更新内容（職歴はユーザーへの参照を持つこと）
+     */
+    void updateAllReplacingCareerHistories(List<UserEntity> users);
+
+    /**
+     * 全ユーザーのIDを前方向のカーソルで逐次読み込みます（利用後は必ずcloseしてください）。
+     *
+     * @return ユーザーIDのストリーム
+     */
+    Stream<Long> streamIds();
+
+    /**
+     * これまでに払い出したユーザーIDの最大値（sqlite_sequenceとusersの最大IDの大きい方）を返します。
+     * AUTOINCREMENTにより、以降に作成されるユーザー（他プロセスによるものを含む）のIDは必ずこの値より大きくなります。
+     *
+     * @return 払い出し済みの最大ID（未作成の場合は0）
+     */
+    long lastAllocatedId();
+
+    /**
+     * エンティティを永続化コンテキストから切り離します（大量読み取り時のメモリ抑制用）。
+     *
+     * @param user 対象エンティティ
+     */
+    void detach(UserEntity user);
+}
@@ -0,0 +1,418 @@
+package com.example.api.repository;
+
+import com.example.api.entity.CareerHistoryEntity;
+import com.example.api.entity.UserEntity;
+import com.example.api.repository.spec.UserSortKey;
+import com.example.api.repository.spec.UserSpecifications;
+import org.hibernate.Hibernate;
+import org.hibernate.cache.spi.access.CachedDomainDataAccess;
+import org.hibernate.cache.spi.access.CollectionDataAccess;
+import org.hibernate.cache.spi.access.EntityDataAccess;
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.jpa.QueryHints;
+import org.hibernate.persister.collection.CollectionPersister;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * {@link UserJpaRepositoryCustom} の実装。
+ */
+public class UserJpaRepositoryImpl implements UserJpaRepositoryCustom {
+    private static final String CAREER_HISTORIES_ROLE = UserEntity.class.getName() + ".careerHistories";
+    /** 複数行INSERTの1文にまとめる最大行数（バインド変数の数をSQLiteの上限より十分小さく保つ）。 */
+    static final int ROWS_PER_INSERT = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<UserEntity> findSlice(Specification<UserEntity> spec, Sort sort, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserEntity> query = cb.createQuery(UserEntity.class);
+        Root<UserEntity> root = query.from(UserEntity.class);
+        Predicate predicate = spec == null ? null : spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root).orderBy(QueryUtils.toOrders(sort, root, cb));
+        TypedQuery<UserEntity> typedQuery = entityManager.createQuery(query);
+        if (offset > 0) {
+            typedQuery.setFirstResult(offset);
+        }
+        if (limit > 0) {
+            typedQuery.setMaxResults(limit);
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public long countByNameContaining(String name) {
+        String sql = UserSpecifications.usesFullTextIndex(name)
+                ? "SELECT COUNT(*) FROM users_name_fts WHERE users_name_fts MATCH :name"
+                : "SELECT COUNT(*) FROM users WHERE name LIKE :name ESCAPE '\\'";
+        Query query = entityManager.createNativeQuery(sql);
+        bindName(query, name);
+        return ((Number) query.getSingleResult()).longValue();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<UserWithTotal> streamWithTotal(String name, UserSortKey sortKey, int offset, int limit) {
+        boolean filtered = name != null && !name.isBlank();
+        String sql;
+        if (filtered && sortKey == UserSortKey.ID && UserSpecifications.usesFullTextIndex(name)) {
+            // ID順は全文検索インデックスのrowid順と一致するため、総件数とページングをインデックス上で済ませてからusersを引く
+            sql = "SELECT u.*, t.total_count FROM (SELECT rowid AS id, COUNT(*) OVER() AS total_count FROM users_name_fts"
+                    + " WHERE users_name_fts MATCH :name ORDER BY rowid LIMIT :limit OFFSET :offset) t"
+                    + " JOIN users u ON u.id = t.id ORDER BY u.id";
+        } else {
+            sql = "SELECT u.*, COUNT(*) OVER() AS total_count FROM users u"
+                    + (filtered ? " WHERE " + nameCondition(name) : "")
+                    + " ORDER BY " + (sortKey == UserSortKey.NAME ? "u.name, u.id" : "u.id")
+                    + " LIMIT :limit OFFSET :offset";
+        }
+        Query query = entityManager.createNativeQuery(sql, UserEntity.WITH_TOTAL_MAPPING);
+        if (filtered) {
+            bindName(query, name);
+        }
+        // SQLiteでは負のLIMITが上限なしを表す
+        query.setParameter("limit", limit > 0 ? limit : -1);
+        query.setParameter("offset", offset);
+        Stream<Object[]> rows = query.getResultStream();
+        return rows.map(row -> new UserWithTotal((UserEntity) row[0], ((Number) row[1]).longValue()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<UserEntity> streamAll() {
+        Query query = entityManager.createNativeQuery("SELECT u.* FROM users u ORDER BY u.id", UserEntity.class);
+        return query.getResultStream();
+    }
+
+    @Override
+    public void fetchCareerHistories(Collection<UserEntity> users) {
+        if (users.isEmpty()) return;
+        List<Long> ids = users.stream().map(UserEntity::getId).collect(Collectors.toList());
+        // 取得結果は破棄し、永続化コンテキスト上の同一エンティティの職歴コレクションが初期化されることを利用する
+        entityManager.createQuery(
+                        "select distinct u from UserEntity u left join fetch u.careerHistories where u.id in :ids",
+                        UserEntity.class)
+                .setParameter("ids", ids)
+                .setHint(QueryHints.HINT_PASS_DISTINCT_THROUGH, false)
+                .getResultList();
+    }
+
+    @Override
+    public Optional<UserEntity> findCachedWithCareerHistoriesById(Long id) {
+        if (!entityManager.getEntityManagerFactory().getCache().contains(UserEntity.class, id)) {
+            return entityManager.createQuery(
+                            "select u from UserEntity u left join fetch u.careerHistories where u.id = :id", UserEntity.class)
+                    .setParameter("id", id)
+                    .getResultList().stream().findFirst();
+        }
+        UserEntity user = entityManager.find(UserEntity.class, id);
+        if (user == null) return Optional.empty();
+        Hibernate.initialize(user.getCareerHistories());
+        return Optional.of(user);
+    }
+
+    @Override
+    public int deleteUserById(Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.flush();
+        invalidateCachedUser(session, id);
+        // HQL/ネイティブの一括DELETEはリージョン全体を破棄するため、JDBCで実行して対象キーのみを無効化する
+        String sql = "DELETE FROM users WHERE id = ?";
+        PreparedStatement statement = session.getJdbcCoordinator().getStatementPreparer().prepareStatement(sql);
+        try {
+            statement.setLong(1, id);
+            return session.getJdbcCoordinator().getResultSetReturn().executeUpdate(statement);
+        } catch (SQLException ex) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "Could not delete user", sql);
+        } finally {
+            session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release(statement);
+            session.getJdbcCoordinator().afterStatementExecution();
+            entityManager.clear();
+        }
+    }
+
+    @Override
+    public int deleteAllByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) return 0;
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.flush();
+        ids.forEach(id -> invalidateCachedUser(session, id));
+        String sql = "DELETE FROM users WHERE id IN (" + String.join(", ", Collections.nCopies(ids.size(), "?")) + ")";
+        PreparedStatement statement = session.getJdbcCoordinator().getStatementPreparer().prepareStatement(sql);
+        try {
+            int index = 1;
+            for (Long id : ids) {
+                statement.setLong(index++, id);
+            }
+            return session.getJdbcCoordinator().getResultSetReturn().executeUpdate(statement);
+        } catch (SQLException ex) {
+            throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "Could not delete users", sql);
+        } finally {
+            session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release(statement);
+            session.getJdbcCoordinator().afterStatementExecution();
+            entityManager.clear();
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> findIdsByNameContaining(String name, long afterId, long maxId, int limit) {
+        Query query = entityManager.createNativeQuery("SELECT u.id FROM users u WHERE " + nameCondition(name)
+                + " AND u.id > :afterId AND u.id <= :maxId ORDER BY u.id LIMIT :limit");
+        bindName(query, name);
+        query.setParameter("afterId", afterId);
+        query.setParameter("maxId", maxId);
+        query.setParameter("limit", limit);
+        List<Number> ids = query.getResultList();
+        return ids.stream().map(Number::longValue).collect(Collectors.toList());
+    }
+
+    @Override
+    public Set<Long> insertAllSkippingDuplicateNames(List<UserEntity> users) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.flush();
+        IdentifierGenerator userIds = session.getFactory().getMetamodel().entityPersister(UserEntity.class).getIdentifierGenerator();
+        for (UserEntity user : users) {
+            user.setId((Long) userIds.generate(session, user));
+        }
+        Set<Long> inserted = new HashSet<>();
+        for (int from = 0; from < users.size(); from += ROWS_PER_INSERT) {
+            List<UserEntity> rows = users.subList(from, Math.min(users.size(), from + ROWS_PER_INSERT));
+            String sql = "INSERT INTO users (id, name, age, birthday, height, zip_code, created_at, updated_at) VALUES "
+                    + placeholders(8, rows.size()) + " ON CONFLICT (name) DO NOTHING RETURNING id";
+            PreparedStatement statement = session.getJdbcCoordinator().getStatementPreparer().prepareStatement(sql);
+            try {
+                int index = 1;
+                for (UserEntity user : rows) {
+                    statement.setLong(index++, user.getId());
+                    statement.setString(index++, user.getName());
+                    statement.setInt(index++, user.getAge());
+                    statement.setString(index++, user.getBirthday());
+                    statement.setObject(index++, user.getHeight());
+                    statement.setString(index++, user.getZipCode());
+                    statement.setString(index++, user.getCreatedAt());
+                    statement.setString(index++, user.getUpdatedAt());
+                }
+                ResultSet resultSet = session.getJdbcCoordinator().getResultSetReturn().extract(statement);
+                while (resultSet.next()) {
+                    inserted.add(resultSet.getLong(1));
+                }
+            } catch (SQLException ex) {
+                throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "Could not insert users", sql);
+            } finally {
+                session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release(statement);
+                session.getJdbcCoordinator().afterStatementExecution();
+            }
+        }
+        List<CareerHistoryEntity> careerHistories = users.stream()
+                .filter(user -> inserted.contains(user.getId()) && user.getCareerHistories() != null)
+                .flatMap(user -> user.getCareerHistories().stream())
+                .collect(Collectors.toList());
+        insertCareerHistories(session, careerHistories);
+        return inserted;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Long> findIdsByNames(Collection<String> names) {
+        if (names.isEmpty()) return Collections.emptyMap();
+        List<Object[]> rows = entityManager.createNativeQuery("SELECT name, id FROM users WHERE name IN (:names)")
+                .setParameter("names", names)
+                .getResultList();
+        Map<String, Long> ids = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            ids.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return ids;
+    }
+
+    @Override
+    public void updateAllReplacingCareerHistories(List<UserEntity> users) {
+        if (users.isEmpty()) return;
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        session.flush();
+        users.forEach(user -> invalidateCachedUser(session, user.getId()));
+        try {
+            String sql = "UPDATE users SET age = ?, birthday = ?, height = ?, zip_code = ?, updated_at = ? WHERE id = ?";
+            PreparedStatement statement = session.getJdbcCoordinator().getStatementPreparer().prepareStatement(sql);
+            try {
+                for (UserEntity user : users) {
+                    statement.setInt(1, user.getAge());
+                    statement.setString(2, user.getBirthday());
+                    statement.setObject(3, user.getHeight());
+                    statement.setString(4, user.getZipCode());
+                    statement.setString(5, user.getUpdatedAt());
+                    statement.setLong(6, user.getId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            } catch (SQLException ex) {
+                throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "Could not update users", sql);
+            } finally {
+                session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release(statement);
+                session.getJdbcCoordinator().afterStatementExecution();
+            }
+            for (int from = 0; from < users.size(); from += ROWS_PER_INSERT) {
+                List<UserEntity> rows = users.subList(from, Math.min(users.size(), from + ROWS_PER_INSERT));
+                String deleteSql = "DELETE FROM career_histories WHERE user_id IN ("
+                        + String.join(", ", Collections.nCopies(rows.size(), "?")) + ")";
+                PreparedStatement delete = session.getJdbcCoordinator().getStatementPreparer().prepareStatement(deleteSql);
+                try {
+                    int index = 1;
+                    for (UserEntity user : rows) {
+                        delete.setLong(index++, user.getId());
+                    }
+                    session.getJdbcCoordinator().getResultSetReturn().executeUpdate(delete);
+                } catch (SQLException ex) {
+                    throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "Could not delete career histories", deleteSql);
+                } finally {
+                    session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release(delete);
+                    session.getJdbcCoordinator().afterStatementExecution();
+                }
+            }
+            List<CareerHistoryEntity> careerHistories = users.stream()
+                    .filter(user -> user.getCareerHistories() != null)
+                    .flatMap(user -> user.getCareerHistories().stream())
+                    .collect(Collectors.toList());
+            insertCareerHistories(session, careerHistories);
+        } finally {
+            entityManager.clear();
+        }
+    }
+
+    /**
+     * 職歴を複数行INSERTでまとめて登録します。IDはエンティティのジェネレータで払い出します。
+     */
+    private static void insertCareerHistories(SessionImplementor session, List<CareerHistoryEntity> careerHistories) {
+        IdentifierGenerator careerHistoryIds = session.getFactory().getMetamodel()
+                .entityPersister(CareerHistoryEntity.class).getIdentifierGenerator();
+        for (CareerHistoryEntity careerHistory : careerHistories) {
+            careerHistory.setId((Long) careerHistoryIds.generate(session, careerHistory));
+        }
+        for (int from = 0; from < careerHistories.size(); from += ROWS_PER_INSERT) {
+            List<CareerHistoryEntity> rows = careerHistories.subList(from, Math.min(careerHistories.size(), from + ROWS_PER_INSERT));
+            String sql = "INSERT INTO career_histories (id, user_id, title, period_from, period_to) VALUES " + placeholders(5, rows.size());
+            PreparedStatement statement = session.getJdbcCoordinator().getStatementPreparer().prepareStatement(sql);
+            try {
+                int index = 1;
+                for (CareerHistoryEntity careerHistory : rows) {
+                    statement.setLong(index++, careerHistory.getId());
+                    statement.setLong(index++, careerHistory.getUser().getId());
+                    statement.setString(index++, careerHistory.getTitle());
+                    statement.setString(index++, careerHistory.getPeriodFrom());
+                    statement.setString(index++, careerHistory.getPeriodTo());
+                }
+                session.getJdbcCoordinator().getResultSetReturn().executeUpdate(statement);
+            } catch (SQLException ex) {
+                throw session.getJdbcServices().getSqlExceptionHelper().convert(ex, "Could not insert career histories", sql);
+            } finally {
+                session.getJdbcCoordinator().getLogicalConnection().getResourceRegistry().release(statement);
+                session.getJdbcCoordinator().afterStatementExecution();
+            }
+        }
+    }
+
+    /**
+     * 複数行INSERTのVALUES句（{@code (?, ?), (?, ?)}）を返します。
+     */
+    private static String placeholders(int columns, int rows) {
+        String row = "(" + String.join(", ", Collections.nCopies(columns, "?")) + ")";
+        return String.join(", ", Collections.nCopies(rows, row));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<Long> streamIds() {
+        Stream<Number> ids = entityManager.createNativeQuery("SELECT id FROM users").getResultStream();
+        return ids.map(Number::longValue);
+    }
+
+    @Override
+    public long lastAllocatedId() {
+        Object value = entityManager.createNativeQuery(
+                        "SELECT MAX(COALESCE((SELECT seq FROM sqlite_sequence WHERE name = 'users'), 0), "
+                                + "COALESCE((SELECT MAX(id) FROM users), 0))")
+                .getSingleResult();
+        return ((Number) value).longValue();
+    }
+
+    @Override
+    public void detach(UserEntity user) {
+        entityManager.detach(user);
+    }
+
+    /**
+     * 削除するユーザーと職歴コレクションの二次キャッシュエントリをロックして取り除きます。
+     * ロックはトランザクション完了時に解放され、それまでは他のトランザクションが削除前の状態を書き戻せません。
+     * 職歴エンティティのエントリはユーザー経由でしか参照されないため、件数上限とTTLによる退避に任せます。
+     */
+    private static void invalidateCachedUser(SessionImplementor session, Long id) {
+        SessionFactoryImplementor factory = session.getFactory();
+        EntityPersister users = factory.getMetamodel().entityPersister(UserEntity.class);
+        if (users.canWriteToCache()) {
+            EntityDataAccess access = users.getCacheAccessStrategy();
+            lockAndRemove(session, access, access.generateCacheKey(id, users, factory, session.getTenantIdentifier()));
+        }
+        CollectionPersister careerHistories = factory.getMetamodel().collectionPersister(CAREER_HISTORIES_ROLE);
+        if (careerHistories.hasCache()) {
+            CollectionDataAccess access = careerHistories.getCacheAccessStrategy();
+            lockAndRemove(session, access, access.generateCacheKey(id, careerHistories, factory, session.getTenantIdentifier()));
+        }
+    }
+
+    private static void lockAndRemove(SessionImplementor session, CachedDomainDataAccess access, Object key) {
+        SoftLock lock = access.lockItem(session, key, null);
+        access.remove(session, key);
+        session.getActionQueue().registerProcess((success, completedSession) -> access.unlockItem(completedSession, key, lock));
+    }
+
+    /**
+     * users（別名u）をname部分一致で絞り込む条件を返します（{@link UserSpecifications#nameContains} と同じ照合方法）。
+     */
+    private static String nameCondition(String name) {
+        return UserSpecifications.usesFullTextIndex(name)
+                ? "u.id IN (SELECT rowid FROM users_name_fts WHERE users_name_fts MATCH :name)"
+                : "u.name LIKE :name ESCAPE '\\'";
+    }
+
+    /**
+     * 照合方法に応じて、:nameへFTS5のフレーズまたはLIKEパターンを設定します。
+     */
+    private static void bindName(Query query, String name) {
+        query.setParameter("name", UserSpecifications.usesFullTextIndex(name)
+                ? UserSpecifications.toPhraseQuery(name)
+                : UserSpecifications.toLikePattern(name));
+    }
+}
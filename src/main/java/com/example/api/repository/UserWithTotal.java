@@ -0,0 +1,15 @@
+package com.example.api.repository;
+
+import com.example.api.entity.UserEntity;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * ユーザーエンティティと、同じ検索条件でのページング前の総件数の組。
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserWithTotal {
+    private final UserEntity user;
+    private final long total;
+}
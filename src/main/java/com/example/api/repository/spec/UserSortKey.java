@@ -0,0 +1,48 @@
+package com.example.api.repository.spec;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Arrays;
+
+/**
+ * ユーザー一覧の並び順キー。
+ * いずれも末尾をidとし、キーセットページングで一意な位置を表せる並び順になります。
+ */
+public enum UserSortKey {
+    /** 主キー順。 */
+    ID("id", Sort.by("id")),
+    /** 氏名順（idx_users_nameを利用）。 */
+    NAME("name", Sort.by("name", "id"));
+
+    private final String parameter;
+    private final Sort sort;
+
+    UserSortKey(String parameter, Sort sort) {
+        this.parameter = parameter;
+        this.sort = sort;
+    }
+
+    /** クエリパラメータ上の表記を返します。 */
+    public String parameter() {
+        return parameter;
+    }
+
+    /** 対応する並び順を返します。 */
+    public Sort toSort() {
+        return sort;
+    }
+
+    /**
+     * クエリパラメータの表記から並び順キーを解決します。
+     *
+     * @param parameter 表記（id / name）
+     * @return 並び順キー
+     * @throws IllegalArgumentException 未知の表記
+     */
+    public static UserSortKey fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(key -> key.parameter.equals(parameter))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown sort key: " + parameter));
+    }
+}
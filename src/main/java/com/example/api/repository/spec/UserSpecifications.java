@@ -1,21 +1,94 @@
 package com.example.api.repository.spec;
 
 import com.example.api.entity.UserEntity;
+import com.example.api.entity.UserNameFtsEntity;
 import org.springframework.data.jpa.domain.Specification;
 
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+
 /**
  * ユーザー検索用のSpecificationユーティリティ。
  */
 public class UserSpecifications {
+    /** LIKEパターンのエスケープ文字。 */
+    public static final char LIKE_ESCAPE = '\\';
+
+    /** トライグラム全文検索インデックスで照合できる検索語の最小文字数。 */
+    public static final int MIN_FULL_TEXT_LENGTH = 3;
+
     /**
      * name列に対して部分一致検索を行うSpecificationを返します。
+     * 検索語が{@value #MIN_FULL_TEXT_LENGTH}文字以上の場合はトライグラム全文検索インデックス（users_name_fts）の
+     * フレーズ一致で照合し、usersの全件走査を避けます。それより短い場合はインデックスで照合できないため、
+     * エスケープしたLIKEで照合します。いずれも検索語中の記号は文字そのものとして扱います。
      * 引数が空の場合は無条件（全件）のSpecificationを返します。
      *
      * @param name 部分一致検索キーワード
-     * @return name LIKE '%keyword%' を表すSpecification
+     * @return nameに検索語を含むことを表すSpecification
      */
     public static Specification<UserEntity> nameContains(String name) {
         if (name == null || name.isBlank()) return Specification.where(null);
-        return (root, query, cb) -> cb.like(root.get("name"), "%" + name + "%");
+        if (!usesFullTextIndex(name)) {
+            return (root, query, cb) -> cb.like(root.get("name"), toLikePattern(name), LIKE_ESCAPE);
+        }
+        return (root, query, cb) -> {
+            Subquery<Long> matched = query.subquery(Long.class);
+            Root<UserNameFtsEntity> fts = matched.from(UserNameFtsEntity.class);
+            matched.select(fts.get("id")).where(cb.isTrue(
+                    cb.function("fts_match", Boolean.class, fts.get("name"), cb.literal(toPhraseQuery(name)))));
+            return root.get("id").in(matched);
+        };
+    }
+
+    /**
+     * 検索語をトライグラム全文検索インデックスで照合できるかを返します。
+     *
+     * @param name 検索語
+     * @return {@value #MIN_FULL_TEXT_LENGTH}文字（コードポイント）以上の場合true
+     */
+    public static boolean usesFullTextIndex(String name) {
+        return name.codePointCount(0, name.length()) >= MIN_FULL_TEXT_LENGTH;
+    }
+
+    /**
+     * 検索語をFTS5のフレーズ（二重引用符で囲んだ文字列）に変換します。
+     * トライグラムのフレーズ一致は部分文字列としての一致と等価です。
+     *
+     * @param name 検索語
+     * @return MATCHに指定するクエリ文字列
+     */
+    public static String toPhraseQuery(String name) {
+        return "\"" + name.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * 検索語をLIKEの部分一致パターンに変換します（%、_、エスケープ文字自体をエスケープ）。
+     *
+     * @param name 検索語
+     * @return {@link #LIKE_ESCAPE} をエスケープ文字とするLIKEパターン
+     */
+    public static String toLikePattern(String name) {
+        String escaped = name.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    /**
+     * 並び順上で指定位置より後ろの行に絞り込むSpecificationを返します（キーセットページング）。
+     * 氏名順では {@code name >= :name AND (name > :name OR id > :id)} とし、
+     * idx_users_nameの範囲検索でシークできる形にします。
+     *
+     * @param sortKey 並び順キー
+     * @param name    直前の行の氏名（氏名順の場合のみ利用）
+     * @param id      直前の行のID
+     * @return 指定位置より後ろを表すSpecification
+     */
+    public static Specification<UserEntity> after(UserSortKey sortKey, String name, Long id) {
+        if (sortKey == UserSortKey.NAME) {
+            return (root, query, cb) -> cb.and(
+                    cb.greaterThanOrEqualTo(root.get("name"), name),
+                    cb.or(cb.greaterThan(root.get("name"), name), cb.greaterThan(root.get("id"), id)));
+        }
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
     }
 }
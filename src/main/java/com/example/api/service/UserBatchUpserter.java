@@ -0,0 +1,85 @@
+package com.example.api.service;
+
+import com.example.api.dto.UserBatchUpsertResponse;
+import com.example.api.dto.UserBatchUpsertResult;
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.exception.ErrorCatalog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * ユーザーをnameをキーに一括で登録または更新（upsert）するサービス。
+ *
+ * <p>各ユーザーはPOST /api/v1/users と同じBean Validationと期間の整合性を並列に検証し、
+ * nameがリスト内の先のユーザーと重複するユーザーは409とします。検証を通過したユーザーは
+ * 1回の書き込み処理（{@link UserService#upsertAll}）でまとめて反映するため、
+ * 件数によらず既存ユーザーの判定は1回のクエリ、コミットは1回です。</p>
+ */
+@Service
+@RequiredArgsConstructor
+public class UserBatchUpserter {
+    private final UserService userService;
+    private final Validator validator;
+
+    /**
+     * ユーザーを登録・更新し、1件ごとの結果を入力と同じ順序で返します。
+     *
+     * @param userRequests 登録・更新内容
+     * @return 1件ごとの結果
+     */
+    public UserBatchUpsertResponse upsert(List<UserCreateRequest> userRequests) {
+        UserBatchUpsertResult[] results = new UserBatchUpsertResult[userRequests.size()];
+        IntStream.range(0, userRequests.size()).parallel().forEach(i -> {
+            UserCreateRequest userRequest = userRequests.get(i);
+            if (userRequest == null) {
+                results[i] = new UserBatchUpsertResult(i, HttpStatus.BAD_REQUEST.value(), null, List.of(ErrorCatalog.fieldError(
+                        ErrorCatalog.DetailCodes.VALIDATION_ERROR,
+                        ErrorCatalog.Messages.INVALID_INPUT_FORMAT,
+                        null,
+                        UserRequestCheck.LOCATION_BODY,
+                        null)));
+                return;
+            }
+            UserRequestCheck check = UserRequestCheck.validate(validator, userService, userRequest);
+            if (check != null) {
+                results[i] = new UserBatchUpsertResult(i, check.getStatus().value(), null, check.getErrors());
+            }
+        });
+
+        List<Integer> indexes = new ArrayList<>();
+        List<UserCreateRequest> accepted = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != null) continue;
+            if (!names.add(userRequests.get(i).getName())) {
+                results[i] = conflict(i);
+                continue;
+            }
+            indexes.add(i);
+            accepted.add(userRequests.get(i));
+        }
+        if (!accepted.isEmpty()) {
+            List<UserUpsert> upserts = userService.upsertAll(accepted);
+            for (int j = 0; j < upserts.size(); j++) {
+                int i = indexes.get(j);
+                UserUpsert upsert = upserts.get(j);
+                results[i] = upsert == null
+                        ? conflict(i)
+                        : new UserBatchUpsertResult(i, (upsert.isCreated() ? HttpStatus.CREATED : HttpStatus.OK).value(), upsert.getId(), null);
+            }
+        }
+        return new UserBatchUpsertResponse(List.of(results));
+    }
+
+    private static UserBatchUpsertResult conflict(int index) {
+        return new UserBatchUpsertResult(index, HttpStatus.CONFLICT.value(), null, List.of(UserService.duplicateNameError()));
+    }
+}
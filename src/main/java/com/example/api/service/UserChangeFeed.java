@@ -0,0 +1,267 @@
+package com.example.api.service;
+
+import com.example.api.dto.UserChangeListResponse;
+import com.example.api.dto.UserChangeResponse;
+import com.example.api.entity.UserChangeEntity;
+import com.example.api.repository.UserChangeJpaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * ユーザーの変更フィード。usersテーブルのトリガーが変更と同じトランザクションで記録する変更履歴（user_changes）を、
+ * 通番を指定した差分取得と、Server-Sent Eventsによる配信の2通りで提供します。
+ * 変更履歴はDBに記録されるため、他プロセスによる変更も配信されます。
+ *
+ * <p>配信スレッドが一定間隔で、送信中でない購読者を送信済みの通番ごとにまとめ、通番ごとに1回変更履歴を読みます
+ * （最新まで受信した購読者は同じ通番に揃うため、通常は1回です）。送信は購読者ごとに送信用スレッドで行い、
+ * 読み込んだ件数が上限に達した購読者は続きを自分の通番から読み進めます。そのため、過去の変更を読み進める購読者や
+ * 書き込みが滞る購読者がいても、他の購読者への配信は遅れません。購読者がいない間は変更履歴を読みません。</p>
+ */
+@Service
+public class UserChangeFeed {
+    private static final Logger log = LoggerFactory.getLogger(UserChangeFeed.class);
+    /** 1回の読み込みで配信する変更の最大件数。 */
+    private static final int BATCH_SIZE = 500;
+
+    private final UserChangeJpaRepository changeRepository;
+    private final UserService userService;
+    private final Duration pollInterval;
+    private final Duration streamTimeout;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private ScheduledExecutorService poller;
+    private ExecutorService sender;
+
+    /**
+     * @param changeRepository 変更履歴のリポジトリ
+     * @param userService      ユーザーサービス
+     * @param pollInterval     配信のために変更履歴を読む間隔
+     * @param streamTimeout    1回の購読を維持する時間（経過後はクライアントが再接続する）
+     */
+    public UserChangeFeed(UserChangeJpaRepository changeRepository,
+                          UserService userService,
+                          @Value("${app.changes.poll-interval:500ms}") Duration pollInterval,
+                          @Value("${app.changes.stream-timeout:30m}") Duration streamTimeout) {
+        this.changeRepository = changeRepository;
+        this.userService = userService;
+        this.pollInterval = pollInterval;
+        this.streamTimeout = streamTimeout;
+    }
+
+    /**
+     * 配信スレッドを開始します。
+     * 送信用スレッドは送信中の購読者ごとに最大1つのため、スレッド数は購読者数を超えません。
+     */
+    @PostConstruct
+    public void start() {
+        sender = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "user-change-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-change-feed");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = pollInterval.toMillis();
+        poller.scheduleWithFixedDelay(this::dispatch, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 配信スレッドを停止し、購読を終了します。
+     */
+    @PreDestroy
+    public void stop() {
+        if (poller != null) poller.shutdownNow();
+        if (sender != null) sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    /**
+     * 通番より後に変更されたユーザーごとに、最新の変更を通番順に返します。
+     * 作成・更新（UPSERT）は変更後のユーザーを含み、削除（DELETE）はユーザーを含みません。
+     * 変更履歴とユーザーは同じ読み取りトランザクション（同一スナップショット）で読み取ります。
+     * ユーザーはキャッシュを使わずに読み取るため、破棄前のキャッシュの内容が変更の通番と組み合わさることはありません。
+     *
+     * @param since 取得済みの通番（0は最初から）
+     * @param limit 最大件数
+     * @return 変更一覧と次回に指定する通番
+     */
+    @Transactional(readOnly = true)
+    public UserChangeListResponse changesSince(long since, int limit) {
+        List<UserChangeEntity> latest = changeRepository.findLatestPerUserAfter(since, limit + 1);
+        boolean hasMore = latest.size() > limit;
+        if (hasMore) latest = latest.subList(0, limit);
+        List<Long> upserted = latest.stream()
+                .filter(change -> UserChangeEntity.UPSERT.equals(change.getOp()))
+                .map(UserChangeEntity::getUserId)
+                .collect(Collectors.toList());
+        Map<Long, byte[]> users = userService.readJsonAll(upserted);
+        List<UserChangeResponse> changes = new ArrayList<>(latest.size());
+        for (UserChangeEntity change : latest) {
+            byte[] user = users.get(change.getUserId());
+            // 同じスナップショットでユーザーが存在しなければ、後続の削除が記録されている
+            String op = user == null ? UserChangeEntity.DELETE : change.getOp();
+            changes.add(new UserChangeResponse(change.getSeq(), change.getUserId(), op, change.getChangedAt(),
+                    user == null ? null : new String(user, StandardCharsets.UTF_8)));
+        }
+        UserChangeListResponse response = new UserChangeListResponse();
+        response.setChanges(changes);
+        response.setNextSince(latest.isEmpty() ? since : latest.get(latest.size() - 1).getSeq());
+        response.setHasMore(hasMore);
+        return response;
+    }
+
+    /**
+     * 変更の配信を購読します。通番より後の変更を、記録された順にすべて送信します（ユーザーは含みません）。
+     *
+     * @param since 受信済みの通番（nullの場合は購読開始以降の変更のみ）
+     * @return イベントストリーム
+     */
+    public SseEmitter subscribe(Long since) {
+        return subscribe(since, new SseEmitter(streamTimeout.toMillis()));
+    }
+
+    /**
+     * 指定したイベントストリームで変更の配信を購読します。
+     *
+     * @param since   受信済みの通番（nullの場合は購読開始以降の変更のみ）
+     * @param emitter 送信先のイベントストリーム
+     * @return イベントストリーム
+     */
+    SseEmitter subscribe(Long since, SseEmitter emitter) {
+        long from = since != null ? since : changeRepository.findTopByOrderBySeqDesc().map(UserChangeEntity::getSeq).orElse(0L);
+        Subscriber subscriber = new Subscriber(emitter, from);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(ex -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    /**
+     * 送信中でない購読者を送信済みの通番ごとにまとめて変更を読み、変更があれば購読者ごとに送信を開始します。
+     */
+    void dispatch() {
+        try {
+            if (subscribers.isEmpty()) return;
+            Map<Long, List<Subscriber>> positions = new HashMap<>();
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.sending.compareAndSet(false, true)) {
+                    positions.computeIfAbsent(subscriber.lastSeq, seq -> new ArrayList<>()).add(subscriber);
+                }
+            }
+            for (Map.Entry<Long, List<Subscriber>> position : positions.entrySet()) {
+                List<UserChangeEntity> changes;
+                try {
+                    changes = read(position.getKey());
+                } catch (RuntimeException ex) {
+                    log.warn("User change dispatch failed: {}", ex.getMessage());
+                    changes = List.of();
+                }
+                for (Subscriber subscriber : position.getValue()) {
+                    subscriber.deliver(changes);
+                }
+            }
+        } catch (RuntimeException ex) {
+            log.warn("User change dispatch failed: {}", ex.getMessage());
+        }
+    }
+
+    private List<UserChangeEntity> read(long after) {
+        return changeRepository.findBySeqGreaterThanOrderBySeqAsc(after, PageRequest.of(0, BATCH_SIZE));
+    }
+
+    /**
+     * 購読者と、送信済みの通番。送信は送信中フラグを立てたスレッドのみが行います。
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private volatile long lastSeq;
+
+        private Subscriber(SseEmitter emitter, long lastSeq) {
+            this.emitter = emitter;
+            this.lastSeq = lastSeq;
+        }
+
+        /**
+         * 送信用スレッドで変更を送信します。変更がない、または送信を開始できない場合は送信中フラグを戻します。
+         */
+        private void deliver(List<UserChangeEntity> changes) {
+            if (changes.isEmpty()) {
+                sending.set(false);
+                return;
+            }
+            try {
+                sender.execute(() -> sendAll(changes));
+            } catch (RejectedExecutionException ex) {
+                sending.set(false);
+            }
+        }
+
+        /**
+         * 変更を送信し、読み込んだ件数が上限に達していれば送信済みの通番から続きを読んで送信します。
+         */
+        private void sendAll(List<UserChangeEntity> changes) {
+            try {
+                List<UserChangeEntity> batch = changes;
+                while (send(batch) && batch.size() == BATCH_SIZE) {
+                    batch = read(lastSeq);
+                }
+            } catch (RuntimeException ex) {
+                log.warn("User change delivery failed: {}", ex.getMessage());
+            } finally {
+                sending.set(false);
+            }
+        }
+
+        /**
+         * @return 送信を続けられる場合はtrue（クライアントが切断済みの場合はfalse）
+         */
+        private boolean send(List<UserChangeEntity> changes) {
+            try {
+                for (UserChangeEntity change : changes) {
+                    if (change.getSeq() <= lastSeq) continue;
+                    UserChangeResponse event = new UserChangeResponse(change.getSeq(), change.getUserId(), change.getOp(), change.getChangedAt(), null);
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(change.getSeq()))
+                            .name("change")
+                            .data(event, MediaType.APPLICATION_JSON));
+                    lastSeq = change.getSeq();
+                }
+                return true;
+            } catch (IOException | IllegalStateException ex) {
+                // 切断済みのクライアント
+                subscribers.remove(this);
+                emitter.completeWithError(ex);
+                return false;
+            }
+        }
+    }
+}
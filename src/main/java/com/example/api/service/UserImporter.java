@@ -0,0 +1,221 @@
+package com.example.api.service;
+
+import com.example.api.config.TraceIdFilter;
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.dto.UserImportResult;
+import com.example.api.exception.ErrorCatalog;
+import com.example.api.exception.FieldErrorDetail;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.InvalidFormatException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.validation.Validator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * NDJSON（1行に1ユーザーのJSON）のユーザーを一括登録するインポータ。
+ *
+ * <p>入力はJacksonのストリーミングAPIで1件ずつ読み込み、POST /api/v1/users と同じBean Validationと期間の整合性を検証します。
+ * 検証を通過したユーザーを {@code app.import.chunk-size} 件ずつ1回の書き込み処理として複数行INSERTで登録し（{@link UserService#createAll}）、
+ * 登録のたびにそこまでの行の結果をNDJSONで書き出します。読み込み・登録・書き出しを順に行うため、
+ * クライアントの送信は登録の進み具合に合わせて待たされ、保持するのは1チャンク分の入力と結果のみです。</p>
+ *
+ * <p>JSONの構文が壊れた行は以降を区切れないため、その行の結果を書き出して終了します（それまでの登録は確定済み）。</p>
+ */
+@Service
+public class UserImporter {
+    private static final Logger log = LoggerFactory.getLogger(UserImporter.class);
+
+    private final UserService userService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+
+    /**
+     * @param userService  ユーザーサービス
+     * @param objectMapper 入力の読み込みと結果の書き出しに使うObjectMapper
+     * @param validator    Bean Validationのバリデータ
+     * @param chunkSize    1回の書き込み処理で登録する最大件数
+     */
+    public UserImporter(UserService userService,
+                        ObjectMapper objectMapper,
+                        Validator validator,
+                        @Value("${app.import.chunk-size:500}") int chunkSize) {
+        this.userService = userService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * 入力のユーザーを登録し、行ごとの結果を入力と同じ順序でNDJSONとして書き出します。
+     *
+     * @param in  NDJSONの入力
+     * @param out 結果の出力先（チャンクの登録ごとにflushします）
+     * @throws IOException 入力の読み込み・結果の書き出しに失敗した場合
+     */
+    public void importUsers(InputStream in, OutputStream out) throws IOException {
+        Chunk chunk = new Chunk(out);
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            while (true) {
+                JsonToken token;
+                try {
+                    token = parser.nextToken();
+                } catch (JsonProcessingException ex) {
+                    chunk.reject(ex.getLocation() != null ? ex.getLocation().getLineNr() : -1, HttpStatus.BAD_REQUEST, malformedJson());
+                    break;
+                }
+                if (token == null) break;
+                int line = parser.getTokenLocation().getLineNr();
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    chunk.reject(line, HttpStatus.BAD_REQUEST, malformedJson());
+                    continue;
+                }
+                JsonNode node;
+                try {
+                    node = parser.readValueAsTree();
+                } catch (JsonProcessingException ex) {
+                    chunk.reject(line, HttpStatus.BAD_REQUEST, malformedJson());
+                    break;
+                }
+                accept(chunk, line, node);
+                if (chunk.isFull()) chunk.flush();
+            }
+        }
+        chunk.flush();
+    }
+
+    /**
+     * 1件を変換・検証し、登録待ちまたはエラーとしてチャンクへ加えます。
+     */
+    private void accept(Chunk chunk, int line, JsonNode node) {
+        UserCreateRequest userRequest;
+        try {
+            userRequest = objectMapper.treeToValue(node, UserCreateRequest.class);
+        } catch (InvalidFormatException ex) {
+            chunk.reject(line, HttpStatus.BAD_REQUEST, List.of(ErrorCatalog.invalidFormat(ex)));
+            return;
+        } catch (JsonProcessingException ex) {
+            chunk.reject(line, HttpStatus.BAD_REQUEST, malformedJson());
+            return;
+        }
+        UserRequestCheck check = UserRequestCheck.validate(validator, userService, userRequest);
+        if (check != null) {
+            chunk.reject(line, check.getStatus(), check.getErrors());
+            return;
+        }
+        chunk.add(line, userRequest);
+    }
+
+    private static List<FieldErrorDetail> malformedJson() {
+        return List.of(ErrorCatalog.fieldError(
+                ErrorCatalog.DetailCodes.VALIDATION_ERROR,
+                ErrorCatalog.Messages.MALFORMED_JSON,
+                null,
+                UserRequestCheck.LOCATION_BODY,
+                null));
+    }
+
+    /**
+     * 前回の書き出し以降の行の結果と、そのうち登録待ちのユーザー。
+     */
+    private final class Chunk {
+        private final OutputStream out;
+        private final List<UserImportResult> results = new ArrayList<>();
+        private final List<UserCreateRequest> pending = new ArrayList<>();
+        private final List<UserImportResult> pendingResults = new ArrayList<>();
+
+        private Chunk(OutputStream out) {
+            this.out = out;
+        }
+
+        private void add(int line, UserCreateRequest userRequest) {
+            UserImportResult result = new UserImportResult();
+            result.setLine(line);
+            results.add(result);
+            pending.add(userRequest);
+            pendingResults.add(result);
+        }
+
+        private void reject(int line, HttpStatus status, List<FieldErrorDetail> errors) {
+            results.add(new UserImportResult(line, status.value(), null,
+                    ErrorCatalog.toResponse(status, null, traceId(), errors)));
+        }
+
+        /** 登録待ちが上限に達したか、エラー行を含めて結果が溜まりすぎた場合にtrue。 */
+        private boolean isFull() {
+            return pending.size() >= chunkSize || results.size() >= chunkSize * 2;
+        }
+
+        /**
+         * 登録待ちのユーザーを登録し、溜まった結果を書き出します。
+         */
+        private void flush() throws IOException {
+            if (!pending.isEmpty()) {
+                List<Long> userIds = create(pending);
+                for (int i = 0; i < pendingResults.size(); i++) {
+                    UserImportResult result = pendingResults.get(i);
+                    Long userId = userIds.get(i);
+                    if (userId != null) {
+                        result.setStatus(HttpStatus.CREATED.value());
+                        result.setId(userId);
+                    } else if (result.getError() == null) {
+                        result.setStatus(HttpStatus.CONFLICT.value());
+                        result.setError(ErrorCatalog.toResponse(HttpStatus.CONFLICT, ErrorCatalog.Messages.DUPLICATE_RESOURCE,
+                                traceId(), List.of(UserService.duplicateNameError())));
+                    }
+                }
+            }
+            for (UserImportResult result : results) {
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+            results.clear();
+            pending.clear();
+            pendingResults.clear();
+        }
+
+        /**
+         * チャンクをまとめて登録します。想定外の理由でチャンク全体が失敗した場合は、1件ずつ登録し直して失敗した行を特定します。
+         */
+        private List<Long> create(List<UserCreateRequest> userRequests) {
+            try {
+                return userService.createAll(userRequests);
+            } catch (RuntimeException ex) {
+                log.warn("Import chunk failed, retrying individually: size={} cause={}", userRequests.size(), ex.getMessage());
+            }
+            List<Long> userIds = new ArrayList<>(userRequests.size());
+            for (int i = 0; i < userRequests.size(); i++) {
+                try {
+                    userIds.add(userService.createAll(List.of(userRequests.get(i))).get(0));
+                } catch (RuntimeException ex) {
+                    log.error("Import of line {} failed: {}", pendingResults.get(i).getLine(), ex.getMessage(), ex);
+                    pendingResults.get(i).setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                    pendingResults.get(i).setError(ErrorCatalog.toResponse(HttpStatus.INTERNAL_SERVER_ERROR, null, traceId()));
+                    userIds.add(null);
+                }
+            }
+            return userIds;
+        }
+    }
+
+    private static String traceId() {
+        String id = MDC.get(TraceIdFilter.TRACE_ID_KEY);
+        return id != null ? id : "";
+    }
+}
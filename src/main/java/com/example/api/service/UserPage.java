@@ -0,0 +1,22 @@
+package com.example.api.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ユーザー一覧の1ページ分の取得結果。
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserPage {
+    /** ページ内のユーザー（UserResponseをシリアライズしたJSON）。 */
+    private final List<byte[]> users;
+    /** 総件数（ページング前）。 */
+    private final int total;
+    /** 次のページが存在するか。 */
+    private final boolean hasNext;
+    /** 次のページを取得するためのカーソル（次のページがない場合はnull）。 */
+    private final String nextCursor;
+}
@@ -0,0 +1,72 @@
+package com.example.api.service;
+
+import com.example.api.entity.UserEntity;
+import com.example.api.exception.BadRequestException;
+import com.example.api.exception.ErrorCatalog;
+import com.example.api.exception.FieldErrorDetail;
+import com.example.api.repository.spec.UserSortKey;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * キーセットページングの位置（並び順キー、直前の行のID・氏名）と、最初のページで取得した総件数を表すカーソル。
+ * 総件数を引き継ぐため、続きのページでは総件数を数え直しません。
+ * クライアントには {@code sort:id:total:name} をBase64URLでエンコードした不透明な文字列として渡します。
+ */
+@Getter
+@RequiredArgsConstructor
+public final class UserPageCursor {
+    private static final String SEPARATOR = ":";
+
+    private final UserSortKey sortKey;
+    private final Long id;
+    private final String name;
+    private final int total;
+
+    /**
+     * 指定ユーザーの直後を指すカーソル文字列を生成します。
+     *
+     * @param sortKey 並び順キー
+     * @param last    ページ末尾のユーザー
+     * @param total   最初のページで取得した総件数
+     * @return エンコード済みカーソル
+     */
+    public static String encode(UserSortKey sortKey, UserEntity last, int total) {
+        String name = sortKey == UserSortKey.NAME ? last.getName() : "";
+        String raw = sortKey.parameter() + SEPARATOR + last.getId() + SEPARATOR + total + SEPARATOR + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * カーソル文字列を復号します。
+     *
+     * @param token   エンコード済みカーソル
+     * @param sortKey 要求された並び順キー（カーソル生成時と一致する必要があります）
+     * @return カーソル
+     * @throws BadRequestException 形式不正、または並び順キーが一致しない場合
+     */
+    public static UserPageCursor decode(String token, UserSortKey sortKey) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 4);
+            if (parts.length == 4 && UserSortKey.fromParameter(parts[0]) == sortKey) {
+                int total = Integer.parseInt(parts[2]);
+                if (total >= 0) return new UserPageCursor(sortKey, Long.valueOf(parts[1]), parts[3], total);
+            }
+        } catch (IllegalArgumentException ex) {
+            // 後続で不正なカーソルとして扱う
+        }
+        FieldErrorDetail err = ErrorCatalog.fieldError(
+                ErrorCatalog.DetailCodes.VALIDATION_ERROR,
+                ErrorCatalog.Messages.INVALID_CURSOR,
+                "cursor",
+                "query",
+                Map.of("sort", sortKey.parameter()));
+        throw new BadRequestException(ErrorCatalog.Messages.INVALID_CURSOR, List.of(err));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.api.service;
+
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.exception.ErrorCatalog;
+import com.example.api.exception.FieldErrorDetail;
+import com.example.api.exception.UnprocessableEntityException;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import javax.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 一括登録で1件ごとに検証した結果のエラー。POST /api/v1/users と同じBean Validationと期間の整合性を検証し、
+ * 同じ内容を個別に登録した場合と同じステータスと詳細エラーを求めます。
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+final class UserRequestCheck {
+    static final String LOCATION_BODY = "body";
+
+    /** 個別に登録した場合のHTTPステータス（400/422）。 */
+    private final HttpStatus status;
+    /** 詳細エラー。 */
+    private final List<FieldErrorDetail> errors;
+
+    /**
+     * ユーザー作成リクエストを検証します。スレッドセーフです。
+     *
+     * @param validator   Bean Validationのバリデータ
+     * @param userService 期間の整合性を検証するユーザーサービス
+     * @param userRequest 検証するリクエスト
+     * @return エラー（検証を通過した場合はnull）
+     */
+    static UserRequestCheck validate(Validator validator, UserService userService, UserCreateRequest userRequest) {
+        Set<ConstraintViolation<UserCreateRequest>> violations = validator.validate(userRequest);
+        if (!violations.isEmpty()) {
+            List<FieldErrorDetail> errors = violations.stream()
+                    .map(v -> ErrorCatalog.fieldError(
+                            ErrorCatalog.DetailCodes.VALIDATION_ERROR,
+                            v.getMessage(),
+                            v.getPropertyPath().toString(),
+                            LOCATION_BODY,
+                            ErrorCatalog.constraints(v)))
+                    .collect(Collectors.toList());
+            boolean badRequest = violations.stream()
+                    .anyMatch(v -> v.getConstraintDescriptor().getAnnotation().annotationType() == NotNull.class);
+            return new UserRequestCheck(badRequest ? HttpStatus.BAD_REQUEST : HttpStatus.UNPROCESSABLE_ENTITY, errors);
+        }
+        try {
+            userService.validatePeriod(userRequest);
+        } catch (UnprocessableEntityException ex) {
+            return new UserRequestCheck(HttpStatus.UNPROCESSABLE_ENTITY, ex.getErrors());
+        }
+        return null;
+    }
+}
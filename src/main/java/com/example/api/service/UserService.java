@@ -5,29 +5,58 @@ import com.example.api.entity.CareerHistoryEntity;
 import com.example.api.entity.UserEntity;
 import com.example.api.exception.*;
 import com.example.api.repository.UserJpaRepository;
+import com.example.api.repository.UserWithTotal;
+import com.example.api.repository.spec.UserSortKey;
 import com.example.api.repository.spec.UserSpecifications;
+import com.example.api.service.cache.SingleFlight;
+import com.example.api.service.cache.UserIdFilter;
+import com.example.api.service.cache.UserJsonCache;
+import com.example.api.service.cache.UserListCache;
+import com.example.api.service.cache.UserWriteEpoch;
 import com.example.api.service.mapper.UserMapStructMapper;
+import com.example.api.service.write.GroupCommitWriter;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * ユーザーに関するアプリケーションサービス。
  * バリデーション、重複チェック、JPAリポジトリ呼び出し、DTOマッピングを担います。
+ * 更新系（作成・更新・削除）は {@link GroupCommitWriter} の書き込みスレッド上で、
+ * 他のリクエストの更新とまとめて1トランザクションでコミットされます。
+ * 取得系はユーザーをシリアライズ済みのJSON（{@link UserJsonCache}）で返し、更新・削除のコミット時に破棄します。
+ * 一覧のページと件数は書き込み世代（{@link UserWriteEpoch}）をキーに含めてキャッシュします（{@link UserListCache}）。
+ * キャッシュにない場合の読み込みは、同じ引数・同じ世代の同時呼び出しで1回にまとめます（{@link SingleFlight}）。
  */
 @Service
 @RequiredArgsConstructor
 public class UserService {
+    /** limit=0の一覧とエクスポートで、職歴をまとめて取得する単位とするユーザー数。 */
+    static final int STREAM_CHUNK_SIZE = 100;
+    /** 一括削除で1回の書き込み処理（1文のDELETE）により削除する最大件数。 */
+    static final int DELETE_CHUNK_SIZE = 500;
+    /** nameの一意制約（SQLiteの制約違反メッセージ上の「テーブル名.列名」）。 */
+    private static final String USERS_NAME_CONSTRAINT = "users.name";
+
     private final UserJpaRepository userRepository;
     private final UserMapStructMapper userMapper;
+    private final GroupCommitWriter userWriter;
+    private final UserJsonCache userJsonCache;
+    private final UserListCache userListCache;
+    private final UserWriteEpoch writeEpoch;
+    private final SingleFlight singleFlight;
+    private final UserIdFilter userIdFilter;
 
     /**
      * ユーザーを新規作成します。
@@ -36,24 +65,101 @@ public class UserService {
      * @throws ConflictException nameの一意制約違反
      * @throws UnprocessableEntityException 期間の整合性エラー
      */
-    @Transactional
     public Long create(UserCreateRequest userRequest) {
         validatePeriod(userRequest);
-        if (userRepository.existsByName(userRequest.getName())) {
-            FieldErrorDetail err = ErrorCatalog.fieldError(
-                    ErrorCatalog.DetailCodes.DUPLICATE,
-                    ErrorCatalog.Reasons.NAME_ALREADY_EXISTS,
-                    "name",
-                    "body",
-                    Map.of("unique", true));
-            throw new ConflictException(ErrorCatalog.Messages.DUPLICATE_RESOURCE, List.of(err));
-        }
+        return userWriter.submit(() -> applyCreate(userRequest));
+    }
+
+    /**
+     * 書き込みトランザクション内でユーザーを登録します。
+     */
+    private Long applyCreate(UserCreateRequest userRequest) {
         UserEntity userEntity = userMapper.toEntityForCreate(userRequest);
         if (userEntity.getCareerHistories() != null) {
             userEntity.getCareerHistories().forEach(ch -> ch.setUser(userEntity));
         }
-        UserEntity savedUser = userRepository.save(userEntity);
-        return savedUser.getId();
+        Long userId = saveAndFlush(userEntity).getId();
+        writeEpoch.advanceAfterCommit();
+        return userId;
+    }
+
+    /**
+     * 複数のユーザーを1回の書き込み処理として、複数行INSERTでまとめて登録します（インポート）。
+     * 入力は検証済み（Bean Validationと期間の整合性）であることを前提とします。
+     * nameが既存のユーザー、またはリスト内の先のユーザーと重複するユーザーは登録しません。
+     * @param userRequests 登録内容
+     * @return 入力と同じ順序の生成されたユーザーID（nameの重複で登録しなかった場合はnull）
+     */
+    public List<Long> createAll(List<UserCreateRequest> userRequests) {
+        return userWriter.submit(() -> applyCreateAll(userRequests));
+    }
+
+    /**
+     * 書き込みトランザクション内でユーザーをまとめて登録します。
+     */
+    private List<Long> applyCreateAll(List<UserCreateRequest> userRequests) {
+        List<UserEntity> userEntities = new ArrayList<>(userRequests.size());
+        for (UserCreateRequest userRequest : userRequests) {
+            UserEntity userEntity = userMapper.toEntityForCreate(userRequest);
+            if (userEntity.getCareerHistories() != null) {
+                userEntity.getCareerHistories().forEach(ch -> ch.setUser(userEntity));
+            }
+            userEntities.add(userEntity);
+        }
+        Set<Long> inserted = userRepository.insertAllSkippingDuplicateNames(userEntities);
+        if (!inserted.isEmpty()) writeEpoch.advanceAfterCommit();
+        List<Long> userIds = new ArrayList<>(userEntities.size());
+        for (UserEntity userEntity : userEntities) {
+            userIds.add(inserted.contains(userEntity.getId()) ? userEntity.getId() : null);
+        }
+        return userIds;
+    }
+
+    /**
+     * 複数のユーザーを1回の書き込み処理として、nameをキーに登録または更新します（一括upsert）。
+     * 入力は検証済み（Bean Validationと期間の整合性）で、nameがリスト内で重複しないことを前提とします。
+     * 既存のユーザーはnameのIN条件による1回のクエリで判定し、登録は複数行INSERT、更新はJDBCのバッチ更新でまとめて反映します。
+     * 更新は作成と同じ内容でユーザーを置き換えます（省略した項目はnull、職歴は入力の職歴で置き換え）。
+     * @param userRequests 登録・更新内容
+     * @return 入力と同じ順序の結果（登録時にnameが競合して登録しなかった場合はnull）
+     */
+    public List<UserUpsert> upsertAll(List<UserCreateRequest> userRequests) {
+        return userWriter.submit(() -> applyUpsertAll(userRequests));
+    }
+
+    /**
+     * 書き込みトランザクション内でユーザーをまとめて登録・更新します。
+     */
+    private List<UserUpsert> applyUpsertAll(List<UserCreateRequest> userRequests) {
+        Map<String, Long> existing = userRepository.findIdsByNames(
+                userRequests.stream().map(UserCreateRequest::getName).collect(Collectors.toList()));
+        List<UserEntity> userEntities = new ArrayList<>(userRequests.size());
+        List<UserEntity> inserts = new ArrayList<>();
+        List<UserEntity> updates = new ArrayList<>();
+        for (UserCreateRequest userRequest : userRequests) {
+            UserEntity userEntity = userMapper.toEntityForCreate(userRequest);
+            if (userEntity.getCareerHistories() != null) {
+                userEntity.getCareerHistories().forEach(ch -> ch.setUser(userEntity));
+            }
+            Long userId = existing.get(userEntity.getName());
+            if (userId != null) {
+                userEntity.setId(userId);
+                updates.add(userEntity);
+            } else {
+                inserts.add(userEntity);
+            }
+            userEntities.add(userEntity);
+        }
+        userRepository.updateAllReplacingCareerHistories(updates);
+        updates.forEach(userEntity -> userJsonCache.invalidateAfterCommit(userEntity.getId()));
+        Set<Long> inserted = inserts.isEmpty() ? Set.of() : userRepository.insertAllSkippingDuplicateNames(inserts);
+        if (!updates.isEmpty() || !inserted.isEmpty()) writeEpoch.advanceAfterCommit();
+        List<UserUpsert> results = new ArrayList<>(userEntities.size());
+        for (UserEntity userEntity : userEntities) {
+            boolean created = !existing.containsKey(userEntity.getName());
+            results.add(created && !inserted.contains(userEntity.getId()) ? null : new UserUpsert(userEntity.getId(), created));
+        }
+        return results;
     }
 
     /**
@@ -64,98 +170,424 @@ public class UserService {
      * @throws ConflictException nameの一意制約違反
      * @throws UnprocessableEntityException 期間の整合性エラー
      */
-    @Transactional
     public void update(Long userId, UserUpdateRequest userRequest) {
-        UserEntity userEntity = userRepository.findById(userId)
+        userWriter.submit(() -> {
+            applyUpdate(userId, userRequest);
+            return null;
+        });
+    }
+
+    /**
+     * 書き込みトランザクション内でユーザーを更新します。
+     */
+    private void applyUpdate(Long userId, UserUpdateRequest userRequest) {
+        UserEntity userEntity = userRepository.findWithCareerHistoriesById(userId)
                 .orElseThrow(() -> new BadRequestException(ErrorCatalog.Messages.INVALID_USER_ID));
 
-        if (userRequest.getName() != null) {
-            if (userRepository.existsByNameAndIdNot(userRequest.getName(), userId)) {
-                FieldErrorDetail err = ErrorCatalog.fieldError(
-                        ErrorCatalog.DetailCodes.DUPLICATE,
-                        ErrorCatalog.Reasons.NAME_ALREADY_EXISTS,
-                        "name",
-                        "body",
-                        Map.of("unique", true));
-                throw new ConflictException(ErrorCatalog.Messages.DUPLICATE_RESOURCE, List.of(err));
-            }
+        boolean changed = false;
+        if (userRequest.getName() != null && !userRequest.getName().equals(userEntity.getName())) {
             userEntity.setName(userRequest.getName());
+            changed = true;
         }
         if (userRequest.getAge() != null) {
-            userEntity.setAge(userRequest.getAge());
+            changed |= set(userEntity.getAge(), userRequest.getAge(), userEntity::setAge);
         }
         if (userRequest.getBirthday() != null) {
-            userEntity.setBirthday(userRequest.getBirthday().format(UserMapStructMapper.F));
+            changed |= set(userEntity.getBirthday(), userRequest.getBirthday().format(UserMapStructMapper.F), userEntity::setBirthday);
         }
         if (userRequest.getHeight() != null) {
-            userEntity.setHeight(roundHeight(userRequest.getHeight()));
+            changed |= set(userEntity.getHeight(), roundHeight(userRequest.getHeight()), userEntity::setHeight);
         }
         if (userRequest.getZipCode() != null) {
-            userEntity.setZipCode(userRequest.getZipCode());
+            changed |= set(userEntity.getZipCode(), userRequest.getZipCode(), userEntity::setZipCode);
         }
 
         if (userRequest.getCareerHistories() != null) {
-            updateCareerHistories(userEntity, userRequest.getCareerHistories());
+            changed |= updateCareerHistories(userEntity, userRequest.getCareerHistories());
         }
 
         validatePeriod(userEntity, userRequest);
+        if (!changed) return;
         userEntity.setUpdatedAt(now());
-        userRepository.save(userEntity);
+        saveAndFlush(userEntity);
+        userJsonCache.invalidateAfterCommit(userId);
+    }
+
+    /**
+     * ユーザーを保存してSQLまで反映します。
+     * nameの重複は事前に検索せず、usersテーブルのUNIQUE制約違反を競合エラーへ変換します。
+     * 同時に同名で登録された場合も、後から反映した側が競合エラーとなります。
+     *
+     * @throws ConflictException nameの一意制約違反
+     */
+    private UserEntity saveAndFlush(UserEntity userEntity) {
+        try {
+            return userRepository.saveAndFlush(userEntity);
+        } catch (DataIntegrityViolationException ex) {
+            if (!isDuplicateName(ex)) throw ex;
+            throw new ConflictException(ErrorCatalog.Messages.DUPLICATE_RESOURCE, List.of(duplicateNameError()));
+        }
+    }
+
+    /**
+     * nameの重複を表す詳細エラーを生成します。
+     */
+    static FieldErrorDetail duplicateNameError() {
+        return ErrorCatalog.fieldError(
+                ErrorCatalog.DetailCodes.DUPLICATE,
+                ErrorCatalog.Reasons.NAME_ALREADY_EXISTS,
+                "name",
+                "body",
+                Map.of("unique", true));
+    }
+
+    /**
+     * 制約違反がusers.nameのUNIQUE制約によるものかを判定します。
+     */
+    private static boolean isDuplicateName(DataIntegrityViolationException ex) {
+        return ex.getCause() instanceof ConstraintViolationException
+                && USERS_NAME_CONSTRAINT.equals(((ConstraintViolationException) ex.getCause()).getConstraintName());
     }
 
     /**
      * ユーザーを削除します（存在しないIDでもエラーとしません）。
+     * 1文のDELETEで削除し、職歴はON DELETE CASCADEで削除されます。
      * @param userId 対象ユーザーID
      */
-    @Transactional
     public void delete(Long userId) {
-        if (!userRepository.existsById(userId)) {
-            return;
+        userWriter.submit(() -> {
+            userJsonCache.invalidateAfterCommit(userId);
+            return userRepository.deleteUserById(userId);
+        });
+    }
+
+    /**
+     * 指定IDのユーザーを一括削除します（存在しないIDは数えません）。
+     * {@value #DELETE_CHUNK_SIZE}件ずつ別の書き込み処理として1文のDELETEで削除し、職歴はON DELETE CASCADEで削除されます。
+     * 書き込みロックは1チャンクごとに解放するため、件数が多くても他の更新が長く待たされません。
+     * チャンクごとにコミットするため、途中で失敗した場合はそれまでの削除が確定します。
+     * @param userIds 対象ユーザーID
+     * @return 削除件数
+     */
+    public long deleteAll(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream().distinct().collect(Collectors.toList());
+        long deleted = 0;
+        for (int from = 0; from < ids.size(); from += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + DELETE_CHUNK_SIZE));
+            deleted += userWriter.submit(() -> applyDeleteAll(chunk));
+        }
+        return deleted;
+    }
+
+    /**
+     * nameの部分一致（{@link UserSpecifications#nameContains} と同じ照合）に該当するユーザーを一括削除します。
+     * 該当するユーザーをID順に{@value #DELETE_CHUNK_SIZE}件ずつ、書き込み処理ごとに検索して削除します（{@link #deleteAll} と同様）。
+     * 削除の開始後に作成されたユーザーは対象としません。
+     * @param name 名前の部分一致（空でないこと）
+     * @return 削除件数
+     */
+    public long deleteByName(String name) {
+        long maxId = userWriter.submit(userRepository::lastAllocatedId);
+        long deleted = 0;
+        long afterId = 0;
+        while (true) {
+            long from = afterId;
+            List<Long> chunk = userWriter.submit(() -> {
+                List<Long> ids = userRepository.findIdsByNameContaining(name, from, maxId, DELETE_CHUNK_SIZE);
+                applyDeleteAll(ids);
+                return ids;
+            });
+            deleted += chunk.size();
+            if (chunk.size() < DELETE_CHUNK_SIZE) return deleted;
+            afterId = chunk.get(chunk.size() - 1);
         }
-        userRepository.deleteById(userId);
+    }
+
+    /**
+     * 書き込みトランザクション内でユーザーをまとめて削除します。
+     */
+    private int applyDeleteAll(List<Long> userIds) {
+        userIds.forEach(userJsonCache::invalidateAfterCommit);
+        return userRepository.deleteAllByIds(userIds);
     }
 
     /**
      * ユーザーをIDで取得します。
+     * IDのフィルタ（{@link UserIdFilter}）で存在しないと判定できる場合は、DBへ問い合わせずに見つからないエラーとします。
      * @param userId 対象ユーザーID
      * @return ユーザーDTO
      * @throws ResourceNotFoundException 見つからない場合
      */
     @Transactional(readOnly = true)
     public UserResponse get(Long userId) {
-        UserEntity userEntity = userRepository.findWithCareerHistoriesById(userId)
+        if (!userIdFilter.mightExist(userId)) {
+            throw new ResourceNotFoundException(ErrorCatalog.Messages.USER_NOT_FOUND);
+        }
+        UserEntity userEntity = userRepository.findCachedWithCareerHistoriesById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException(ErrorCatalog.Messages.USER_NOT_FOUND));
         return userMapper.toResponse(userEntity);
     }
 
     /**
-     * 条件に合致する総件数を返します。
+     * ユーザーをIDで取得し、シリアライズ済みのJSONを返します。
+     * キャッシュ済みであればDBへ問い合わせずにそのまま返します。
+     * @param userId 対象ユーザーID
+     * @return ユーザーDTOのJSON（UTF-8）
+     * @throws ResourceNotFoundException 見つからない場合
+     */
+    @Transactional(readOnly = true)
+    public byte[] getJson(Long userId) {
+        byte[] cached = userJsonCache.getIfPresent(userId);
+        if (cached != null) return cached;
+        // 接続は最初の問い合わせで取得されるため、ここで控えた世代は読み取るスナップショットより前のもの
+        long epoch = writeEpoch.current();
+        return singleFlight.execute(Arrays.asList("get", userId, epoch), () -> userJsonCache.put(get(userId), epoch));
+    }
+
+    /**
+     * 複数のユーザーのJSONをまとめて返します。キャッシュにないユーザーだけを1文で取得し、職歴もまとめて取得します。
+     * @param userIds 対象ユーザーID
+     * @return ユーザーIDからJSON（UTF-8）へのマップ（存在しないIDは含まない）
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, byte[]> getJsonAll(Collection<Long> userIds) {
+        Map<Long, byte[]> users = new HashMap<>();
+        List<Long> misses = new ArrayList<>();
+        for (Long userId : userIds) {
+            byte[] cached = userJsonCache.getIfPresent(userId);
+            if (cached != null) {
+                users.put(userId, cached);
+            } else {
+                misses.add(userId);
+            }
+        }
+        if (misses.isEmpty()) return users;
+        long epoch = writeEpoch.current();
+        List<UserEntity> userEntities = userRepository.findAllById(misses);
+        List<byte[]> json = toJson(userEntities, epoch);
+        for (int i = 0; i < userEntities.size(); i++) {
+            users.put(userEntities.get(i).getId(), json.get(i));
+        }
+        return users;
+    }
+
+    /**
+     * 複数のユーザーのJSONを、キャッシュを使わず現在の読み取りトランザクションで読み取って返します。
+     * 呼び出し元が同じトランザクションで読んだ他のデータと、同一スナップショットの内容が必要な場合に使います。
+     * 読み取った内容はキャッシュへ格納しません。
+     * @param userIds 対象ユーザーID
+     * @return ユーザーIDからJSON（UTF-8）へのマップ（存在しないIDは含まない）
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, byte[]> readJsonAll(Collection<Long> userIds) {
+        Map<Long, byte[]> users = new HashMap<>();
+        if (userIds.isEmpty()) return users;
+        List<UserEntity> userEntities = userRepository.findAllById(userIds);
+        userRepository.fetchCareerHistories(userEntities);
+        for (UserEntity userEntity : userEntities) {
+            users.put(userEntity.getId(), userJsonCache.serialize(userMapper.toResponse(userEntity)));
+        }
+        return users;
+    }
+
+    /**
+     * 条件に合致する総件数を返します。同じ書き込み世代のうちはキャッシュした件数を返します。
      * @param name 名前の部分一致（任意）
      * @return 総件数
      */
     @Transactional(readOnly = true)
     public int count(String name) {
-        if (name == null || name.isBlank()) return (int) userRepository.count();
-        return (int) userRepository.countByNameContaining(name);
+        long epoch = writeEpoch.current();
+        return userListCache.count(name, epoch, () -> singleFlight.execute(Arrays.asList("count", name, epoch), () -> {
+            if (name == null || name.isBlank()) return (int) userRepository.count();
+            return (int) userRepository.countByNameContaining(name);
+        }));
+    }
+
+    /**
+     * offset/limitを適用したユーザー一覧を、総件数とあわせて返します。
+     * 行と総件数（COUNT(*) OVER()）を1文で取得するため、両者は同一のスナップショットに基づきます。
+     * offsetが総件数以上で行が返らない場合に限り、総件数を別途取得します。
+     * 同じ書き込み世代のうちは、同じ条件のページをキャッシュから返します。
+     * @param name 名前の部分一致（任意）
+     * @param sortKey 並び順キー
+     * @param limit 取得件数（1以上）
+     * @param offset 取得開始位置
+     * @return ページ内のユーザー、総件数、次ページの有無とカーソル
+     */
+    @Transactional(readOnly = true)
+    public UserPage listPage(String name, UserSortKey sortKey, int limit, int offset) {
+        long epoch = writeEpoch.current();
+        return userListCache.page(name, sortKey, limit, offset, epoch, () -> singleFlight.execute(
+                Arrays.asList("page", name, sortKey, limit, offset, epoch), () -> loadPage(name, sortKey, limit, offset, epoch)));
     }
 
     /**
-     * ユーザー一覧を返します。
+     * offset/limitを適用したページをDBから読み込みます。
+     */
+    private UserPage loadPage(String name, UserSortKey sortKey, int limit, int offset, long epoch) {
+        List<UserWithTotal> rows;
+        try (Stream<UserWithTotal> stream = userRepository.streamWithTotal(name, sortKey, offset, limit)) {
+            rows = stream.collect(Collectors.toList());
+        }
+        int total = rows.isEmpty() ? count(name) : (int) rows.get(0).getTotal();
+        List<UserEntity> userEntities = rows.stream().map(UserWithTotal::getUser).collect(Collectors.toList());
+        List<byte[]> users = toJson(userEntities, epoch);
+        boolean hasNext = offset + users.size() < total;
+        String nextCursor = hasNext && !userEntities.isEmpty()
+                ? UserPageCursor.encode(sortKey, userEntities.get(userEntities.size() - 1), total)
+                : null;
+        return new UserPage(users, total, hasNext, nextCursor);
+    }
+
+    /**
+     * offset以降のユーザーをすべて、1件ずつハンドラへ渡します（limit=0）。
+     * 前方向のカーソルで逐次読み込み、{@value #STREAM_CHUNK_SIZE}件ごとに職歴をまとめて取得して渡します。
+     * 渡し終えたエンティティは永続化コンテキストから切り離すため、件数に比例してヒープを消費しません。総件数は最初の行と同じ文で取得し、最初のユーザーより前に通知します。
      * @param name 名前の部分一致（任意）
-     * @param limit 取得件数（0は全件相当でoffset以降）
+     * @param sortKey 並び順キー
      * @param offset 取得開始位置
-     * @return ユーザーDTOのリスト
+     * @param handler 総件数とユーザーを受け取るハンドラ
+     * @throws IOException ハンドラでの書き出しに失敗した場合
+     */
+    @Transactional(readOnly = true)
+    public void streamList(String name, UserSortKey sortKey, int offset, UserStreamHandler handler) throws IOException {
+        long epoch = writeEpoch.current();
+        try (Stream<UserWithTotal> stream = userRepository.streamWithTotal(name, sortKey, offset, 0)) {
+            Iterator<UserWithTotal> rows = stream.iterator();
+            if (!rows.hasNext()) {
+                handler.onTotal(count(name));
+                return;
+            }
+            List<UserEntity> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            UserWithTotal first = rows.next();
+            handler.onTotal((int) first.getTotal());
+            chunk.add(first.getUser());
+            while (rows.hasNext()) {
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    emitChunk(chunk, epoch, handler);
+                }
+                chunk.add(rows.next().getUser());
+            }
+            emitChunk(chunk, epoch, handler);
+        }
+    }
+
+    /**
+     * 全ユーザーをID順に、1件ずつハンドラへ渡します（エクスポート）。
+     * {@link #streamList} と同じく前方向のカーソルで逐次読み込み、{@value #STREAM_CHUNK_SIZE}件ごとに職歴をまとめて取得して渡し、
+     * 渡し終えたエンティティは永続化コンテキストから切り離します。総件数は求めません（{@link UserStreamHandler#onTotal} は呼ばれません）。
+     * 1つの読み取りトランザクションで読むため、WALモードでは書き込みを妨げずに開始時点のスナップショットを出力します。
+     * 開始後の更新を含みうるユーザーJSONキャッシュは参照せず、読み込んだエンティティからシリアライズします（キャッシュへの格納も行いません）。
+     * @param handler ユーザーを受け取るハンドラ
+     * @throws IOException ハンドラでの書き出しに失敗した場合
+     */
+    @Transactional(readOnly = true)
+    public void export(UserStreamHandler handler) throws IOException {
+        try (Stream<UserEntity> stream = userRepository.streamAll()) {
+            Iterator<UserEntity> rows = stream.iterator();
+            List<UserEntity> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE) {
+                    emitSnapshotChunk(chunk, handler);
+                }
+            }
+            emitSnapshotChunk(chunk, handler);
+        }
+    }
+
+    /**
+     * 読み込み済みのユーザーをJSONにしてハンドラへ渡し、永続化コンテキストから切り離します。
+     */
+    private void emitChunk(List<UserEntity> chunk, long epoch, UserStreamHandler handler) throws IOException {
+        for (byte[] user : toJson(chunk, epoch)) {
+            handler.onUser(user);
+        }
+        chunk.forEach(userRepository::detach);
+        chunk.clear();
+    }
+
+    /**
+     * 読み込み済みのユーザーを、キャッシュを使わずに職歴をまとめて取得してJSONにし、ハンドラへ渡して永続化コンテキストから切り離します。
+     */
+    private void emitSnapshotChunk(List<UserEntity> chunk, UserStreamHandler handler) throws IOException {
+        userRepository.fetchCareerHistories(chunk);
+        for (UserEntity userEntity : chunk) {
+            handler.onUser(userJsonCache.serialize(userMapper.toResponse(userEntity)));
+        }
+        chunk.forEach(userRepository::detach);
+        chunk.clear();
+    }
+
+    /**
+     * ユーザーをシリアライズ済みのJSONへ変換します。
+     * キャッシュにないユーザーに限って職歴をまとめて取得し、シリアライズしてキャッシュへ格納します。
+     * @param userEntities 読み込み済みのユーザー
+     * @param epoch 読み取り前に控えたキャッシュの書き込み世代
+     * @return ユーザーと同じ順序のJSON
+     */
+    private List<byte[]> toJson(List<UserEntity> userEntities, long epoch) {
+        List<byte[]> users = new ArrayList<>(userEntities.size());
+        List<UserEntity> misses = new ArrayList<>();
+        for (UserEntity userEntity : userEntities) {
+            byte[] cached = userJsonCache.getIfPresent(userEntity.getId());
+            users.add(cached);
+            if (cached == null) misses.add(userEntity);
+        }
+        if (misses.isEmpty()) return users;
+        userRepository.fetchCareerHistories(misses);
+        for (int i = 0; i < users.size(); i++) {
+            if (users.get(i) == null) {
+                users.set(i, userJsonCache.put(userMapper.toResponse(userEntities.get(i)), epoch));
+            }
+        }
+        return users;
+    }
+
+    /**
+     * カーソル位置の直後からユーザー一覧を返します（キーセットページング）。
+     * 並び順キーとIDでシークするため、取得コストはページの深さに依存しません。
+     * limit+1件を取得し、次のページの有無を判定します。総件数は数え直さず、カーソルが引き継ぐ最初のページの総件数を返します
+     * （カーソルを指定しない場合のみ同じ読み取りトランザクション内で取得します）。
+     * 同じ書き込み世代のうちは、同じ条件のページをキャッシュから返します。
+     * @param name 名前の部分一致（任意）
+     * @param sortKey 並び順キー
+     * @param cursor 前ページで返したカーソル（nullの場合は先頭から）
+     * @param limit 取得件数（1以上）
+     * @return ページ内のユーザーと次ページのカーソル
+     * @throws BadRequestException カーソルが不正な場合
      */
     @Transactional(readOnly = true)
-    public List<UserResponse> list(String name, int limit, int offset) {
-        int pageNumber = (limit == 0) ? 0 : offset / Math.max(1, limit);
-        Pageable pageable = (limit == 0) ? PageRequest.of(0, Integer.MAX_VALUE) : PageRequest.of(pageNumber, limit);
-        Page<UserEntity> resultPage = userRepository.findAll(UserSpecifications.nameContains(name), pageable);
-        List<UserEntity> userEntities = resultPage.getContent();
-        if (limit == 0 && offset > 0 && offset < userEntities.size()) {
-            userEntities = userEntities.subList(offset, userEntities.size());
+    public UserPage listAfter(String name, UserSortKey sortKey, String cursor, int limit) {
+        long epoch = writeEpoch.current();
+        Specification<UserEntity> spec = UserSpecifications.nameContains(name);
+        Integer total = null;
+        if (cursor != null) {
+            UserPageCursor after = UserPageCursor.decode(cursor, sortKey);
+            spec = spec.and(UserSpecifications.after(sortKey, after.getName(), after.getId()));
+            total = after.getTotal();
+        }
+        Specification<UserEntity> filter = spec;
+        Integer knownTotal = total;
+        return userListCache.pageAfter(name, sortKey, cursor, limit, epoch, () -> singleFlight.execute(
+                Arrays.asList("pageAfter", name, sortKey, cursor, limit, epoch),
+                () -> loadPageAfter(name, filter, sortKey, limit, knownTotal, epoch)));
+    }
+
+    /**
+     * カーソル位置の直後からのページをDBから読み込みます。総件数が未知（先頭ページ）の場合のみ数えます。
+     */
+    private UserPage loadPageAfter(String name, Specification<UserEntity> spec, UserSortKey sortKey, int limit, Integer knownTotal, long epoch) {
+        List<UserEntity> userEntities = userRepository.findSlice(spec, sortKey.toSort(), 0, limit + 1);
+        boolean hasNext = userEntities.size() > limit;
+        if (hasNext) {
+            userEntities = userEntities.subList(0, limit);
         }
-        return userEntities.stream().map(userMapper::toResponse).collect(Collectors.toList());
+        List<byte[]> users = toJson(userEntities, epoch);
+        int total = knownTotal != null ? knownTotal : count(name);
+        String nextCursor = hasNext ? UserPageCursor.encode(sortKey, userEntities.get(userEntities.size() - 1), total) : null;
+        return new UserPage(users, total, hasNext, nextCursor);
     }
 
     /**
@@ -163,7 +595,7 @@ public class UserService {
      * @param userRequest 対象リクエスト
      * @throws UnprocessableEntityException 期間の整合性エラー
      */
-    private void validatePeriod(UserCreateRequest userRequest) {
+    void validatePeriod(UserCreateRequest userRequest) {
         if (userRequest.getCareerHistories() != null) {
             for (CareerHistoryDto careerHistory : userRequest.getCareerHistories()) {
                 if (careerHistory.getPeriod() == null || careerHistory.getPeriod().getFrom() == null || careerHistory.getPeriod().getTo() == null) continue;
@@ -221,45 +653,45 @@ public class UserService {
     }
 
     /**
-     * 更新DTOの内容で職歴エンティティ一覧を差分更新します。
-     *
-     * @param userEntity 対象ユーザー
-     * @param updates    更新リクエスト
+     * 職歴を差分更新します。
+     * IDが一致する既存職歴は値が変わった項目のみ更新し、IDのない（または未知のIDの）職歴は追加し、
+     * リクエストに含まれない既存職歴は削除します（orphanRemoval）。
+     * 変更のない職歴には触れないため、発行されるSQLは実際の変更件数に比例します。
+     * @return いずれかの職歴を追加・更新・削除した場合true
      */
-    private void updateCareerHistories(UserEntity userEntity, List<CareerHistoryUpdateDto> updates) {
+    private boolean updateCareerHistories(UserEntity userEntity, List<CareerHistoryUpdateDto> updates) {
+        if (userEntity.getCareerHistories() == null) {
+            userEntity.setCareerHistories(new ArrayList<>());
+        }
         List<CareerHistoryEntity> current = userEntity.getCareerHistories();
-        List<CareerHistoryEntity> snapshot = current == null ? new ArrayList<>() : new ArrayList<>(current);
-
-        Map<Long, CareerHistoryEntity> existing = snapshot.stream()
+        Map<Long, CareerHistoryEntity> existing = current.stream()
                 .filter(entity -> entity.getId() != null)
                 .collect(Collectors.toMap(CareerHistoryEntity::getId, entity -> entity));
-        List<CareerHistoryEntity> updated = new ArrayList<>();
+        Set<CareerHistoryEntity> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<CareerHistoryEntity> added = new ArrayList<>();
+        boolean changed = false;
 
         for (CareerHistoryUpdateDto dto : updates) {
-            CareerHistoryEntity entity = null;
-            if (dto.getId() != null) {
-                entity = existing.get(dto.getId());
-            }
-            if (entity == null) {
+            CareerHistoryEntity entity = dto.getId() == null ? null : existing.get(dto.getId());
+            boolean isNew = entity == null;
+            if (isNew) {
                 entity = new CareerHistoryEntity();
+                entity.setUser(userEntity);
             }
 
             if (dto.getTitle() != null) {
-                entity.setTitle(dto.getTitle());
+                changed |= set(entity.getTitle(), dto.getTitle(), entity::setTitle);
             }
-
             PeriodUpdateDto period = dto.getPeriod();
             if (period != null) {
                 if (period.getFrom() != null) {
-                    entity.setPeriodFrom(period.getFrom().format(UserMapStructMapper.F));
+                    changed |= set(entity.getPeriodFrom(), period.getFrom().format(UserMapStructMapper.F), entity::setPeriodFrom);
                 }
                 if (period.getTo() != null) {
-                    entity.setPeriodTo(period.getTo().format(UserMapStructMapper.F));
+                    changed |= set(entity.getPeriodTo(), period.getTo().format(UserMapStructMapper.F), entity::setPeriodTo);
                 }
             }
 
-            entity.setUser(userEntity);
-
             if (dto.getId() == null) {
                 if (entity.getTitle() == null || entity.getPeriodFrom() == null || entity.getPeriodTo() == null) {
                     FieldErrorDetail err = ErrorCatalog.fieldError(
@@ -271,17 +703,26 @@ public class UserService {
                     throw new UnprocessableEntityException(ErrorCatalog.Messages.UNPROCESSABLE_TOP, List.of(err));
                 }
             }
-            updated.add(entity);
+            if (isNew) {
+                added.add(entity);
+            } else {
+                retained.add(entity);
+            }
         }
 
-        if (current == null) {
-            updated.forEach(item -> item.setUser(userEntity));
-            userEntity.setCareerHistories(updated);
-        } else {
-            current.clear();
-            updated.forEach(item -> item.setUser(userEntity));
-            current.addAll(updated);
-        }
+        changed |= current.removeIf(entity -> !retained.contains(entity));
+        changed |= current.addAll(added);
+        return changed;
+    }
+
+    /**
+     * 値が変わる場合のみセッターを呼び出します。
+     * @return 値を変更した場合true
+     */
+    private static <T> boolean set(T current, T value, Consumer<T> setter) {
+        if (Objects.equals(current, value)) return false;
+        setter.accept(value);
+        return true;
     }
 
     /**
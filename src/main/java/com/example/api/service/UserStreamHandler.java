@@ -0,0 +1,27 @@
+package com.example.api.service;
+
+import java.io.IOException;
+
+/**
+ * ユーザー一覧を1件ずつ受け取るハンドラ。
+ * 全件をヒープへ載せずにレスポンスへ書き出す用途で利用します。
+ */
+public interface UserStreamHandler {
+    /**
+     * 最初のユーザーより前に、ページング前の総件数を受け取ります。
+     * 総件数を求めない読み込み（{@link UserService#export}）では呼ばれません。
+     *
+     * @param total 総件数
+     * @throws IOException 書き出しに失敗した場合
+     */
+    default void onTotal(int total) throws IOException {
+    }
+
+    /**
+     * ユーザーを1件受け取ります。
+     *
+     * @param user ユーザーDTOをシリアライズしたJSON（UTF-8）
+     * @throws IOException 書き出しに失敗した場合
+     */
+    void onUser(byte[] user) throws IOException;
+}
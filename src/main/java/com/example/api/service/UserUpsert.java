@@ -0,0 +1,14 @@
+package com.example.api.service;
+
+import lombok.Value;
+
+/**
+ * 一括登録・更新（upsert）した1件の結果。
+ */
+@Value
+public class UserUpsert {
+    /** ユーザーID。 */
+    Long id;
+    /** 新規に登録した場合true、既存のユーザーを更新した場合false。 */
+    boolean created;
+}
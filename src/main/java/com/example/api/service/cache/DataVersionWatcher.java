@@ -0,0 +1,143 @@
+package com.example.api.service.cache;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.sqlite.SQLiteConnection;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同じDBファイルを共有する他プロセスの書き込みを検知し、プロセス内のキャッシュをすべて破棄します。
+ *
+ * <p>{@code PRAGMA data_version} は、同じ接続で続けて読むと、その間に<b>他の接続</b>がコミットした場合にのみ値が変わります。
+ * プロセス内の書き込みはすべて書き込み用プールの単一接続で行うため、その接続で値を読み比べれば、
+ * 他プロセスによるコミットだけを検知できます（自プロセスの書き込みはコミット後に各キャッシュが破棄済み）。</p>
+ *
+ * <p>値が変わった場合、または書き込み用の接続が作り直されて比較できない場合に、
+ * Hibernateの二次キャッシュ・ユーザーJSONキャッシュ・一覧の結果キャッシュを破棄し、書き込み世代を進めます。
+ * 読み取り中の結果は世代の比較により格納されないため、他プロセスの書き込みから
+ * キャッシュが古い内容を返しうる期間は、おおむねポーリング間隔までです。</p>
+ *
+ * <p>破棄した回数を {@code users.cache.coherence.invalidations} として公開します。</p>
+ */
+@Component
+public class DataVersionWatcher {
+    private static final Logger log = LoggerFactory.getLogger(DataVersionWatcher.class);
+
+    private final HikariDataSource writerDataSource;
+    private final EntityManagerFactory entityManagerFactory;
+    private final UserJsonCache userJsonCache;
+    private final UserListCache userListCache;
+    private final boolean enabled;
+    private final Duration pollInterval;
+    private final Counter invalidations;
+    private ScheduledExecutorService poller;
+    /** 前回値を読んだ接続（作り直しの検知用）。 */
+    private SQLiteConnection connection;
+    private long dataVersion;
+
+    /**
+     * @param writerDataSource     書き込み用プール
+     * @param entityManagerFactory 二次キャッシュを保持するEntityManagerFactory
+     * @param userJsonCache        ユーザーJSONキャッシュ
+     * @param userListCache        一覧の結果キャッシュ
+     * @param meterRegistry        メトリクス登録先
+     * @param enabled              検知を行うか
+     * @param pollInterval         {@code PRAGMA data_version} を読む間隔
+     */
+    public DataVersionWatcher(@Qualifier("writerDataSource") HikariDataSource writerDataSource,
+                              EntityManagerFactory entityManagerFactory,
+                              UserJsonCache userJsonCache,
+                              UserListCache userListCache,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cache.coherence.enabled:true}") boolean enabled,
+                              @Value("${app.cache.coherence.poll-interval:1s}") Duration pollInterval) {
+        this.writerDataSource = writerDataSource;
+        this.entityManagerFactory = entityManagerFactory;
+        this.userJsonCache = userJsonCache;
+        this.userListCache = userListCache;
+        this.enabled = enabled;
+        this.pollInterval = pollInterval;
+        this.invalidations = Counter.builder("users.cache.coherence.invalidations")
+                .description("Local cache invalidations caused by commits from other processes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 基準となる値を読み、定期的なポーリングを開始します。
+     * キャッシュへ何も載らないうちに基準を取るため、起動時の読み込み（ウォームアップ等）より前に実行します。
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        poll();
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "data-version-watcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = pollInterval.toMillis();
+        poller.scheduleWithFixedDelay(this::poll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * ポーリングを停止します。
+     */
+    @PreDestroy
+    public void stop() {
+        if (poller != null) poller.shutdownNow();
+    }
+
+    /**
+     * 書き込み用の接続で {@code PRAGMA data_version} を読み、他プロセスのコミットがあればキャッシュを破棄します。
+     * 書き込み中は接続の返却を待ちます。キャッシュの破棄は接続を返却してから行い、その間書き込みを止めません。
+     */
+    public synchronized void poll() {
+        String reason = null;
+        try (Connection pooled = writerDataSource.getConnection();
+             Statement statement = pooled.createStatement();
+             ResultSet resultSet = statement.executeQuery("PRAGMA data_version")) {
+            resultSet.next();
+            long version = resultSet.getLong(1);
+            SQLiteConnection current = pooled.unwrap(SQLiteConnection.class);
+            SQLiteConnection previous = connection;
+            if (previous != current) {
+                connection = current;
+                dataVersion = version;
+                // 初回を除き、接続が作り直された間のコミットは判別できないため破棄する
+                if (previous != null) reason = "writer connection replaced";
+            } else if (version != dataVersion) {
+                dataVersion = version;
+                reason = "data_version changed";
+            }
+        } catch (SQLException | RuntimeException ex) {
+            log.warn("Could not poll data_version: {}", ex.getMessage());
+            return;
+        }
+        if (reason != null) invalidate(reason);
+    }
+
+    private void invalidate(String reason) {
+        entityManagerFactory.getCache().evictAll();
+        userJsonCache.invalidateAll();
+        userListCache.invalidateAll();
+        invalidations.increment();
+        log.debug("Local caches invalidated: reason={}", reason);
+    }
+}
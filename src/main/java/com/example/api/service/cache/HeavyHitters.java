@@ -0,0 +1,192 @@
+package com.example.api.service.cache;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * スライディングウィンドウ内で出現回数の多いキーを推定する、Count-Minスケッチによる集計器。
+ * ウィンドウを一定幅のスライスに分け、スライスごとにスケッチと上位候補のキーを持ちます。
+ *
+ * <p>記録はカウンタのアトミックな加算と、上位候補の固定長の表（オープンアドレス法）へのCASのみで、ロックを取りません。
+ * 上位候補には、スライスの件数が空いているうちはすべてのキーを、埋まった後は推定回数が
+ * スライス全体の {@code 2 / capacity} 以上のキーだけを加えるため、候補数は {@code capacity} の1.5倍以内に収まり、
+ * {@code capacity} の2倍以上の大きさの表に収まります（表が埋まった場合は加えません）。上位K件は問い合わせ時に候補をヒープで選びます。</p>
+ *
+ * @param <K> キーの型
+ */
+final class HeavyHitters<K> {
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 2048;
+
+    private final AtomicReferenceArray<Slice<K>> slices;
+    private final long sliceNanos;
+    private final int capacity;
+    private final LongSupplier nanoClock;
+
+    /**
+     * @param slices     ウィンドウを構成するスライス数
+     * @param sliceNanos スライスの幅（ナノ秒）
+     * @param capacity   スライスごとの上位候補の目安件数
+     * @param nanoClock  単調増加する時刻（ナノ秒）
+     */
+    HeavyHitters(int slices, long sliceNanos, int capacity, LongSupplier nanoClock) {
+        this.slices = new AtomicReferenceArray<>(slices);
+        this.sliceNanos = sliceNanos;
+        this.capacity = capacity;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * キーの出現を1回記録します。
+     *
+     * @param key キー
+     */
+    void record(K key) {
+        slice(nanoClock.getAsLong() / sliceNanos).add(key, capacity);
+    }
+
+    /**
+     * ウィンドウ内の推定回数が多い順に、上位のキーを返します。
+     *
+     * @param limit    返す最大件数
+     * @param minCount 返すキーの推定回数の下限
+     * @return 推定回数の降順のキー
+     */
+    List<HotKey<K>> top(int limit, long minCount) {
+        List<Slice<K>> live = liveSlices();
+        Set<K> candidates = new HashSet<>();
+        for (Slice<K> slice : live) {
+            slice.collectCandidates(candidates);
+        }
+        PriorityQueue<HotKey<K>> heap = new PriorityQueue<>(Comparator.comparingLong(HotKey::getCount));
+        for (K key : candidates) {
+            long count = 0;
+            for (Slice<K> slice : live) {
+                count += slice.estimate(key);
+            }
+            if (count < minCount) continue;
+            heap.add(new HotKey<>(key, count));
+            if (heap.size() > limit) heap.poll();
+        }
+        List<HotKey<K>> top = new ArrayList<>(heap);
+        top.sort(Comparator.comparingLong(HotKey<K>::getCount).reversed());
+        return top;
+    }
+
+    /**
+     * ウィンドウ内の記録回数の合計を返します。
+     *
+     * @return 記録回数
+     */
+    long total() {
+        long total = 0;
+        for (Slice<K> slice : liveSlices()) {
+            total += slice.total.sum();
+        }
+        return total;
+    }
+
+    private List<Slice<K>> liveSlices() {
+        long current = nanoClock.getAsLong() / sliceNanos;
+        List<Slice<K>> live = new ArrayList<>(slices.length());
+        for (int i = 0; i < slices.length(); i++) {
+            Slice<K> slice = slices.get(i);
+            if (slice != null && slice.index > current - slices.length() && slice.index <= current) {
+                live.add(slice);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * 時刻のスライスを返します。同じ位置に古いスライスがあれば、新しいスライスにCASで差し替えます。
+     */
+    private Slice<K> slice(long index) {
+        int position = (int) (index % slices.length());
+        Slice<K> slice = slices.get(position);
+        while (slice == null || slice.index < index) {
+            Slice<K> created = new Slice<>(index, capacity);
+            if (slices.compareAndSet(position, slice, created)) return created;
+            slice = slices.get(position);
+        }
+        return slice;
+    }
+
+    /**
+     * 1スライス分のスケッチと上位候補。
+     */
+    private static final class Slice<K> {
+        private final long index;
+        private final AtomicLongArray counters = new AtomicLongArray(DEPTH * WIDTH);
+        private final LongAdder total = new LongAdder();
+        /** 上位候補の表（大きさは {@code capacity} の2倍以上の2のべき乗、空きはnull）。 */
+        private final AtomicReferenceArray<K> candidates;
+        private final AtomicInteger candidateCount = new AtomicInteger();
+
+        private Slice(long index, int capacity) {
+            this.index = index;
+            this.candidates = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(1, capacity * 2 - 1)) << 1);
+        }
+
+        private void add(K key, int capacity) {
+            long hash = LongBloomFilter.mix(key.hashCode());
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                estimate = Math.min(estimate, counters.incrementAndGet(cell(hash, row)));
+            }
+            total.increment();
+            if (candidateCount.get() < capacity || estimate * capacity >= 2 * total.sum()) {
+                addCandidate(key, hash);
+            }
+        }
+
+        /**
+         * キーを上位候補の表へ加えます（既にあれば何もしません）。空きをCASで確保し、表が埋まっていれば加えません。
+         */
+        private void addCandidate(K key, long hash) {
+            int mask = candidates.length() - 1;
+            int position = (int) (hash ^ (hash >>> 32)) & mask;
+            for (int probe = 0; probe < candidates.length(); probe++, position = (position + 1) & mask) {
+                K current = candidates.get(position);
+                if (current == null) {
+                    if (candidates.compareAndSet(position, null, key)) {
+                        candidateCount.incrementAndGet();
+                        return;
+                    }
+                    current = candidates.get(position);
+                }
+                if (current.equals(key)) return;
+            }
+        }
+
+        private void collectCandidates(Set<K> into) {
+            for (int i = 0; i < candidates.length(); i++) {
+                K key = candidates.get(i);
+                if (key != null) into.add(key);
+            }
+        }
+
+        private long estimate(K key) {
+            long hash = LongBloomFilter.mix(key.hashCode());
+            long estimate = Long.MAX_VALUE;
+            for (int row = 0; row < DEPTH; row++) {
+                estimate = Math.min(estimate, counters.get(cell(hash, row)));
+            }
+            return estimate;
+        }
+
+        private static int cell(long hash, int row) {
+            int combined = (int) hash + (row + 1) * (int) (hash >>> 32);
+            return row * WIDTH + (combined & (WIDTH - 1));
+        }
+    }
+}
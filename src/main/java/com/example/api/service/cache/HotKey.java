@@ -0,0 +1,16 @@
+package com.example.api.service.cache;
+
+import lombok.Value;
+
+/**
+ * 出現回数の多いキーと、ウィンドウ内の推定回数。
+ *
+ * @param <K> キーの型
+ */
+@Value
+public class HotKey<K> {
+    /** キー（ユーザーID、または名前の絞り込み条件）。 */
+    K key;
+    /** ウィンドウ内の推定出現回数（実際の回数以上）。 */
+    long count;
+}
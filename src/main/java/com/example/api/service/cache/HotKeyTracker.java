@@ -0,0 +1,224 @@
+package com.example.api.service.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 詳細取得されたユーザーIDと、一覧の名前の絞り込み条件のうち、直近のウィンドウで要求の多いものを推定します
+ * （{@link HeavyHitters}）。記録はロックを取らないため、リクエスト処理へ待ちを加えません。
+ *
+ * <p>一定間隔で上位のキーを選び直し、推定回数が下限以上のものを「固定対象」として公開します。
+ * キャッシュは固定対象のエントリを容量による退避の対象から外し、選び直しの通知（{@link #addPinListener}）で
+ * 固定の付け外しを反映します。</p>
+ */
+@Component
+public class HotKeyTracker {
+    private static final Logger log = LoggerFactory.getLogger(HotKeyTracker.class);
+    /** スライスごとの上位候補の目安件数。 */
+    private static final int CANDIDATES = 256;
+
+    private final boolean enabled;
+    private final Duration window;
+    private final int pinSize;
+    private final long pinMinCount;
+    private final Duration refreshInterval;
+    private final HeavyHitters<Long> ids;
+    private final HeavyHitters<String> names;
+    private final List<Runnable> pinListeners = new CopyOnWriteArrayList<>();
+    private volatile Set<Long> pinnedIds = Set.of();
+    private volatile Set<String> pinnedNames = Set.of();
+    private ScheduledExecutorService refresher;
+
+    /**
+     * @param enabled         集計を行うか
+     * @param window          集計するウィンドウの長さ
+     * @param slices          ウィンドウを分割するスライス数
+     * @param pinSize         固定対象とする上位件数（ID・名前それぞれ）
+     * @param pinMinCount     固定対象とするウィンドウ内の推定回数の下限
+     * @param refreshInterval 固定対象を選び直す間隔
+     */
+    public HotKeyTracker(@Value("${app.cache.hot-keys.enabled:true}") boolean enabled,
+                         @Value("${app.cache.hot-keys.window:1m}") Duration window,
+                         @Value("${app.cache.hot-keys.slices:6}") int slices,
+                         @Value("${app.cache.hot-keys.pin-size:16}") int pinSize,
+                         @Value("${app.cache.hot-keys.pin-min-count:50}") long pinMinCount,
+                         @Value("${app.cache.hot-keys.refresh-interval:5s}") Duration refreshInterval) {
+        this.enabled = enabled;
+        this.window = window;
+        this.pinSize = pinSize;
+        this.pinMinCount = pinMinCount;
+        this.refreshInterval = refreshInterval;
+        long sliceNanos = Math.max(1, window.toNanos() / slices);
+        this.ids = new HeavyHitters<>(slices, sliceNanos, CANDIDATES, System::nanoTime);
+        this.names = new HeavyHitters<>(slices, sliceNanos, CANDIDATES, System::nanoTime);
+    }
+
+    /**
+     * 固定対象の定期的な選び直しを開始します。
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) return;
+        refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hot-key-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = refreshInterval.toMillis();
+        refresher.scheduleWithFixedDelay(this::refresh, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 選び直しを停止します。
+     */
+    @PreDestroy
+    public void stop() {
+        if (refresher != null) refresher.shutdownNow();
+    }
+
+    /**
+     * 詳細取得されたユーザーIDを記録します。
+     *
+     * @param id ユーザーID
+     */
+    public void recordId(long id) {
+        if (enabled) ids.record(id);
+    }
+
+    /**
+     * 一覧の名前の絞り込み条件を記録します。未指定・空白のみの条件は記録しません。
+     *
+     * @param name 名前の部分一致
+     */
+    public void recordName(String name) {
+        if (enabled && name != null && !name.isBlank()) names.record(name);
+    }
+
+    /**
+     * ウィンドウ内で詳細取得の多いユーザーIDを返します。
+     *
+     * @param limit 最大件数
+     * @return 推定回数の降順のID
+     */
+    public List<HotKey<Long>> topIds(int limit) {
+        return ids.top(limit, 1);
+    }
+
+    /**
+     * ウィンドウ内で指定の多い名前の絞り込み条件を返します。
+     *
+     * @param limit 最大件数
+     * @return 推定回数の降順の条件
+     */
+    public List<HotKey<String>> topNames(int limit) {
+        return names.top(limit, 1);
+    }
+
+    /**
+     * ウィンドウ内で記録したユーザーIDの件数を返します。
+     *
+     * @return 件数
+     */
+    public long idRequests() {
+        return ids.total();
+    }
+
+    /**
+     * ウィンドウ内で記録した名前の絞り込み条件の件数を返します。
+     *
+     * @return 件数
+     */
+    public long nameRequests() {
+        return names.total();
+    }
+
+    /**
+     * 集計するウィンドウの長さを返します。
+     *
+     * @return ウィンドウの長さ
+     */
+    public Duration window() {
+        return window;
+    }
+
+    /**
+     * ユーザーIDが固定対象かを判定します。
+     *
+     * @param id ユーザーID
+     * @return 固定対象の場合true
+     */
+    public boolean isPinnedId(Long id) {
+        return pinnedIds.contains(id);
+    }
+
+    /**
+     * 名前の絞り込み条件が固定対象かを判定します。
+     *
+     * @param name 名前の部分一致
+     * @return 固定対象の場合true
+     */
+    public boolean isPinnedName(String name) {
+        return name != null && pinnedNames.contains(name);
+    }
+
+    /**
+     * 現在の固定対象のユーザーIDを返します。
+     *
+     * @return ユーザーID
+     */
+    public Set<Long> pinnedIds() {
+        return pinnedIds;
+    }
+
+    /**
+     * 現在の固定対象の名前の絞り込み条件を返します。
+     *
+     * @return 名前の部分一致
+     */
+    public Set<String> pinnedNames() {
+        return pinnedNames;
+    }
+
+    /**
+     * 固定対象を選び直すたびに呼び出す処理を登録します。
+     *
+     * @param listener 選び直し後に呼び出す処理
+     */
+    public void addPinListener(Runnable listener) {
+        pinListeners.add(listener);
+    }
+
+    /**
+     * 上位のキーから固定対象を選び直し、登録された処理へ通知します。
+     */
+    public void refresh() {
+        Set<Long> nextIds = ids.top(pinSize, pinMinCount).stream().map(HotKey::getKey).collect(Collectors.toUnmodifiableSet());
+        Set<String> nextNames = names.top(pinSize, pinMinCount).stream().map(HotKey::getKey).collect(Collectors.toUnmodifiableSet());
+        boolean changed = !nextIds.equals(pinnedIds) || !nextNames.equals(pinnedNames);
+        pinnedIds = nextIds;
+        pinnedNames = nextNames;
+        if (changed) {
+            log.debug("Hot keys pinned: ids={} names={}", nextIds, nextNames);
+        }
+        for (Runnable listener : pinListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException ex) {
+                log.warn("Hot key pin listener failed", ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.api.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.web.annotation.RestControllerEndpoint;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 直近のウィンドウで要求の多いユーザーIDと名前の絞り込み条件を返すActuatorエンドポイント
+ * （GET {@code /actuator/hotkeys?limit=20}）。
+ */
+@Component
+@RestControllerEndpoint(id = "hotkeys")
+@RequiredArgsConstructor
+public class HotKeysEndpoint {
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final HotKeyTracker hotKeyTracker;
+
+    /**
+     * 上位のキーと、キャッシュで固定中のキーを返します。
+     *
+     * @param limit 種類ごとの最大件数（省略時20）
+     * @return ウィンドウの長さ・記録件数・上位のキー・固定中のキー
+     */
+    @GetMapping
+    public Map<String, Object> hotKeys(@RequestParam(name = "limit", required = false) Integer limit) {
+        int size = limit == null || limit < 1 ? DEFAULT_LIMIT : limit;
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("window", hotKeyTracker.window().toString());
+        body.put("ids", section(hotKeyTracker.idRequests(), hotKeyTracker.topIds(size), hotKeyTracker.pinnedIds()));
+        body.put("names", section(hotKeyTracker.nameRequests(), hotKeyTracker.topNames(size), hotKeyTracker.pinnedNames()));
+        return body;
+    }
+
+    private static Map<String, Object> section(long requests, Object top, Object pinned) {
+        Map<String, Object> section = new LinkedHashMap<>();
+        section.put("requests", requests);
+        section.put("top", top);
+        section.put("pinned", pinned);
+        return section;
+    }
+}
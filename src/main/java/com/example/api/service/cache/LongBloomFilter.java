@@ -0,0 +1,98 @@
+package com.example.api.service.cache;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * long値のBloomフィルタ。含まれない値は確実に判定でき、含まれる値は誤検知率の範囲で偽陽性になります。
+ * ビットの設定はCASで行うため、追加と判定を複数スレッドから同時に呼び出せます。
+ */
+final class LongBloomFilter {
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashes;
+
+    /**
+     * 想定件数と誤検知率から、ビット数とハッシュ関数の数を決めて生成します。
+     *
+     * @param expected 想定する要素数
+     * @param fpp      想定件数を追加したときの誤検知率（0より大きく1未満）
+     */
+    LongBloomFilter(long expected, double fpp) {
+        long n = Math.max(1, expected);
+        long bitCount = (long) Math.ceil(-n * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (bitCount + 63) / 64));
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words * 64;
+        this.hashes = Math.max(1, (int) Math.round((double) bitSize / n * Math.log(2)));
+    }
+
+    /**
+     * 値を追加します。
+     *
+     * @param value 値
+     */
+    void put(long value) {
+        long hash = mix(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long index = index(h1 + i * h2);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current = bits.get(word);
+            while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+                current = bits.get(word);
+            }
+        }
+    }
+
+    /**
+     * 値が含まれている可能性があるかを判定します。
+     *
+     * @param value 値
+     * @return 含まれている可能性があればtrue（falseなら確実に含まれない）
+     */
+    boolean mightContain(long value) {
+        long hash = mix(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashes; i++) {
+            long index = index(h1 + i * h2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) return false;
+        }
+        return true;
+    }
+
+    /**
+     * 指定件数を追加した場合の誤検知率の推定値を返します。
+     *
+     * @param inserted 追加した要素数
+     * @return 誤検知率の推定値
+     */
+    double expectedFpp(long inserted) {
+        return Math.pow(1 - Math.exp(-(double) hashes * inserted / bitSize), hashes);
+    }
+
+    /**
+     * ビット配列のサイズ（バイト）を返します。
+     *
+     * @return バイト数
+     */
+    long sizeInBytes() {
+        return bitSize / 8;
+    }
+
+    private long index(int combined) {
+        return (combined & Integer.MAX_VALUE) % bitSize;
+    }
+
+    /**
+     * 連番のIDでもビットが偏らないよう、64ビットを拡散します（SplitMix64の最終段）。
+     */
+    static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.api.service.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 同じキーの読み込みが同時に要求された場合に、DBからの読み込みを1回にまとめる仕組み。
+ * 最初の呼び出し（リーダー）だけが読み込みを実行し、実行中に届いた同じキーの呼び出しはその結果を共有します。
+ * 読み込みが例外で終わった場合は、待っていた呼び出しにも同じ例外を送出します。
+ *
+ * <p>待機には上限（{@code app.cache.single-flight.timeout}）があり、超えた場合は待つのをやめて自ら読み込みます。
+ * キーには書き込み世代を含め、書き込みのコミット後に届いた呼び出しがコミット前の結果を受け取らないようにします。</p>
+ */
+@Component
+public class SingleFlight {
+    private static final Logger log = LoggerFactory.getLogger(SingleFlight.class);
+
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+
+    /**
+     * @param timeout 実行中の読み込みを待つ上限
+     */
+    public SingleFlight(@Value("${app.cache.single-flight.timeout:5s}") Duration timeout) {
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * 同じキーの読み込みが実行中であればその結果を待って返し、なければ読み込みを実行します。
+     *
+     * @param key    読み込みのキー（equals/hashCodeで同一性を判定します）
+     * @param loader 読み込み処理
+     * @param <T>    結果の型
+     * @return 読み込み結果
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(Object key, Supplier<T> loader) {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return (T) await(key, running, loader);
+        }
+        try {
+            T result = loader.get();
+            future.complete(result);
+            return result;
+        } catch (RuntimeException | Error ex) {
+            future.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 実行中の件数を返します。
+     *
+     * @return 実行中の読み込みの件数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private Object await(Object key, CompletableFuture<Object> running, Supplier<?> loader) {
+        try {
+            return running.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } catch (TimeoutException ex) {
+            log.warn("Timed out waiting for in-flight load; loading independently: key={}", key);
+            return loader.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight load", ex);
+        }
+    }
+}
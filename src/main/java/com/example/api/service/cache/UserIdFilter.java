@@ -0,0 +1,115 @@
+package com.example.api.service.cache;
+
+import com.example.api.repository.UserJpaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * 存在しないユーザーIDを、DBへ問い合わせずに判定するための否定キャッシュ。
+ * 起動時にusersテーブルの全IDからBloomフィルタを構築し、構築時点で払い出し済みの最大IDを併せて保持します。
+ *
+ * <p>IDはAUTOINCREMENTで払い出されるため、構築後に作成されたユーザー（他プロセスによるものを含む）のIDは
+ * 必ず保持した最大IDより大きく、フィルタへの追加なしに「存在し得る」と判定されます。
+ * 削除されたIDはフィルタに残りますが、DBへの問い合わせが省略されないだけで結果は変わりません。
+ * 最大ID以下でフィルタに含まれないIDは確実に存在しないため、見つからないエラーとして扱えます。</p>
+ *
+ * <p>フィルタのサイズ（{@code users.id.filter.bytes}）、誤検知率の推定値（{@code users.id.filter.fpp}）、
+ * 問い合わせを省略した件数（{@code users.id.filter.rejections}）をメトリクスとして公開します。</p>
+ */
+@Component
+public class UserIdFilter {
+    private static final Logger log = LoggerFactory.getLogger(UserIdFilter.class);
+
+    private final UserJpaRepository userRepository;
+    private final boolean enabled;
+    private final double fpp;
+    private final Counter rejections;
+    private volatile Snapshot snapshot;
+
+    /**
+     * @param userRepository ユーザーリポジトリ
+     * @param meterRegistry  メトリクス登録先
+     * @param enabled        フィルタを利用するか
+     * @param fpp            構築時の件数に対する誤検知率
+     */
+    public UserIdFilter(UserJpaRepository userRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.cache.user-id-filter.enabled:true}") boolean enabled,
+                        @Value("${app.cache.user-id-filter.fpp:0.01}") double fpp) {
+        this.userRepository = userRepository;
+        this.enabled = enabled;
+        this.fpp = fpp;
+        this.rejections = Counter.builder("users.id.filter.rejections")
+                .description("Lookups of user ids answered as missing without querying the database")
+                .register(meterRegistry);
+        Gauge.builder("users.id.filter.bytes", this, filter -> filter.snapshot == null ? 0 : filter.snapshot.ids.sizeInBytes())
+                .baseUnit("bytes")
+                .description("Size of the user id Bloom filter")
+                .register(meterRegistry);
+        Gauge.builder("users.id.filter.fpp", this, filter -> filter.snapshot == null ? 0 : filter.snapshot.expectedFpp())
+                .description("Estimated false positive probability of the user id Bloom filter")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ユーザーIDが存在し得るかを判定します。フィルタの構築前・無効時は常にtrueを返します。
+     *
+     * @param id ユーザーID
+     * @return 存在し得る場合true（falseなら確実に存在しない）
+     */
+    public boolean mightExist(long id) {
+        Snapshot current = snapshot;
+        if (current == null || id > current.lastAllocatedId || current.ids.mightContain(id)) return true;
+        rejections.increment();
+        return false;
+    }
+
+    /**
+     * usersテーブルの全IDからフィルタを構築し直します。
+     * 件数・最大ID・全IDは同じ読み取りトランザクション（同一スナップショット）で読み取ります。
+     * 起動時はウォームアップより先に実行します。
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) return;
+        long started = System.nanoTime();
+        long count = userRepository.count();
+        long lastAllocatedId = userRepository.lastAllocatedId();
+        LongBloomFilter ids = new LongBloomFilter(count, fpp);
+        try (Stream<Long> stream = userRepository.streamIds()) {
+            stream.forEach(ids::put);
+        }
+        snapshot = new Snapshot(ids, count, lastAllocatedId);
+        log.info("User id filter rebuilt: users={} lastAllocatedId={} bytes={} elapsedMs={}",
+                count, lastAllocatedId, ids.sizeInBytes(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * 構築済みのフィルタと、構築時点の件数・払い出し済みの最大ID。
+     */
+    @RequiredArgsConstructor
+    private static final class Snapshot {
+        private final LongBloomFilter ids;
+        private final long count;
+        private final long lastAllocatedId;
+
+        private double expectedFpp() {
+            return ids.expectedFpp(count);
+        }
+    }
+}
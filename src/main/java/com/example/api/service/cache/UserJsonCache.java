@@ -0,0 +1,144 @@
+package com.example.api.service.cache;
+
+import com.example.api.dto.UserResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * ユーザーIDから、{@link UserResponse} をシリアライズ済みのUTF-8 JSONバイト列を引くキャッシュ。
+ * 詳細取得ではバイト列をそのままレスポンスへ書き出し、一覧ではユーザー配列の要素として連結します。
+ * 上限はJSONのバイト数の合計で指定します。
+ *
+ * <p>更新系がコミットされると対象IDのエントリを破棄し、書き込み世代（{@link UserWriteEpoch}）を進めます。
+ * 読み取り側は問い合わせ前に世代を控えておき、格納時に世代が変わっていれば格納しません。
+ * これにより、コミット前のスナップショットから組み立てたJSONが破棄後に書き戻されることはありません。</p>
+ *
+ * <p>{@link HotKeyTracker} の固定対象のIDは重みを0として、容量による退避の対象から外します。</p>
+ */
+@Component
+public class UserJsonCache {
+    private final ObjectWriter writer;
+    private final Cache<Long, byte[]> cache;
+    private final UserWriteEpoch epoch;
+    private final HotKeyTracker hotKeys;
+    /** 前回の選び直しで固定したID（固定を外す対象の判定用、選び直しのスレッドのみが参照）。 */
+    private Set<Long> pinned = Set.of();
+
+    /**
+     * @param objectMapper MVCと同じ設定のObjectMapper
+     * @param epoch        ユーザーの書き込み世代
+     * @param hotKeys      要求の多いキーの集計
+     * @param maxSize      保持するJSONの合計サイズの上限
+     */
+    public UserJsonCache(ObjectMapper objectMapper,
+                         UserWriteEpoch epoch,
+                         HotKeyTracker hotKeys,
+                         @Value("${app.cache.user-json.max-size:32MB}") DataSize maxSize) {
+        this.epoch = epoch;
+        this.hotKeys = hotKeys;
+        this.writer = objectMapper.writerFor(UserResponse.class);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Long id, byte[] json) -> hotKeys.isPinnedId(id) ? 0 : json.length)
+                .build();
+        hotKeys.addPinListener(this::repin);
+    }
+
+    /**
+     * キャッシュ済みのJSONを返します。
+     *
+     * @param id ユーザーID
+     * @return JSONバイト列（未キャッシュの場合はnull）
+     */
+    public byte[] getIfPresent(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    /**
+     * ユーザーをシリアライズして返し、読み取り開始時から書き込み世代が変わっていなければキャッシュします。
+     *
+     * @param user  ユーザーDTO
+     * @param epoch 読み取り前に {@link UserWriteEpoch#current()} で取得した世代
+     * @return JSONバイト列
+     */
+    public byte[] put(UserResponse user, long epoch) {
+        byte[] json = serialize(user);
+        // 破棄（世代の更新）と格納が競合しても古いJSONが残らないよう、判定と格納をエントリ単位で原子的に行う
+        cache.asMap().compute(user.getId(), (id, current) -> this.epoch.current() == epoch ? json : current);
+        return json;
+    }
+
+    /**
+     * 対象ユーザーのエントリを破棄し、書き込み世代を進めます。
+     *
+     * @param id ユーザーID
+     */
+    public void invalidate(Long id) {
+        epoch.advance();
+        cache.invalidate(id);
+    }
+
+    /**
+     * 全エントリを破棄し、書き込み世代を進めます。
+     */
+    public void invalidateAll() {
+        epoch.advance();
+        cache.invalidateAll();
+    }
+
+    /**
+     * 現在のトランザクションのコミット後に対象ユーザーのエントリを破棄します。
+     * トランザクション外で呼ばれた場合は直ちに破棄します。
+     *
+     * @param id ユーザーID
+     */
+    public void invalidateAfterCommit(Long id) {
+        UserWriteEpoch.afterCommit(() -> invalidate(id));
+    }
+
+    /**
+     * 固定対象に加わった・外れたIDのエントリの重みを計算し直します。
+     */
+    void repin() {
+        Set<Long> next = hotKeys.pinnedIds();
+        Set<Long> changed = new HashSet<>(pinned);
+        changed.addAll(next);
+        for (Long id : changed) {
+            cache.asMap().computeIfPresent(id, (key, json) -> json);
+        }
+        pinned = next;
+    }
+
+    /**
+     * 容量による退避の対象となるエントリの合計サイズを返します。
+     *
+     * @return バイト数
+     */
+    long weightedSize() {
+        cache.cleanUp();
+        return cache.policy().eviction().orElseThrow().weightedSize().orElse(0);
+    }
+
+    /**
+     * ユーザーをシリアライズして返します（キャッシュへは格納しません）。
+     *
+     * @param user ユーザーDTO
+     * @return JSONバイト列
+     */
+    public byte[] serialize(UserResponse user) {
+        try {
+            return writer.writeValueAsBytes(user);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize user " + user.getId(), ex);
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.api.service.cache;
+
+import com.example.api.repository.spec.UserSortKey;
+import com.example.api.service.UserPage;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * ユーザー一覧のページと件数の結果キャッシュ。
+ * キーには絞り込み条件・ページング条件に加えて書き込み世代（{@link UserWriteEpoch}）を含めるため、
+ * 作成・更新・削除のコミット後は新しい世代のキーで読み直し、古い結果を返すことはありません。
+ * 古い世代のエントリは参照されなくなり、上限に達した時点で退避されます。
+ *
+ * <p>ページは合計JSONサイズ、件数はエントリ数で制限し、ヒット率・退避件数（{@code cache.*}）と
+ * 保持中のページのサイズ（{@code cache.weight}）をメトリクスとして公開します。</p>
+ *
+ * <p>{@link HotKeyTracker} の固定対象の名前で絞り込んだ現在の世代のページは重みを0として、容量による退避の対象から外します。
+ * 世代が進んだページは選び直しの際に重みを計算し直し、通常どおり退避されます。</p>
+ */
+@Component
+public class UserListCache {
+    /** ページのキャッシュ名（メトリクスの {@code cache} タグ）。 */
+    public static final String PAGES = "users.list.pages";
+    /** 件数のキャッシュ名（メトリクスの {@code cache} タグ）。 */
+    public static final String COUNTS = "users.list.counts";
+    /** ページ1件あたりのJSON以外の概算サイズ（バイト）。 */
+    private static final int PAGE_OVERHEAD = 64;
+
+    private final Cache<PageKey, UserPage> pages;
+    private final Cache<CountKey, Integer> counts;
+    private final UserWriteEpoch writeEpoch;
+    private final HotKeyTracker hotKeys;
+    /** 前回の選び直しで固定した名前（固定を外す対象の判定用、選び直しのスレッドのみが参照）。 */
+    private Set<String> pinned = Set.of();
+
+    /**
+     * @param meterRegistry メトリクス登録先
+     * @param writeEpoch    ユーザーの書き込み世代
+     * @param hotKeys       要求の多いキーの集計
+     * @param maxSize       保持するページの合計サイズの上限
+     * @param maxCounts     保持する件数の最大エントリ数
+     */
+    public UserListCache(MeterRegistry meterRegistry,
+                         UserWriteEpoch writeEpoch,
+                         HotKeyTracker hotKeys,
+                         @Value("${app.cache.user-list.max-size:16MB}") DataSize maxSize,
+                         @Value("${app.cache.user-list.max-counts:1000}") long maxCounts) {
+        this.writeEpoch = writeEpoch;
+        this.hotKeys = hotKeys;
+        this.pages = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((PageKey key, UserPage page) -> isPinned(key) ? 0 : weigh(page))
+                .recordStats()
+                .build();
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxCounts)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, PAGES);
+        CaffeineCacheMetrics.monitor(meterRegistry, counts, COUNTS);
+        Gauge.builder("cache.weight", pages, cache -> cache.policy().eviction().orElseThrow().weightedSize().orElse(0))
+                .tag("cache", PAGES)
+                .baseUnit("bytes")
+                .description("The sum of weights of entries in the cache")
+                .register(meterRegistry);
+        hotKeys.addPinListener(this::repin);
+    }
+
+    /**
+     * offset/limitによるページをキャッシュから返し、なければ読み込んで格納します。
+     *
+     * @param name    名前の部分一致（任意）
+     * @param sortKey 並び順キー
+     * @param limit   取得件数
+     * @param offset  取得開始位置
+     * @param epoch   読み取り前に取得した書き込み世代
+     * @param loader  ページの読み込み
+     * @return ページ
+     */
+    public UserPage page(String name, UserSortKey sortKey, int limit, int offset, long epoch, Supplier<UserPage> loader) {
+        return get(new PageKey(normalize(name), sortKey, null, limit, offset, epoch), loader);
+    }
+
+    /**
+     * カーソルによるページをキャッシュから返し、なければ読み込んで格納します。
+     *
+     * @param name    名前の部分一致（任意）
+     * @param sortKey 並び順キー
+     * @param cursor  前ページのカーソル（nullの場合は先頭から）
+     * @param limit   取得件数
+     * @param epoch   読み取り前に取得した書き込み世代
+     * @param loader  ページの読み込み
+     * @return ページ
+     */
+    public UserPage pageAfter(String name, UserSortKey sortKey, String cursor, int limit, long epoch, Supplier<UserPage> loader) {
+        return get(new PageKey(normalize(name), sortKey, cursor == null ? "" : cursor, limit, 0, epoch), loader);
+    }
+
+    /**
+     * 件数をキャッシュから返し、なければ数えて格納します。
+     *
+     * @param name   名前の部分一致（任意）
+     * @param epoch  読み取り前に取得した書き込み世代
+     * @param loader 件数の取得
+     * @return 件数
+     */
+    public int count(String name, long epoch, IntSupplier loader) {
+        CountKey key = new CountKey(normalize(name), epoch);
+        Integer cached = counts.getIfPresent(key);
+        if (cached != null) return cached;
+        int count = loader.getAsInt();
+        counts.put(key, count);
+        return count;
+    }
+
+    /**
+     * 全エントリを破棄します。
+     */
+    public void invalidateAll() {
+        pages.invalidateAll();
+        counts.invalidateAll();
+    }
+
+    /**
+     * 固定対象に加わった・外れた名前、および固定中の名前のページの重みを計算し直します。
+     * 世代が進んだページはこれにより固定が外れます。
+     */
+    void repin() {
+        Set<String> next = hotKeys.pinnedNames();
+        Set<String> changed = new HashSet<>(pinned);
+        changed.addAll(next);
+        if (changed.isEmpty()) return;
+        for (PageKey key : pages.asMap().keySet()) {
+            if (key.name != null && changed.contains(key.name)) {
+                pages.asMap().computeIfPresent(key, (k, page) -> page);
+            }
+        }
+        pinned = next;
+    }
+
+    private boolean isPinned(PageKey key) {
+        return key.epoch == writeEpoch.current() && hotKeys.isPinnedName(key.name);
+    }
+
+    private UserPage get(PageKey key, Supplier<UserPage> loader) {
+        UserPage cached = pages.getIfPresent(key);
+        if (cached != null) return cached;
+        UserPage page = loader.get();
+        pages.put(key, page);
+        return page;
+    }
+
+    /**
+     * 空文字・空白のみの条件は絞り込みなしと同じ結果になるため、同じキーにまとめます。
+     */
+    private static String normalize(String name) {
+        return name == null || name.isBlank() ? null : name;
+    }
+
+    private static int weigh(UserPage page) {
+        int weight = PAGE_OVERHEAD;
+        for (byte[] user : page.getUsers()) {
+            weight += user.length;
+        }
+        return weight;
+    }
+
+    /**
+     * ページのキー。offsetによるページはcursorがnull、カーソルによるページはcursorが非null（先頭は空文字）です。
+     */
+    @lombok.Value
+    private static class PageKey {
+        String name;
+        UserSortKey sortKey;
+        String cursor;
+        int limit;
+        int offset;
+        long epoch;
+    }
+
+    /**
+     * 件数のキー。
+     */
+    @lombok.Value
+    private static class CountKey {
+        String name;
+        long epoch;
+    }
+}
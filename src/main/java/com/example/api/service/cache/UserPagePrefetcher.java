@@ -0,0 +1,217 @@
+package com.example.api.service.cache;
+
+import com.example.api.repository.spec.UserSortKey;
+import com.example.api.service.UserPage;
+import com.example.api.service.UserService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ユーザー一覧の次のページを先読みし、結果キャッシュ（{@link UserListCache}）へ載せておく仕組み
+ * （{@code app.cache.prefetch.enabled=true} の場合のみ動作）。
+ * {@code hasNext} のページを返した後、同じ条件で {@code offset + limit}（カーソル指定時は {@code nextCursor}）のページを
+ * 上限付きのバックグラウンドスレッドで読み込みます。
+ *
+ * <p>次の場合は先読みしません。</p>
+ * <ul>
+ *   <li>同じクライアント（接続元アドレス）の先読みが上限件数まで実行中・待機中</li>
+ *   <li>読み取り用プールに空き接続がない、または接続待ちのスレッドがある</li>
+ *   <li>先読みの待機キューが満杯</li>
+ * </ul>
+ *
+ * <p>先読みしたページが実際に要求された割合を {@code users.list.prefetch.hit.ratio} として公開します。</p>
+ */
+@Component
+public class UserPagePrefetcher {
+    private static final Logger log = LoggerFactory.getLogger(UserPagePrefetcher.class);
+    private static final String REQUESTS = "users.list.prefetch.requests";
+
+    private final UserService userService;
+    private final UserWriteEpoch writeEpoch;
+    private final HikariDataSource readerDataSource;
+    private final boolean enabled;
+    private final int maxPerClient;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<String, AtomicInteger> inFlightByClient = new ConcurrentHashMap<>();
+    /** 先読み済みで、まだ要求されていないページのキー。 */
+    private final Cache<List<Object>, Boolean> prefetched;
+    private final Counter issued;
+    private final Counter completed;
+    private final Counter hits;
+    private final Counter skippedClientCap;
+    private final Counter skippedSaturated;
+    private final Counter skippedQueueFull;
+
+    /**
+     * @param userService      ユーザーサービス
+     * @param writeEpoch       ユーザーの書き込み世代
+     * @param readerDataSource 読み取り用プール
+     * @param meterRegistry    メトリクス登録先
+     * @param enabled          先読みを行うか
+     * @param threads          先読みスレッド数
+     * @param queueCapacity    先読みの待機キューの上限
+     * @param maxPerClient     クライアントごとに同時に実行・待機できる先読みの件数
+     * @param ttl              先読みしたページを要求待ちとして数える期間
+     */
+    public UserPagePrefetcher(UserService userService,
+                              UserWriteEpoch writeEpoch,
+                              @Qualifier("readerDataSource") HikariDataSource readerDataSource,
+                              MeterRegistry meterRegistry,
+                              @Value("${app.cache.prefetch.enabled:false}") boolean enabled,
+                              @Value("${app.cache.prefetch.threads:2}") int threads,
+                              @Value("${app.cache.prefetch.queue-capacity:32}") int queueCapacity,
+                              @Value("${app.cache.prefetch.max-per-client:2}") int maxPerClient,
+                              @Value("${app.cache.prefetch.ttl:1m}") Duration ttl) {
+        this.userService = userService;
+        this.writeEpoch = writeEpoch;
+        this.readerDataSource = readerDataSource;
+        this.enabled = enabled;
+        this.maxPerClient = maxPerClient;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "user-page-prefetch");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.prefetched = Caffeine.newBuilder().maximumSize(10_000).expireAfterWrite(ttl).build();
+        this.issued = Counter.builder(REQUESTS).tag("result", "issued").register(meterRegistry);
+        this.skippedClientCap = Counter.builder(REQUESTS).tag("result", "client_cap").register(meterRegistry);
+        this.skippedSaturated = Counter.builder(REQUESTS).tag("result", "pool_saturated").register(meterRegistry);
+        this.skippedQueueFull = Counter.builder(REQUESTS).tag("result", "queue_full").register(meterRegistry);
+        this.completed = Counter.builder("users.list.prefetch.completed")
+                .description("Pages loaded by the prefetcher")
+                .register(meterRegistry);
+        this.hits = Counter.builder("users.list.prefetch.hits")
+                .description("Prefetched pages that were later requested")
+                .register(meterRegistry);
+        Gauge.builder("users.list.prefetch.hit.ratio", this, prefetcher -> prefetcher.hitRatio())
+                .description("Ratio of prefetched pages that were later requested")
+                .register(meterRegistry);
+    }
+
+    /**
+     * offset/limitによるページを返した後に呼び出し、要求が先読み済みだったかを記録して、次のページを先読みします。
+     *
+     * @param client  クライアントの識別子（接続元アドレス）
+     * @param name    名前の部分一致（任意）
+     * @param sortKey 並び順キー
+     * @param limit   取得件数
+     * @param offset  取得開始位置
+     * @param page    返したページ
+     */
+    public void onPageServed(String client, String name, UserSortKey sortKey, int limit, int offset, UserPage page) {
+        if (!enabled) return;
+        recordRequest(Arrays.asList(name, sortKey, limit, offset, null, writeEpoch.current()));
+        if (!page.isHasNext()) return;
+        int next = offset + limit;
+        schedule(client, Arrays.asList(name, sortKey, limit, next, null), () -> userService.listPage(name, sortKey, limit, next));
+    }
+
+    /**
+     * カーソルによるページを返した後に呼び出し、要求が先読み済みだったかを記録して、次のページを先読みします。
+     *
+     * @param client  クライアントの識別子（接続元アドレス）
+     * @param name    名前の部分一致（任意）
+     * @param sortKey 並び順キー
+     * @param cursor  要求されたカーソル
+     * @param limit   取得件数
+     * @param page    返したページ
+     */
+    public void onPageServedAfter(String client, String name, UserSortKey sortKey, String cursor, int limit, UserPage page) {
+        if (!enabled) return;
+        recordRequest(Arrays.asList(name, sortKey, limit, 0, cursor, writeEpoch.current()));
+        if (!page.isHasNext()) return;
+        String next = page.getNextCursor();
+        schedule(client, Arrays.asList(name, sortKey, limit, 0, next), () -> userService.listAfter(name, sortKey, next, limit));
+    }
+
+    /** 先読みスレッドを停止します。 */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private void recordRequest(List<Object> key) {
+        if (prefetched.asMap().remove(key) != null) {
+            hits.increment();
+        }
+    }
+
+    private void schedule(String client, List<Object> request, Runnable load) {
+        AtomicInteger inFlight = inFlightByClient.computeIfAbsent(client, key -> new AtomicInteger());
+        if (inFlight.incrementAndGet() > maxPerClient) {
+            release(client, inFlight);
+            skippedClientCap.increment();
+            return;
+        }
+        if (isReadPoolSaturated()) {
+            release(client, inFlight);
+            skippedSaturated.increment();
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    long epoch = writeEpoch.current();
+                    load.run();
+                    List<Object> key = new ArrayList<>(request);
+                    key.add(epoch);
+                    prefetched.put(key, Boolean.TRUE);
+                    completed.increment();
+                } catch (RuntimeException ex) {
+                    log.debug("Prefetch failed: request={} cause={}", request, ex.getMessage());
+                } finally {
+                    release(client, inFlight);
+                }
+            });
+            issued.increment();
+        } catch (RejectedExecutionException ex) {
+            release(client, inFlight);
+            skippedQueueFull.increment();
+        }
+    }
+
+    private void release(String client, AtomicInteger inFlight) {
+        if (inFlight.decrementAndGet() == 0) {
+            inFlightByClient.remove(client, inFlight);
+        }
+    }
+
+    /**
+     * 読み取り用プールに空き接続がなく上限まで接続している、または接続待ちのスレッドがある場合true。
+     */
+    private boolean isReadPoolSaturated() {
+        HikariPoolMXBean pool = readerDataSource.getHikariPoolMXBean();
+        if (pool == null) return true;
+        return pool.getThreadsAwaitingConnection() > 0
+                || (pool.getIdleConnections() == 0 && pool.getTotalConnections() >= readerDataSource.getMaximumPoolSize());
+    }
+
+    private double hitRatio() {
+        double loaded = completed.count();
+        return loaded == 0 ? 0 : hits.count() / loaded;
+    }
+}
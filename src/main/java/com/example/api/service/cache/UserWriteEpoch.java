@@ -0,0 +1,58 @@
+package com.example.api.service.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ユーザーの書き込み世代。作成・更新・削除がコミットされるたびに進みます。
+ * 一覧・件数の結果キャッシュはキーに世代を含めるため、書き込み後は古いエントリを参照しません（個別の破棄は不要）。
+ * 詳細のJSONキャッシュは、読み取り中に世代が進んだ場合に格納を取りやめる判定に用います。
+ */
+@Component
+public class UserWriteEpoch {
+    private final AtomicLong epoch = new AtomicLong();
+
+    /**
+     * 現在の世代を返します。キャッシュに格納する結果は、DBから読み取る前に取得した世代に対応付けます。
+     *
+     * @return 書き込み世代
+     */
+    public long current() {
+        return epoch.get();
+    }
+
+    /**
+     * 世代を進めます。
+     */
+    public void advance() {
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * 現在のトランザクションのコミット後に世代を進めます。
+     * トランザクション外で呼ばれた場合は直ちに進めます。
+     */
+    public void advanceAfterCommit() {
+        afterCommit(this::advance);
+    }
+
+    /**
+     * 現在のトランザクションのコミット後に処理を実行します（トランザクション外では直ちに実行）。
+     * ロールバックされた場合は実行しません。
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.api.service.export;
+
+import org.springframework.http.MediaType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * エクスポートファイルの形式。
+ */
+public enum ExportFormat {
+    /** 1行に1ユーザー（GET /api/v1/users/{user_id} と同じ形式）のJSON。 */
+    NDJSON("ndjson", MediaType.APPLICATION_NDJSON),
+    /** 1行に1職歴（職歴のないユーザーは職歴の列を空にした1行）のCSV（RFC 4180、UTF-8）。 */
+    CSV("csv", new MediaType("text", "csv", StandardCharsets.UTF_8));
+
+    private final String parameter;
+    private final MediaType mediaType;
+
+    ExportFormat(String parameter, MediaType mediaType) {
+        this.parameter = parameter;
+        this.mediaType = mediaType;
+    }
+
+    /**
+     * リクエストで指定する形式名（ファイルの拡張子にも使用）。
+     *
+     * @return 形式名
+     */
+    public String parameter() {
+        return parameter;
+    }
+
+    /**
+     * ダウンロード時のContent-Type。
+     *
+     * @return メディアタイプ
+     */
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * 形式名から形式を返します。
+     *
+     * @param parameter 形式名（ndjson / csv）
+     * @return 形式
+     * @throws IllegalArgumentException 該当する形式がない場合
+     */
+    public static ExportFormat fromParameter(String parameter) {
+        return Arrays.stream(values())
+                .filter(format -> format.parameter.equals(parameter))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown export format: " + parameter));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.api.service.export;
+
+import java.nio.file.Path;
+import java.time.Instant;
+
+/**
+ * エクスポートジョブの状態。状態の更新はエクスポートを実行するスレッドのみが行います。
+ */
+public final class ExportJob {
+    /**
+     * ジョブの進行状況。
+     */
+    public enum Status {
+        /** 実行待ち。 */
+        PENDING,
+        /** スナップショットの取得またはファイルの書き出し中。 */
+        RUNNING,
+        /** ファイルの書き出しが完了し、ダウンロードできる。 */
+        COMPLETED,
+        /** 失敗した。 */
+        FAILED
+    }
+
+    private final String id;
+    private final ExportFormat format;
+    private final Instant createdAt;
+    private volatile Status status = Status.PENDING;
+    private volatile Instant completedAt;
+    private volatile Path file;
+    private volatile long users;
+    private volatile long size;
+
+    ExportJob(String id, ExportFormat format, Instant createdAt) {
+        this.id = id;
+        this.format = format;
+        this.createdAt = createdAt;
+    }
+
+    void start() {
+        status = Status.RUNNING;
+    }
+
+    void complete(Path file, long users, long size, Instant completedAt) {
+        this.file = file;
+        this.users = users;
+        this.size = size;
+        this.completedAt = completedAt;
+        this.status = Status.COMPLETED;
+    }
+
+    void fail(Instant completedAt) {
+        this.completedAt = completedAt;
+        this.status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public ExportFormat getFormat() {
+        return format;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /** @return 完了（または失敗）日時（未完了の場合はnull） */
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    /** @return 書き出したファイル（完了前はnull） */
+    public Path getFile() {
+        return file;
+    }
+
+    /** @return 書き出したユーザー数 */
+    public long getUsers() {
+        return users;
+    }
+
+    /** @return ファイルのバイト数 */
+    public long getSize() {
+        return size;
+    }
+}
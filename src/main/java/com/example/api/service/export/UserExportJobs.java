@@ -0,0 +1,349 @@
+package com.example.api.service.export;
+
+import com.example.api.dto.CareerHistoryDto;
+import com.example.api.dto.UserResponse;
+import com.example.api.entity.CareerHistoryEntity;
+import com.example.api.entity.UserEntity;
+import com.example.api.exception.ErrorCatalog;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.service.mapper.UserMapStructMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import org.sqlite.SQLiteConfig;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * 全ユーザーのエクスポートを非同期に実行し、ダウンロード用のファイルとして保持するサービス。
+ *
+ * <p>ジョブはまず読み取り用プールの接続で {@code VACUUM INTO} を実行してDBのスナップショットを作成し、
+ * 直ちに接続をプールへ返します（1つの読み取りトランザクションでコピーするため、書き込みを妨げず、内容は一時点で一貫します）。
+ * 続いてスナップショットをユーザーID順・職歴のユーザーID順に並行して読み進め、プールの外でファイルへ書き出します。
+ * 書き出し中のファイルは {@code .part} とし、完了後にリネームするため、ダウンロードされるのは完成したファイルのみです。</p>
+ *
+ * <p>完了・失敗したジョブとファイルは {@code app.exports.retention} の経過後に削除します。
+ * ジョブはプロセス内にのみ保持するため、起動時に前回のファイルを削除します。削除するのはこのサービスが作成する名前
+ * （ジョブIDのUUIDで始まるスナップショット・エクスポートファイル・書き出し中のファイル）のみで、ディレクトリ内の他のファイルには触れません。</p>
+ */
+@Service
+public class UserExportJobs {
+    private static final Logger log = LoggerFactory.getLogger(UserExportJobs.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER =
+            "id,name,age,birthday,height,zipCode,careerHistoryId,careerTitle,careerFrom,careerTo\r\n";
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    private static final String USERS_SQL =
+            "SELECT id, name, age, birthday, height, zip_code, created_at, updated_at FROM users ORDER BY id";
+    private static final String CAREERS_SQL =
+            "SELECT id, user_id, title, period_from, period_to FROM career_histories ORDER BY user_id, id";
+    /** このサービスが作成するファイルの名前（ジョブID + スナップショット、またはジョブID + 形式 + 書き出し中）。 */
+    private static final Pattern JOB_FILE = Pattern.compile(
+            "[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.(snapshot\\.db(-journal)?|("
+                    + Arrays.stream(ExportFormat.values()).map(ExportFormat::parameter).collect(Collectors.joining("|"))
+                    + ")(\\.part)?)");
+
+    private final HikariDataSource readerDataSource;
+    private final UserMapStructMapper userMapper;
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ExportJob> jobs = new ConcurrentHashMap<>();
+    private final Clock clock = Clock.systemUTC();
+    private ScheduledExecutorService cleaner;
+
+    /**
+     * @param readerDataSource スナップショットの作成に使う読み取り用プール
+     * @param userMapper       エンティティとレスポンスのマッパー
+     * @param objectMapper     NDJSONの書き出しに使うObjectMapper
+     * @param directory        スナップショットとファイルを置くディレクトリ
+     * @param threads          エクスポートを実行するスレッド数
+     * @param queueCapacity    実行待ちにできるジョブの上限
+     * @param retention        完了したファイルを保持する期間
+     */
+    public UserExportJobs(@Qualifier("readerDataSource") HikariDataSource readerDataSource,
+                          UserMapStructMapper userMapper,
+                          ObjectMapper objectMapper,
+                          @Value("${app.exports.directory:./data/exports}") String directory,
+                          @Value("${app.exports.threads:1}") int threads,
+                          @Value("${app.exports.queue-capacity:8}") int queueCapacity,
+                          @Value("${app.exports.retention:1h}") Duration retention) {
+        this.readerDataSource = readerDataSource;
+        this.userMapper = userMapper;
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory).toAbsolutePath().normalize();
+        this.retention = retention;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "user-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * ディレクトリを用意して前回のジョブのファイルを削除し、期限切れのジョブを削除するスレッドを開始します。
+     *
+     * @throws IOException ディレクトリを用意できない場合
+     */
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (Files.isRegularFile(file) && JOB_FILE.matcher(file.getFileName().toString()).matches()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+        cleaner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "user-export-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1000, Math.min(retention.toMillis(), Duration.ofMinutes(1).toMillis()));
+        cleaner.scheduleWithFixedDelay(this::purgeExpired, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 実行中のエクスポートと削除スレッドを停止します。
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+        if (cleaner != null) cleaner.shutdownNow();
+    }
+
+    /**
+     * エクスポートを受け付けます。
+     *
+     * @param format ファイルの形式
+     * @return 受け付けたジョブ
+     * @throws ResponseStatusException 実行待ちのジョブが上限に達している場合（503）
+     */
+    public ExportJob submit(ExportFormat format) {
+        ExportJob job = new ExportJob(UUID.randomUUID().toString(), format, clock.instant());
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException ex) {
+            jobs.remove(job.getId());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, ErrorCatalog.Messages.EXPORT_BUSY);
+        }
+        return job;
+    }
+
+    /**
+     * ジョブを取得します。
+     *
+     * @param id ジョブID
+     * @return ジョブ
+     * @throws ResourceNotFoundException ジョブが存在しない（または削除済みの）場合
+     */
+    public ExportJob get(String id) {
+        ExportJob job = id != null ? jobs.get(id) : null;
+        if (job == null) throw new ResourceNotFoundException(ErrorCatalog.Messages.EXPORT_NOT_FOUND);
+        return job;
+    }
+
+    /**
+     * スナップショットを作成してファイルを書き出します。
+     */
+    private void run(ExportJob job) {
+        job.start();
+        long started = System.nanoTime();
+        Path snapshot = directory.resolve(job.getId() + ".snapshot.db");
+        Path file = directory.resolve(job.getId() + "." + job.getFormat().parameter());
+        Path part = directory.resolve(file.getFileName() + ".part");
+        try {
+            snapshot(snapshot);
+            long snapshotMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            long users = write(snapshot, part, job.getFormat());
+            Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+            job.complete(file, users, Files.size(file), clock.instant());
+            log.info("User export completed: id={} format={} users={} bytes={} snapshotMs={} elapsedMs={}",
+                    job.getId(), job.getFormat().parameter(), users, job.getSize(), snapshotMs,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+        } catch (Exception ex) {
+            log.error("User export failed: id={} cause={}", job.getId(), ex.getMessage(), ex);
+            job.fail(clock.instant());
+            deleteQuietly(part);
+        } finally {
+            deleteQuietly(snapshot);
+        }
+    }
+
+    /**
+     * DBの現時点の内容をファイルへコピーします。
+     */
+    private void snapshot(Path snapshot) throws SQLException {
+        try (Connection connection = readerDataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("VACUUM INTO ?")) {
+            statement.setString(1, snapshot.toString());
+            statement.execute();
+        }
+    }
+
+    /**
+     * スナップショットのユーザーを、職歴と突き合わせながらID順に書き出します。
+     *
+     * @return 書き出したユーザー数
+     */
+    private long write(Path snapshot, Path part, ExportFormat format) throws SQLException, IOException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        long count = 0;
+        try (Connection connection = config.createConnection("jdbc:sqlite:" + snapshot);
+             Statement userStatement = connection.createStatement();
+             Statement careerStatement = connection.createStatement();
+             ResultSet users = userStatement.executeQuery(USERS_SQL);
+             ResultSet careers = careerStatement.executeQuery(CAREERS_SQL);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(part), BUFFER_SIZE)) {
+            if (format == ExportFormat.CSV) out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+            boolean hasCareer = careers.next();
+            while (users.next()) {
+                UserEntity user = toUser(users);
+                List<CareerHistoryEntity> careerHistories = new ArrayList<>();
+                // 職歴は必ずユーザーに属するため、現在のユーザーIDより小さい職歴は存在しない
+                while (hasCareer && careers.getLong("user_id") == user.getId()) {
+                    careerHistories.add(toCareer(careers, user));
+                    hasCareer = careers.next();
+                }
+                user.setCareerHistories(careerHistories);
+                UserResponse response = userMapper.toResponse(user);
+                if (format == ExportFormat.CSV) {
+                    writeCsv(out, response);
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(response));
+                    out.write('\n');
+                }
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static UserEntity toUser(ResultSet rs) throws SQLException {
+        UserEntity user = new UserEntity();
+        user.setId(rs.getLong("id"));
+        user.setName(rs.getString("name"));
+        user.setAge(rs.getInt("age"));
+        user.setBirthday(rs.getString("birthday"));
+        double height = rs.getDouble("height");
+        user.setHeight(rs.wasNull() ? null : height);
+        user.setZipCode(rs.getString("zip_code"));
+        user.setCreatedAt(rs.getString("created_at"));
+        user.setUpdatedAt(rs.getString("updated_at"));
+        return user;
+    }
+
+    private static CareerHistoryEntity toCareer(ResultSet rs, UserEntity user) throws SQLException {
+        CareerHistoryEntity career = new CareerHistoryEntity();
+        career.setId(rs.getLong("id"));
+        career.setUser(user);
+        career.setTitle(rs.getString("title"));
+        career.setPeriodFrom(rs.getString("period_from"));
+        career.setPeriodTo(rs.getString("period_to"));
+        return career;
+    }
+
+    /**
+     * 職歴ごとに1行（職歴がなければ職歴の列を空にした1行）を書き出します。
+     */
+    private static void writeCsv(OutputStream out, UserResponse user) throws IOException {
+        StringBuilder prefix = new StringBuilder(128);
+        prefix.append(user.getId()).append(',');
+        appendCsv(prefix, user.getName()).append(',');
+        prefix.append(user.getAge()).append(',');
+        prefix.append(user.getBirthday() != null ? DATE_FORMAT.format(user.getBirthday()) : "").append(',');
+        prefix.append(user.getHeight() != null ? user.getHeight().toPlainString() : "").append(',');
+        appendCsv(prefix, user.getZipCode());
+        List<CareerHistoryDto> careers = user.getCareerHistories();
+        if (careers == null || careers.isEmpty()) {
+            out.write(prefix.append(",,,,\r\n").toString().getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        for (CareerHistoryDto career : careers) {
+            StringBuilder row = new StringBuilder(prefix).append(',');
+            row.append(career.getId()).append(',');
+            appendCsv(row, career.getTitle()).append(',');
+            row.append(career.getPeriod() != null && career.getPeriod().getFrom() != null
+                    ? DATE_FORMAT.format(career.getPeriod().getFrom()) : "").append(',');
+            row.append(career.getPeriod() != null && career.getPeriod().getTo() != null
+                    ? DATE_FORMAT.format(career.getPeriod().getTo()) : "").append("\r\n");
+            out.write(row.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 区切り文字・引用符・改行を含む値を二重引用符で囲みます（RFC 4180）。
+     */
+    static StringBuilder appendCsv(StringBuilder sb, String value) {
+        if (value == null) return sb;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\r') < 0 && value.indexOf('\n') < 0) {
+            return sb.append(value);
+        }
+        return sb.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+
+    /**
+     * 保持期間を過ぎたジョブとファイルを削除します。
+     */
+    void purgeExpired() {
+        Instant threshold = clock.instant().minus(retention);
+        jobs.values().removeIf(job -> {
+            Instant completedAt = job.getCompletedAt();
+            if (completedAt == null || completedAt.isAfter(threshold)) return false;
+            if (job.getFile() != null) deleteQuietly(job.getFile());
+            return true;
+        });
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            log.warn("Failed to delete export file {}: {}", path, ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * DBのスナップショットからユーザーのエクスポートファイルをバックグラウンドで作成する仕組みを提供します。
+ */
+package com.example.api.service.export;
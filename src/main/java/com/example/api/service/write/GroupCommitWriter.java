@@ -0,0 +1,255 @@
+package com.example.api.service.write;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 更新系処理を単一の書き込みスレッドへ集約し、まとめてコミットする（グループコミット）コンポーネント。
+ * リクエストスレッドから投入された処理を最大バッチサイズ・最大待機時間の範囲で束ね、
+ * 1バッチ1トランザクションで実行します。各処理はセーブポイントで区切るため、
+ * 一部の処理が失敗しても他の処理の結果には影響せず、呼び出し元には個別の結果または例外を返します。
+ */
+@Component
+public class GroupCommitWriter {
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitWriter.class);
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int batchSize;
+    private final Duration maxWait;
+    private final BlockingQueue<PendingWrite<?>> queue;
+    private volatile boolean running;
+    private volatile Thread writerThread;
+
+    /**
+     * @param transactionManager トランザクションマネージャ
+     * @param entityManager      共有EntityManager
+     * @param batchSize          1トランザクションにまとめる最大件数
+     * @param maxWait            バッチを満たすために待機する最大時間
+     * @param queueCapacity      投入待ちキューの上限（超過時は呼び出し元を待機させます）
+     */
+    public GroupCommitWriter(PlatformTransactionManager transactionManager,
+                             EntityManager entityManager,
+                             @Value("${app.write.batch-size:64}") int batchSize,
+                             @Value("${app.write.max-wait:2ms}") Duration maxWait,
+                             @Value("${app.write.queue-capacity:1024}") int queueCapacity) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxWait = maxWait;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+    }
+
+    /** 書き込みスレッドを起動します。 */
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runLoop, "user-writer");
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    /** 投入済みの処理をすべて反映してから書き込みスレッドを停止します。 */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writerThread;
+        if (thread != null) {
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * 更新処理を書き込みスレッドで実行し、コミット完了まで待機して結果を返します。
+     * 処理内で送出された実行時例外は呼び出し元へそのまま再送出します。
+     *
+     * @param mutation 書き込みトランザクション内で実行する処理
+     * @param <T>      結果の型
+     * @return 処理結果
+     */
+    public <T> T submit(Supplier<T> mutation) {
+        if (Thread.currentThread() == writerThread) {
+            return mutation.get();
+        }
+        if (!running) {
+            throw new IllegalStateException("Writer is not running");
+        }
+        PendingWrite<T> write = new PendingWrite<>(mutation, MDC.getCopyOfContextMap());
+        try {
+            queue.put(write);
+            return write.future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for write", ex);
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    private void runLoop() {
+        List<PendingWrite<?>> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                fill(batch);
+                commit(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                running = false;
+                batch.forEach(write -> write.fail(new IllegalStateException("Writer was interrupted", ex)));
+                break;
+            } catch (RuntimeException | Error ex) {
+                log.error("Writer loop failed: {}", ex.getMessage(), ex);
+                batch.forEach(write -> write.fail(ex));
+            } finally {
+                batch.forEach(PendingWrite::complete);
+                batch.clear();
+            }
+        }
+        PendingWrite<?> rest;
+        while ((rest = queue.poll()) != null) {
+            rest.fail(new IllegalStateException("Writer is not running"));
+            rest.complete();
+        }
+    }
+
+    /**
+     * 既に溜まっている処理を取り込み、不足分は最大待機時間まで追加を待ちます。
+     */
+    private void fill(List<PendingWrite<?>> batch) throws InterruptedException {
+        queue.drainTo(batch, batchSize - batch.size());
+        long deadline = System.nanoTime() + maxWait.toNanos();
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+            PendingWrite<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) break;
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    /**
+     * バッチを1トランザクションで実行します。
+     * 制約違反などで失敗した処理がトランザクションをロールバック専用にした場合は、
+     * その処理を除いた残りをまとめて再実行します。失敗した処理がないままトランザクション全体が
+     * ロールバックされた場合は、処理を1件ずつ再実行します。
+     */
+    private void commit(List<PendingWrite<?>> batch) {
+        log.debug("Committing write batch: size={}", batch.size());
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (PendingWrite<?> write : batch) {
+                    applyWithSavepoint(write);
+                    if (status.isRollbackOnly()) break;
+                }
+            });
+        } catch (RuntimeException | Error ex) {
+            List<PendingWrite<?>> remaining = new ArrayList<>(batch.size());
+            for (PendingWrite<?> write : batch) {
+                if (write.error == null) remaining.add(write);
+            }
+            if (remaining.isEmpty()) return;
+            if (remaining.size() < batch.size()) {
+                log.debug("Write batch rolled back by a failed write, retrying the rest: size={}", remaining.size());
+                commit(remaining);
+                return;
+            }
+            log.warn("Write batch rolled back, retrying individually: size={} cause={}", batch.size(), ex.getMessage());
+            for (PendingWrite<?> write : remaining) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> write.run());
+                } catch (RuntimeException | Error retryEx) {
+                    write.fail(retryEx);
+                }
+            }
+        }
+    }
+
+    /**
+     * セーブポイントを設定して1件分の処理を実行し、SQLまで反映します。
+     * 失敗時はセーブポイントまで戻し、永続化コンテキストを破棄して後続の処理へ影響させません。
+     */
+    private void applyWithSavepoint(PendingWrite<?> write) {
+        Session session = entityManager.unwrap(Session.class);
+        Savepoint savepoint = session.doReturningWork(Connection::setSavepoint);
+        try {
+            write.run();
+            entityManager.flush();
+            session.doWork(connection -> connection.releaseSavepoint(savepoint));
+        } catch (RuntimeException | Error ex) {
+            session.doWork(connection -> connection.rollback(savepoint));
+            entityManager.clear();
+            write.fail(ex);
+        }
+    }
+
+    /**
+     * キューに投入された1件分の処理と、その結果を保持します。
+     */
+    private static final class PendingWrite<T> {
+        private final Supplier<T> mutation;
+        private final Map<String, String> mdc;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private T result;
+        private Throwable error;
+
+        private PendingWrite(Supplier<T> mutation, Map<String, String> mdc) {
+            this.mutation = mutation;
+            this.mdc = mdc;
+        }
+
+        /** 呼び出し元のMDC（traceId等）を引き継いで処理を実行します。 */
+        private void run() {
+            if (mdc != null) MDC.setContextMap(mdc);
+            try {
+                result = mutation.get();
+            } finally {
+                MDC.clear();
+            }
+        }
+
+        private void fail(Throwable ex) {
+            result = null;
+            error = ex;
+        }
+
+        /** コミット確定後に呼び出し元へ結果を通知します。 */
+        private void complete() {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        }
+    }
+}
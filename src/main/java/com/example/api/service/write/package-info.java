@@ -0,0 +1,4 @@
+/**
+ * 更新処理を単一の書き込みスレッドでまとめてコミットする仕組みを提供します。
+ */
+package com.example.api.service.write;
@@ -1,9 +1,13 @@
+-- Statements are separated by "^;" (spring.sql.init.separator) so that trigger bodies can contain ";"
+
 -- Enable foreign keys
-PRAGMA foreign_keys = ON;
+PRAGMA foreign_keys = ON^;
 
 -- Re-create tables on each startup (dev only)
-DROP TABLE IF EXISTS career_histories;
-DROP TABLE IF EXISTS users;
+DROP TABLE IF EXISTS users_name_fts^;
+DROP TABLE IF EXISTS user_changes^;
+DROP TABLE IF EXISTS career_histories^;
+DROP TABLE IF EXISTS users^;
 
 -- Users table
 CREATE TABLE IF NOT EXISTS users (
@@ -15,7 +19,7 @@ CREATE TABLE IF NOT EXISTS users (
     zip_code TEXT CHECK (zip_code IS NULL OR (length(zip_code) = 8 AND zip_code GLOB '???-????')),
     created_at TEXT NOT NULL,
     updated_at TEXT NOT NULL
-);
+)^;
 
 -- Career histories table
 CREATE TABLE IF NOT EXISTS career_histories (
@@ -26,7 +30,51 @@ CREATE TABLE IF NOT EXISTS career_histories (
     period_to   TEXT NOT NULL CHECK (period_to   >= '1900/01/01' AND period_to   <= '2099/12/31'),
     CHECK (period_from <= period_to),
     FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE
-);
+)^;
+
+CREATE INDEX IF NOT EXISTS idx_users_name ON users(name)^;
+CREATE INDEX IF NOT EXISTS idx_career_histories_user_id ON career_histories(user_id)^;
+
+-- Trigram full-text index over users.name for substring (LIKE '%...%') search.
+-- External content table: only the index is stored, name values are read from users.
+CREATE VIRTUAL TABLE IF NOT EXISTS users_name_fts USING fts5(
+    name,
+    content = 'users',
+    content_rowid = 'id',
+    tokenize = 'trigram'
+)^;
+
+CREATE TRIGGER IF NOT EXISTS users_name_fts_ai AFTER INSERT ON users BEGIN
+    INSERT INTO users_name_fts (rowid, name) VALUES (new.id, new.name);
+END^;
+
+CREATE TRIGGER IF NOT EXISTS users_name_fts_ad AFTER DELETE ON users BEGIN
+    INSERT INTO users_name_fts (users_name_fts, rowid, name) VALUES ('delete', old.id, old.name);
+END^;
+
+CREATE TRIGGER IF NOT EXISTS users_name_fts_au AFTER UPDATE OF name ON users WHEN old.name <> new.name BEGIN
+    INSERT INTO users_name_fts (users_name_fts, rowid, name) VALUES ('delete', old.id, old.name);
+    INSERT INTO users_name_fts (rowid, name) VALUES (new.id, new.name);
+END^;
+
+-- Change feed (outbox) of users, written by triggers in the same transaction as the change.
+-- Every application write to a user (including career history changes) updates users.updated_at,
+-- so triggers on users capture all of them. Deleted users are recorded as DELETE (tombstone).
+CREATE TABLE IF NOT EXISTS user_changes (
+    seq INTEGER PRIMARY KEY AUTOINCREMENT,
+    user_id INTEGER NOT NULL,
+    op TEXT NOT NULL CHECK (op IN ('UPSERT', 'DELETE')),
+    changed_at TEXT NOT NULL
+)^;
+
+CREATE TRIGGER IF NOT EXISTS user_changes_ai AFTER INSERT ON users BEGIN
+    INSERT INTO user_changes (user_id, op, changed_at) VALUES (new.id, 'UPSERT', strftime('%Y-%m-%dT%H:%M:%fZ', 'now'));
+END^;
+
+CREATE TRIGGER IF NOT EXISTS user_changes_au AFTER UPDATE ON users BEGIN
+    INSERT INTO user_changes (user_id, op, changed_at) VALUES (new.id, 'UPSERT', strftime('%Y-%m-%dT%H:%M:%fZ', 'now'));
+END^;
 
-CREATE INDEX IF NOT EXISTS idx_users_name ON users(name);
-CREATE INDEX IF NOT EXISTS idx_career_histories_user_id ON career_histories(user_id);
+CREATE TRIGGER IF NOT EXISTS user_changes_ad AFTER DELETE ON users BEGIN
+    INSERT INTO user_changes (user_id, op, changed_at) VALUES (old.id, 'DELETE', strftime('%Y-%m-%dT%H:%M:%fZ', 'now'));
+END^;
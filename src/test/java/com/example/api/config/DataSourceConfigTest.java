@@ -0,0 +1,53 @@
+package com.example.api.config;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("SQLiteへ接続する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:./target/data-source-config-test.db")
+@DisplayName("DataSourceConfigの接続設定")
+class DataSourceConfigTest {
+
+    @Autowired
+    private ApplicationContext context;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"writerDataSource", "readerDataSource"})
+    @Story("プールから接続を取得する")
+    @DisplayName("どの接続でも外部キー制約とWALが有効になっている")
+    @Tag("種別:正常系")
+    @Tag("観点:接続設定")
+    void everyPooledConnectionEnforcesForeignKeys(String pool) throws Exception {
+        DataSource dataSource = context.getBean(pool, DataSource.class);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            assertEquals("1", pragma(statement, "foreign_keys"));
+            assertEquals("wal", pragma(statement, "journal_mode"));
+        }
+    }
+
+    private static String pragma(Statement statement, String name) throws Exception {
+        try (ResultSet resultSet = statement.executeQuery("PRAGMA " + name)) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.api.config;
+
+import com.example.api.dto.CareerHistoryDto;
+import com.example.api.dto.CareerHistoryUpdateDto;
+import com.example.api.dto.PeriodDto;
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.dto.UserResponse;
+import com.example.api.dto.UserUpdateRequest;
+import com.example.api.entity.UserEntity;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.service.UserService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザー詳細を二次キャッシュから取得する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:./target/second-level-cache-config-test.db",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.cache.second-level.enabled=true"
+})
+@DisplayName("SecondLevelCacheConfigによる二次キャッシュ")
+class SecondLevelCacheConfigTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private Long createUser() {
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName("キャッシュ" + UUID.randomUUID());
+        request.setAge(30);
+        request.setBirthday(LocalDate.of(1990, 1, 1));
+        request.setHeight(new BigDecimal("170.4"));
+        request.setZipCode("123-4567");
+        CareerHistoryDto career = new CareerHistoryDto();
+        career.setTitle("職歴");
+        PeriodDto period = new PeriodDto();
+        period.setFrom(LocalDate.of(2010, 4, 1));
+        period.setTo(LocalDate.of(2015, 3, 31));
+        career.setPeriod(period);
+        request.setCareerHistories(List.of(career));
+        return userService.create(request);
+    }
+
+    @Test
+    @Story("同じユーザーを繰り返し取得する")
+    @DisplayName("2回目以降の取得はユーザー・職歴ともキャッシュから組み立て、SQLを発行しない")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void servesRepeatedReadsFromCache() {
+        Long id = createUser();
+        userService.get(id);
+        statistics.clear();
+
+        UserResponse cached = userService.get(id);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertEquals(1, cached.getCareerHistories().size());
+        FunctionCounter hits = meterRegistry.get("cache.gets")
+                .tags("cache", UserEntity.class.getName(), "result", "hit").functionCounter();
+        assertTrue(hits.count() > 0);
+    }
+
+    @Test
+    @Story("キャッシュ済みのユーザーを更新する")
+    @DisplayName("更新後の取得では属性・職歴とも更新後の値を返す")
+    @Tag("種別:正常系")
+    @Tag("観点:整合性")
+    void reflectsUpdatesAfterCaching() {
+        Long id = createUser();
+        UserResponse before = userService.get(id);
+
+        CareerHistoryUpdateDto kept = new CareerHistoryUpdateDto();
+        kept.setId(before.getCareerHistories().get(0).getId());
+        kept.setTitle("更新後の職歴");
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setAge(31);
+        request.setCareerHistories(List.of(kept));
+        userService.update(id, request);
+
+        UserResponse after = userService.get(id);
+        assertEquals(31, after.getAge());
+        assertEquals(1, after.getCareerHistories().size());
+        assertEquals("更新後の職歴", after.getCareerHistories().get(0).getTitle());
+    }
+
+    @Test
+    @Story("キャッシュ済みのユーザーを削除する")
+    @DisplayName("削除後の取得はキャッシュに残らず見つからないエラーになり、他のユーザーのキャッシュは残る")
+    @Tag("種別:正常系")
+    @Tag("観点:整合性")
+    void evictsOnlyDeletedUser() {
+        Long deleted = createUser();
+        Long other = createUser();
+        userService.get(deleted);
+        userService.get(other);
+
+        userService.delete(deleted);
+
+        assertThrows(ResourceNotFoundException.class, () -> userService.get(deleted));
+        assertTrue(entityManagerFactory.getCache().contains(UserEntity.class, other));
+    }
+}
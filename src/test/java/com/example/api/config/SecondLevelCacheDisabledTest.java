@@ -0,0 +1,63 @@
+package com.example.api.config;
+
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.entity.UserEntity;
+import com.example.api.service.UserService;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("二次キャッシュを有効化していない場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:./target/second-level-cache-disabled-test.db")
+@DisplayName("SecondLevelCacheConfigを使わない既定の設定")
+class SecondLevelCacheDisabledTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ApplicationContext applicationContext;
+
+    @Test
+    @Story("app.cache.second-level.enabledを指定せずに起動する")
+    @DisplayName("Hibernateの二次キャッシュは無効で、取得したユーザーはキャッシュに残らない")
+    @Tag("種別:正常系")
+    @Tag("観点:設定")
+    void secondLevelCacheIsOffByDefault() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        assertFalse(sessionFactory.getSessionFactoryOptions().isSecondLevelCacheEnabled());
+        assertTrue(applicationContext.getBeansOfType(SecondLevelCacheConfig.class).isEmpty());
+
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName("既定" + UUID.randomUUID());
+        request.setAge(30);
+        request.setBirthday(LocalDate.of(1990, 1, 1));
+        request.setHeight(new BigDecimal("170.4"));
+        request.setZipCode("123-4567");
+        Long id = userService.create(request);
+        userService.get(id);
+
+        assertFalse(entityManagerFactory.getCache().contains(UserEntity.class, id));
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.api.config;
+
+import com.example.api.service.cache.UserJsonCache;
+import com.zaxxer.hikari.HikariDataSource;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.availability.ApplicationAvailability;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("アプリケーションを起動する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:./target/startup-warmup-test.db")
+@DisplayName("StartupWarmupの振る舞い")
+class StartupWarmupTest {
+
+    @Autowired
+    private ApplicationAvailability availability;
+
+    @Autowired
+    @Qualifier("readerDataSource")
+    private HikariDataSource readerDataSource;
+
+    @Autowired
+    @Qualifier("writerDataSource")
+    private HikariDataSource writerDataSource;
+
+    @Autowired
+    private UserJsonCache userJsonCache;
+
+    @Test
+    @Story("起動が完了する")
+    @DisplayName("トラフィックを受け付ける時点で両プールの接続が上限数まで確立されている")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void opensPoolsBeforeAcceptingTraffic() {
+        assertEquals(ReadinessState.ACCEPTING_TRAFFIC, availability.getReadinessState());
+        assertEquals(readerDataSource.getMaximumPoolSize(), readerDataSource.getHikariPoolMXBean().getTotalConnections());
+        assertEquals(writerDataSource.getMaximumPoolSize(), writerDataSource.getHikariPoolMXBean().getTotalConnections());
+    }
+
+    @Test
+    @Story("起動が完了する")
+    @DisplayName("初期データのユーザーJSONがキャッシュへ読み込まれている")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void preloadsUserJsonCache() {
+        for (long id = 1; id <= 3; id++) {
+            assertNotNull(userJsonCache.getIfPresent(id), "id=" + id);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.api.config;
+
+import com.example.api.repository.UserJpaRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.sqlite.SQLiteConfig;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("トランザクションを開始する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + TransactionRoutingDataSourceTest.URL,
+        // 背景処理が接続を使うとプールの使用中接続数が変わるため無効にする
+        "app.warmup.enabled=false",
+        "app.cache.coherence.enabled=false"
+})
+@DisplayName("TransactionRoutingDataSourceによる接続の振り分け")
+class TransactionRoutingDataSourceTest {
+    static final String URL = "jdbc:sqlite:./target/transaction-routing-test.db";
+
+    @Autowired
+    @Qualifier("readerDataSource")
+    private HikariDataSource readerDataSource;
+
+    @Autowired
+    @Qualifier("writerDataSource")
+    private HikariDataSource writerDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    private TransactionTemplate transaction(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template;
+    }
+
+    /**
+     * プールを経由せずに書き込みトランザクションの開始を試み、開始できたかを返します（待たずに判定します）。
+     */
+    private static boolean canBeginWrite() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setBusyTimeout(0);
+        try (Connection connection = config.createConnection(URL); Statement statement = connection.createStatement()) {
+            try {
+                statement.execute("BEGIN IMMEDIATE");
+            } catch (SQLException ex) {
+                return false;
+            }
+            statement.execute("ROLLBACK");
+            return true;
+        }
+    }
+
+    @Test
+    @Story("readOnlyのトランザクションで読み取る")
+    @DisplayName("読み取り用プールの接続を使い、書き込みロックを取得しない")
+    @Tag("種別:正常系")
+    @Tag("観点:接続設定")
+    void readOnlyTransactionUsesReaderPool() {
+        transaction(true).executeWithoutResult(status -> {
+            userRepository.count();
+
+            assertEquals(1, readerDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(0, writerDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertDoesNotThrow(() -> assertTrue(canBeginWrite()));
+        });
+    }
+
+    @Test
+    @Story("読み書きのトランザクションで読み取る")
+    @DisplayName("書き込み用プールの接続を使い、最初の文の時点で書き込みロックを取得している")
+    @Tag("種別:正常系")
+    @Tag("観点:接続設定")
+    void readWriteTransactionUsesWriterPoolWithImmediateLock() {
+        transaction(false).executeWithoutResult(status -> {
+            // 読み取りのみでも、BEGIN IMMEDIATEにより書き込みロックを先に取得している
+            userRepository.count();
+
+            assertEquals(1, writerDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(0, readerDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertDoesNotThrow(() -> assertFalse(canBeginWrite()));
+        });
+        assertDoesNotThrow(() -> assertTrue(canBeginWrite()));
+    }
+}
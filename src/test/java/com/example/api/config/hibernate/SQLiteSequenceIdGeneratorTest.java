@@ -0,0 +1,111 @@
+package com.example.api.config.hibernate;
+
+import com.example.api.dto.CareerHistoryDto;
+import com.example.api.dto.PeriodDto;
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.entity.UserEntity;
+import com.example.api.repository.UserJpaRepository;
+import com.example.api.service.UserService;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザーを登録する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:./target/sqlite-sequence-id-generator-test.db",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("SQLiteSequenceIdGeneratorによる採番")
+class SQLiteSequenceIdGeneratorTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private UserCreateRequest createRequest(int careers) {
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName("採番" + UUID.randomUUID());
+        request.setAge(30);
+        request.setBirthday(LocalDate.of(1990, 1, 1));
+        request.setHeight(new BigDecimal("170.4"));
+        request.setZipCode("123-4567");
+        List<CareerHistoryDto> histories = new ArrayList<>();
+        for (int i = 0; i < careers; i++) {
+            CareerHistoryDto dto = new CareerHistoryDto();
+            dto.setTitle("職歴" + i);
+            PeriodDto period = new PeriodDto();
+            period.setFrom(LocalDate.of(2010, 4, 1));
+            period.setTo(LocalDate.of(2015, 3, 31));
+            dto.setPeriod(period);
+            histories.add(dto);
+        }
+        request.setCareerHistories(histories);
+        return request;
+    }
+
+    @Test
+    @Story("多数の職歴を持つユーザーを登録する")
+    @DisplayName("職歴の件数によらず、採番とバッチ化したINSERTの一定数の文で登録する")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void createBatchesInsertsRegardlessOfCareerCount() {
+        for (int careers : new int[]{1, 50}) {
+            statistics.clear();
+
+            Long id = userService.create(createRequest(careers));
+
+            // users・career_historiesの採番とINSERT（nameの重複はUNIQUE制約で検出する）
+            assertEquals(4, statistics.getPrepareStatementCount(), "careers=" + careers);
+            assertEquals(careers, userService.get(id).getCareerHistories().size());
+        }
+    }
+
+    @Test
+    @Story("末尾のユーザーを削除した後に登録する")
+    @DisplayName("削除済みのIDは再利用せず、AUTOINCREMENTと同様に続きの値を払い出す")
+    @Tag("種別:正常系")
+    @Tag("観点:採番")
+    void doesNotReuseIdsOfDeletedRows() {
+        Long deleted = userService.create(createRequest(1));
+        userService.delete(deleted);
+
+        Long created = userService.create(createRequest(2));
+
+        assertTrue(created > deleted);
+        UserEntity user = userRepository.findWithCareerHistoriesById(created).orElseThrow();
+        assertEquals(2, user.getCareerHistories().size());
+    }
+}
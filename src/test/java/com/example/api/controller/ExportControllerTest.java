@@ -0,0 +1,192 @@
+package com.example.api.controller;
+
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.service.UserService;
+import com.example.api.service.export.ExportFormat;
+import com.example.api.service.export.ExportJob;
+import com.example.api.service.export.UserExportJobs;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("エクスポートしたファイルをダウンロードする場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:./target/export-controller-test.db",
+        "app.exports.directory=./target/export-controller-test"
+})
+@AutoConfigureMockMvc
+@DisplayName("ExportControllerのダウンロード")
+class ExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserExportJobs userExportJobs;
+
+    @Autowired
+    private UserService userService;
+
+    private ExportJob job;
+    private byte[] file;
+    private String uri;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            UserCreateRequest request = new UserCreateRequest();
+            request.setName("出力" + UUID.randomUUID());
+            request.setAge(30);
+            request.setBirthday(LocalDate.of(1990, 1, 1));
+            request.setHeight(new BigDecimal("170.4"));
+            request.setZipCode("123-4567");
+            userService.create(request);
+        }
+        job = userExportJobs.submit(ExportFormat.NDJSON);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (job.getStatus() == ExportJob.Status.PENDING || job.getStatus() == ExportJob.Status.RUNNING) {
+            assertTrue(System.currentTimeMillis() < deadline, "export did not finish");
+            Thread.sleep(20);
+        }
+        assertEquals(ExportJob.Status.COMPLETED, job.getStatus());
+        file = Files.readAllBytes(job.getFile());
+        assertTrue(file.length > 100);
+        uri = "/api/v1/exports/" + job.getId();
+    }
+
+    private String etag() {
+        return "\"" + job.getId() + "\"";
+    }
+
+    @Test
+    @Story("Rangeを指定せずにダウンロードする")
+    @DisplayName("200でファイル全体を返し、Accept-RangesとETagを付ける")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void returnsWholeFile() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, etag()))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, file.length))
+                .andReturn().getResponse();
+
+        assertArrayEquals(file, response.getContentAsByteArray());
+    }
+
+    @Test
+    @Story("1つの範囲を指定してダウンロードする")
+    @DisplayName("206でContent-Rangeとその範囲のバイト列を返す（末尾からの長さ指定を含む）")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void returnsSingleRange() throws Exception {
+        MockHttpServletResponse head = mockMvc.perform(get(uri).header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 10-19/" + file.length))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andReturn().getResponse();
+        MockHttpServletResponse tail = mockMvc.perform(get(uri).header(HttpHeaders.RANGE, "bytes=-5"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + (file.length - 5) + "-" + (file.length - 1) + "/" + file.length))
+                .andReturn().getResponse();
+        MockHttpServletResponse rest = mockMvc.perform(get(uri).header(HttpHeaders.RANGE, "bytes=" + (file.length - 3) + "-"))
+                .andExpect(status().isPartialContent())
+                .andReturn().getResponse();
+
+        assertArrayEquals(Arrays.copyOfRange(file, 10, 20), head.getContentAsByteArray());
+        assertArrayEquals(Arrays.copyOfRange(file, file.length - 5, file.length), tail.getContentAsByteArray());
+        assertArrayEquals(Arrays.copyOfRange(file, file.length - 3, file.length), rest.getContentAsByteArray());
+    }
+
+    @Test
+    @Story("ファイルの範囲外を指定してダウンロードする")
+    @DisplayName("416でファイルサイズを示すContent-Rangeを返し、本文は返さない")
+    @Tag("種別:異常系")
+    @Tag("観点:境界値")
+    void rejectsUnsatisfiableRange() throws Exception {
+        MockHttpServletResponse response = mockMvc.perform(get(uri).header(HttpHeaders.RANGE, "bytes=" + file.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */" + file.length))
+                .andReturn().getResponse();
+
+        assertEquals(0, response.getContentAsByteArray().length);
+    }
+
+    @Test
+    @Story("If-Rangeを付けてダウンロードを再開する")
+    @DisplayName("ETagが一致すれば範囲を、一致しなければファイル全体を返す")
+    @Tag("種別:正常系")
+    @Tag("観点:整合性")
+    void honorsIfRange() throws Exception {
+        mockMvc.perform(get(uri).header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, etag()))
+                .andExpect(status().isPartialContent());
+        MockHttpServletResponse response = mockMvc.perform(get(uri)
+                        .header(HttpHeaders.RANGE, "bytes=0-9").header(HttpHeaders.IF_RANGE, "\"" + UUID.randomUUID() + "\""))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_RANGE))
+                .andReturn().getResponse();
+
+        assertArrayEquals(file, response.getContentAsByteArray());
+    }
+
+    @Test
+    @Story("複数の範囲や不正な形式の範囲を指定してダウンロードする")
+    @DisplayName("Rangeを無視して200でファイル全体を返す")
+    @Tag("種別:正常系")
+    @Tag("観点:入力検証")
+    void ignoresMultipleOrMalformedRanges() throws Exception {
+        for (String range : new String[]{"bytes=0-9,20-29", "items=0-9"}) {
+            MockHttpServletResponse response = mockMvc.perform(get(uri).header(HttpHeaders.RANGE, range))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse();
+
+            assertArrayEquals(file, response.getContentAsByteArray(), range);
+        }
+    }
+
+    @Test
+    @Story("sendfileに対応したコネクタでダウンロードする")
+    @DisplayName("本文を書き出さず、ファイルと範囲をsendfileの属性でTomcatへ渡す")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void delegatesToSendfileWhenSupported() throws Exception {
+        MvcResult result = mockMvc.perform(get(uri)
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE)
+                        .header(HttpHeaders.RANGE, "bytes=10-19"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andReturn();
+
+        assertEquals(job.getFile().toRealPath().toString(), result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(10L, result.getRequest().getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(20L, result.getRequest().getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.api.controller;
+
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.service.UserService;
+import com.example.api.service.UserStreamHandler;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザー一覧をカーソルで取得する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:./target/user-controller-list-test.db")
+@AutoConfigureMockMvc
+@DisplayName("UserControllerの一覧取得")
+class UserControllerListTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @SpyBean
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private void createUser(String name) {
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName(name);
+        request.setAge(30);
+        request.setBirthday(LocalDate.of(1990, 1, 1));
+        request.setHeight(new BigDecimal("170.4"));
+        request.setZipCode("123-4567");
+        userService.create(request);
+    }
+
+    /** 先頭1件のページを取得し、続きのカーソルを返します。 */
+    private String firstCursor(String name) throws Exception {
+        String body = mockMvc.perform(get("/api/v1/users").param("name", name).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode page = objectMapper.readTree(body).get("page");
+        assertTrue(page.get("hasNext").asBoolean());
+        return page.get("nextCursor").asText();
+    }
+
+    @Test
+    @Story("cursorとlimit=0を同時に指定する")
+    @DisplayName("全件取得はカーソルと併用できず、400とlimitのエラー詳細を返す")
+    @Tag("種別:異常系")
+    @Tag("観点:入力検証")
+    void rejectsCursorWithUnlimitedPage() throws Exception {
+        String name = "カーソル" + UUID.randomUUID();
+        createUser(name + "1");
+        createUser(name + "2");
+        String cursor = firstCursor(name);
+
+        mockMvc.perform(get("/api/v1/users").param("name", name).param("cursor", cursor).param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].field").value("limit"))
+                .andExpect(jsonPath("$.errors[0].location").value("query"));
+    }
+
+    @Test
+    @Story("cursorを指定して続きを取得する")
+    @DisplayName("limitを指定すればカーソルの続きのページを返す")
+    @Tag("種別:正常系")
+    @Tag("観点:ページング")
+    void returnsNextPageWithCursor() throws Exception {
+        String name = "カーソル" + UUID.randomUUID();
+        createUser(name + "1");
+        createUser(name + "2");
+        String cursor = firstCursor(name);
+
+        mockMvc.perform(get("/api/v1/users").param("name", name).param("cursor", cursor).param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].name").value(name + "2"))
+                .andExpect(jsonPath("$.page.hasNext").value(false));
+    }
+
+    /** 見出しとユーザーを渡した後に失敗する一覧の読み込みに差し替えます。 */
+    private void failStreamAfter(int users) throws Exception {
+        byte[] user = ("{\"id\":1,\"name\":\"" + "あ".repeat(100) + "\"}").getBytes(StandardCharsets.UTF_8);
+        doAnswer(invocation -> {
+            UserStreamHandler handler = invocation.getArgument(3);
+            handler.onTotal(users + 1);
+            for (int i = 0; i < users; i++) handler.onUser(user);
+            throw new IllegalStateException("読み込み失敗");
+        }).when(userService).streamList(isNull(), any(), anyInt(), any());
+    }
+
+    @Test
+    @Story("limit=0の一覧の送信前に読み込みが失敗する")
+    @DisplayName("見出しを書き出した後でも送信前の失敗は500のエラー応答になる")
+    @Tag("種別:異常系")
+    @Tag("観点:エラーハンドリング")
+    void failureBeforeFlushReturnsErrorResponse() throws Exception {
+        failStreamAfter(1);
+
+        String body = mockMvc.perform(get("/api/v1/users").param("limit", "0"))
+                .andExpect(status().isInternalServerError())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertFalse(body.contains("\"users\""));
+    }
+
+    @Test
+    @Story("limit=0の一覧の送信中に読み込みが失敗する")
+    @DisplayName("送信済みの一覧は閉じずに終わり、完全なJSONとして読めない")
+    @Tag("種別:異常系")
+    @Tag("観点:エラーハンドリング")
+    void failureAfterFlushLeavesListUnterminated() throws Exception {
+        failStreamAfter(100);
+
+        String body = mockMvc.perform(get("/api/v1/users").param("limit", "0"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertTrue(body.startsWith("{\"count\":101,"));
+        assertThrows(JsonProcessingException.class, () -> objectMapper.readTree(body));
+    }
+}
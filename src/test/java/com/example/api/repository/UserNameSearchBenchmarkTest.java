@@ -0,0 +1,172 @@
+package com.example.api.repository;
+
+import com.example.api.repository.spec.UserSpecifications;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * name部分一致検索の、LIKEによる全件走査とトライグラム全文検索インデックス（users_name_fts）のフレーズ一致の比較ベンチマーク。
+ * 100万件の投入に時間がかかるため通常のテストでは実行せず、{@code -Dbenchmark=true} 指定時のみ実行します。
+ * 件数は {@code -Dbenchmark.rows} で変更できます。
+ */
+@Epic("ユーザー管理ドメインとして")
+@Feature("名前で絞り込んで一覧を取得する場合")
+@ExtendWith(AllureJunit5.class)
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("name部分一致検索のベンチマーク")
+class UserNameSearchBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(UserNameSearchBenchmarkTest.class);
+    private static final String[] FAMILY = {"Yamada", "Suzuki", "Tanaka", "Sato", "Takahashi", "Watanabe", "Ito", "Nakamura",
+            "Kobayashi", "Kato", "山田", "鈴木", "田中", "佐藤", "高橋", "渡辺"};
+    private static final String[] GIVEN = {"Taro", "Hanako", "Ichiro", "Yuki", "Haruto", "Sakura", "Ren", "Aoi",
+            "太郎", "花子", "一郎", "陽翔", "結衣"};
+    private static final String[] TERMS = {"zzz", "ako", "Hanako", "山田 花子"};
+    private static final int ITERATIONS = 5;
+
+    private Path dbFile;
+    private Connection connection;
+
+    @BeforeAll
+    void setUp() throws Exception {
+        int rows = Integer.getInteger("benchmark.rows", 1_000_000);
+        dbFile = Files.createTempFile("user-name-search-benchmark", ".db");
+        connection = DriverManager.getConnection("jdbc:sqlite:" + dbFile);
+        ScriptUtils.executeSqlScript(connection, new org.springframework.core.io.support.EncodedResource(
+                new ClassPathResource("schema.sql"), "UTF-8"), false, false,
+                ScriptUtils.DEFAULT_COMMENT_PREFIX, "^;",
+                ScriptUtils.DEFAULT_BLOCK_COMMENT_START_DELIMITER, ScriptUtils.DEFAULT_BLOCK_COMMENT_END_DELIMITER);
+
+        long started = System.nanoTime();
+        Random random = new Random(42);
+        connection.setAutoCommit(false);
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO users (name, age, birthday, height, zip_code, created_at, updated_at) "
+                        + "VALUES (?, 30, '1990/01/01', 170.0, '123-4567', '2024-01-01 00:00:00', '2024-01-01 00:00:00')")) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, FAMILY[random.nextInt(FAMILY.length)] + " "
+                        + GIVEN[random.nextInt(GIVEN.length)] + " " + Integer.toString(i, 36));
+                insert.addBatch();
+                if (i % 10_000 == 9_999) insert.executeBatch();
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ANALYZE");
+        }
+        log.info("Loaded {} users in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    @AfterAll
+    void tearDown() throws Exception {
+        if (connection != null) connection.close();
+        if (dbFile != null) Files.deleteIfExists(dbFile);
+    }
+
+    @Test
+    @Story("件数を取得する")
+    @DisplayName("件数取得をLIKEと全文検索インデックスで比較する")
+    @Tag("種別:性能")
+    @Tag("観点:性能")
+    void compareCount() throws SQLException {
+        for (String term : TERMS) {
+            long like = measure("SELECT COUNT(*) FROM users WHERE name LIKE ? ESCAPE '\\'",
+                    UserSpecifications.toLikePattern(term), "count like");
+            long fts = measure("SELECT COUNT(*) FROM users_name_fts WHERE users_name_fts MATCH ?",
+                    UserSpecifications.toPhraseQuery(term), "count fts");
+            assertEquals(like, fts, term);
+        }
+    }
+
+    @Test
+    @Story("一覧を取得する")
+    @DisplayName("総件数付きのページ取得をLIKEと全文検索インデックスで比較する")
+    @Tag("種別:性能")
+    @Tag("観点:性能")
+    void comparePage() throws SQLException {
+        for (String term : TERMS) {
+            long like = measure("SELECT SUM(id + total_count) FROM (SELECT u.id, COUNT(*) OVER() AS total_count FROM users u "
+                    + "WHERE u.name LIKE ? ESCAPE '\\' ORDER BY u.id LIMIT 20 OFFSET 100)",
+                    UserSpecifications.toLikePattern(term), "page like");
+            long fts = measure("SELECT SUM(id + total_count) FROM (SELECT u.id, t.total_count FROM "
+                    + "(SELECT rowid AS id, COUNT(*) OVER() AS total_count FROM users_name_fts "
+                    + "WHERE users_name_fts MATCH ? ORDER BY rowid LIMIT 20 OFFSET 100) t "
+                    + "JOIN users u ON u.id = t.id ORDER BY u.id)",
+                    UserSpecifications.toPhraseQuery(term), "page fts");
+            long ftsByName = measure("SELECT SUM(id + total_count) FROM (SELECT u.id, COUNT(*) OVER() AS total_count FROM users u "
+                    + "WHERE u.id IN (SELECT rowid FROM users_name_fts WHERE users_name_fts MATCH ?) "
+                    + "ORDER BY u.name, u.id LIMIT 20 OFFSET 100)",
+                    UserSpecifications.toPhraseQuery(term), "page fts by name");
+            long likeByName = measure("SELECT SUM(id + total_count) FROM (SELECT u.id, COUNT(*) OVER() AS total_count FROM users u "
+                    + "WHERE u.name LIKE ? ESCAPE '\\' ORDER BY u.name, u.id LIMIT 20 OFFSET 100)",
+                    UserSpecifications.toLikePattern(term), "page like by name");
+            assertEquals(like, fts, term);
+            assertEquals(likeByName, ftsByName, term);
+        }
+    }
+
+    @Test
+    @Story("短い検索語で件数を取得する")
+    @DisplayName("3文字未満の検索語はインデックスで照合できないため、LIKEとFTS表の走査を比較する")
+    @Tag("種別:性能")
+    @Tag("観点:性能")
+    void compareShortTermCount() throws SQLException {
+        String term = "田中";
+        long like = measure("SELECT COUNT(*) FROM users WHERE name LIKE ? ESCAPE '\\'",
+                UserSpecifications.toLikePattern(term), "short count like");
+        long fts = measure("SELECT COUNT(*) FROM users_name_fts WHERE name LIKE ?",
+                UserSpecifications.toLikePattern(term), "short count fts scan");
+        assertEquals(like, fts, term);
+    }
+
+    /**
+     * 1行1列の結果を返すクエリを繰り返し実行し、所要時間の中央値を記録して結果値を返します。
+     */
+    private long measure(String sql, String parameter, String label) throws SQLException {
+        long[] elapsed = new long[ITERATIONS];
+        long result = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setString(1, parameter);
+            for (int i = 0; i < ITERATIONS; i++) {
+                long started = System.nanoTime();
+                try (ResultSet rs = statement.executeQuery()) {
+                    rs.next();
+                    result = rs.getLong(1);
+                }
+                elapsed[i] = System.nanoTime() - started;
+            }
+        }
+        Arrays.sort(elapsed);
+        log.info("{} parameter='{}' result={} median={} us", label, parameter, result, elapsed[ITERATIONS / 2] / 1_000);
+        return result;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.api.service;
+
+import com.example.api.dto.CareerHistoryDto;
+import com.example.api.dto.PeriodDto;
+import com.example.api.dto.UserBatchUpsertResult;
+import com.example.api.dto.UserCreateRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザーを一括で登録・更新する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:./target/user-batch-upserter-test.db")
+@DisplayName("UserBatchUpserterの振る舞い")
+class UserBatchUpserterTest {
+
+    @Autowired
+    private UserBatchUpserter userBatchUpserter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private static UserCreateRequest user(String name, int age, CareerHistoryDto... careers) {
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName(name);
+        request.setAge(age);
+        request.setBirthday(LocalDate.of(1990, 1, 1));
+        request.setHeight(new BigDecimal("170.4"));
+        request.setZipCode("123-4567");
+        request.setCareerHistories(careers.length == 0 ? null : List.of(careers));
+        return request;
+    }
+
+    private static CareerHistoryDto career(String title, LocalDate from, LocalDate to) {
+        CareerHistoryDto career = new CareerHistoryDto();
+        career.setTitle(title);
+        PeriodDto period = new PeriodDto();
+        period.setFrom(from);
+        period.setTo(to);
+        career.setPeriod(period);
+        return career;
+    }
+
+    private List<UserBatchUpsertResult> upsert(UserCreateRequest... users) {
+        return userBatchUpserter.upsert(new ArrayList<>(Arrays.asList(users))).getResults();
+    }
+
+    @Test
+    @Story("既存・新規・不正なユーザーを含めて一括upsertする")
+    @DisplayName("既存は200、新規は201、不正・重複はユーザー作成と同じステータスと詳細エラーを入力順に返す")
+    @Tag("種別:正常系")
+    @Tag("観点:入力検証")
+    void reportsStatusPerItem() {
+        String prefix = "一括" + UUID.randomUUID();
+        Long existingId = userService.create(user(prefix + "既存", 30));
+        UserCreateRequest missingAge = user(prefix + "欠落", 30);
+        missingAge.setAge(null);
+
+        List<UserBatchUpsertResult> results = upsert(
+                user(prefix + "既存", 31),
+                user(prefix + "新規", 20),
+                user(prefix + "新規", 21),
+                user(prefix + "年齢", 200),
+                missingAge,
+                user(prefix + "期間", 30, career("開発", LocalDate.of(2016, 4, 1), LocalDate.of(2015, 3, 31))),
+                null);
+
+        assertEquals(7, results.size());
+        int[] expected = {200, 201, 409, 422, 400, 422, 400};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(expected[i], results.get(i).getStatus(), "index=" + i);
+        }
+        assertEquals(existingId, results.get(0).getId());
+        assertNotNull(results.get(1).getId());
+        assertNull(results.get(1).getErrors());
+        assertEquals("DUPLICATE", results.get(2).getErrors().get(0).getCode());
+        assertEquals("age", results.get(3).getErrors().get(0).getField());
+        assertEquals("age", results.get(4).getErrors().get(0).getField());
+        assertEquals("INVALID_PERIOD", results.get(5).getErrors().get(0).getCode());
+        assertEquals(0, userService.count(prefix + "年齢"));
+    }
+
+    @Test
+    @Story("既存ユーザーを一括upsertで更新する")
+    @DisplayName("作成と同じ内容で置き換え、職歴も置き換え、取得結果にすぐ反映する")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void replacesExistingUsers() throws Exception {
+        String name = "置換" + UUID.randomUUID();
+        Long userId = userService.create(user(name, 30,
+                career("開発", LocalDate.of(2010, 4, 1), LocalDate.of(2015, 3, 31)),
+                career("運用", LocalDate.of(2015, 4, 1), LocalDate.of(2020, 3, 31))));
+        userService.getJson(userId);
+        UserCreateRequest replacement = user(name, 31, career("管理", LocalDate.of(2020, 4, 1), LocalDate.of(2024, 3, 31)));
+        replacement.setHeight(null);
+
+        List<UserBatchUpsertResult> results = upsert(replacement);
+
+        assertEquals(200, results.get(0).getStatus());
+        JsonNode user = objectMapper.readTree(userService.getJson(userId));
+        assertEquals(31, user.path("age").asInt());
+        assertTrue(user.path("height").isNull());
+        assertEquals(1, user.path("careerHistories").size());
+        assertEquals("管理", user.at("/careerHistories/0/title").asText());
+    }
+}
@@ -0,0 +1,229 @@
+package com.example.api.service;
+
+import com.example.api.dto.UserChangeListResponse;
+import com.example.api.dto.UserChangeResponse;
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.dto.UserResponse;
+import com.example.api.dto.UserUpdateRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.example.api.service.cache.UserJsonCache;
+import com.example.api.service.cache.UserWriteEpoch;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザーの変更を取得する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:./target/user-change-feed-test.db")
+@DisplayName("UserChangeFeedの差分取得")
+class UserChangeFeedTest {
+
+    @Autowired
+    private UserChangeFeed userChangeFeed;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserJsonCache userJsonCache;
+
+    @Autowired
+    private UserWriteEpoch writeEpoch;
+
+    private Long createUser(String name) {
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName(name);
+        request.setAge(30);
+        request.setBirthday(LocalDate.of(1990, 1, 1));
+        request.setHeight(new BigDecimal("170.4"));
+        request.setZipCode("123-4567");
+        return userService.create(request);
+    }
+
+    /** これまでの変更をすべて読み終えた通番を返します。 */
+    private long head() {
+        UserChangeListResponse response;
+        long since = 0;
+        do {
+            response = userChangeFeed.changesSince(since, 1000);
+            since = response.getNextSince();
+        } while (response.isHasMore());
+        return since;
+    }
+
+    @Test
+    @Story("作成・更新・削除の後に差分を取得する")
+    @DisplayName("ユーザーごとに最新の変更だけを返し、削除はユーザーを含まない")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void returnsLatestChangePerUserWithTombstones() throws Exception {
+        long since = head();
+        Long updated = createUser("変更" + UUID.randomUUID());
+        Long deleted = createUser("削除" + UUID.randomUUID());
+        String renamed = "改名" + UUID.randomUUID();
+        UserUpdateRequest update = new UserUpdateRequest();
+        update.setName(renamed);
+        userService.update(updated, update);
+        userService.delete(deleted);
+
+        UserChangeListResponse response = userChangeFeed.changesSince(since, 100);
+
+        List<UserChangeResponse> changes = response.getChanges();
+        assertEquals(List.of(updated, deleted), changes.stream().map(UserChangeResponse::getUserId).collect(Collectors.toList()));
+        assertEquals("UPSERT", changes.get(0).getOp());
+        JsonNode user = objectMapper.readTree(changes.get(0).getUser());
+        assertEquals(renamed, user.path("name").asText());
+        assertEquals("DELETE", changes.get(1).getOp());
+        assertNull(changes.get(1).getUser());
+        assertEquals(changes.get(1).getSeq(), response.getNextSince());
+        assertFalse(response.isHasMore());
+        assertTrue(userChangeFeed.changesSince(response.getNextSince(), 100).getChanges().isEmpty());
+    }
+
+    @Test
+    @Story("件数を指定して差分を取得する")
+    @DisplayName("件数を超える変更はhasMoreで示し、nextSinceから続きを取得できる")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void pagesThroughChangesWithNextSince() {
+        long since = head();
+        Long first = createUser("続き1" + UUID.randomUUID());
+        Long second = createUser("続き2" + UUID.randomUUID());
+
+        UserChangeListResponse page = userChangeFeed.changesSince(since, 1);
+        UserChangeListResponse rest = userChangeFeed.changesSince(page.getNextSince(), 1);
+
+        assertTrue(page.isHasMore());
+        assertEquals(first, page.getChanges().get(0).getUserId());
+        assertFalse(rest.isHasMore());
+        assertEquals(second, rest.getChanges().get(0).getUserId());
+    }
+
+    @Test
+    @Story("キャッシュに更新前のユーザーが残っている間に差分を取得する")
+    @DisplayName("ユーザーはキャッシュではなく変更履歴と同じスナップショットから読み、更新後の内容を返す")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void readsUsersFromSnapshotInsteadOfCache() throws Exception {
+        long since = head();
+        Long id = createUser("更新前" + UUID.randomUUID());
+        UserResponse stale = userService.get(id);
+        String renamed = "更新後" + UUID.randomUUID();
+        UserUpdateRequest update = new UserUpdateRequest();
+        update.setName(renamed);
+        userService.update(id, update);
+        // コミット後・破棄前の読み取りや他プロセスのコミットで、更新前のJSONがキャッシュに残った状態を再現する
+        userJsonCache.put(stale, writeEpoch.current());
+        assertNotNull(userJsonCache.getIfPresent(id));
+
+        UserChangeListResponse response = userChangeFeed.changesSince(since, 100);
+
+        assertEquals(1, response.getChanges().size());
+        JsonNode user = objectMapper.readTree(response.getChanges().get(0).getUser());
+        assertEquals(renamed, user.path("name").asText());
+    }
+
+    @Test
+    @Story("過去の変更から読み進める購読者と書き込みが滞る購読者がいる状態で配信する")
+    @DisplayName("最新まで受信した購読者には、他の購読者の送信を待たずに新しい変更を配信する")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void deliversToLiveSubscribersWhileAnotherIsBlocked() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch blocked = new CountDownLatch(1);
+        SseEmitter stalled = new SseEmitter(60_000L) {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        CountingEmitter live = new CountingEmitter(1);
+        try {
+            userChangeFeed.subscribe(0L, stalled);
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+            userChangeFeed.subscribe(null, live);
+
+            createUser("配信" + UUID.randomUUID());
+
+            assertTrue(live.received.await(10, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            stalled.complete();
+            live.complete();
+        }
+    }
+
+    @Test
+    @Story("1回の読み込み件数を超える変更を未受信のまま購読する")
+    @DisplayName("上限を超える変更も続けて読み進め、すべて配信する")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void catchesUpBeyondOneBatch() throws Exception {
+        long since = head();
+        List<UserCreateRequest> requests = new ArrayList<>();
+        String prefix = "追従" + UUID.randomUUID();
+        for (int i = 0; i < 600; i++) {
+            UserCreateRequest request = new UserCreateRequest();
+            request.setName(prefix + i);
+            request.setAge(30);
+            request.setBirthday(LocalDate.of(1990, 1, 1));
+            request.setHeight(new BigDecimal("170.4"));
+            request.setZipCode("123-4567");
+            requests.add(request);
+        }
+        userService.upsertAll(requests);
+        CountingEmitter subscriber = new CountingEmitter(600);
+        try {
+            userChangeFeed.subscribe(since, subscriber);
+
+            assertTrue(subscriber.received.await(10, TimeUnit.SECONDS));
+        } finally {
+            subscriber.complete();
+        }
+    }
+
+    /** 送信されたイベントを数えるイベントストリーム。 */
+    private static final class CountingEmitter extends SseEmitter {
+        private final CountDownLatch received;
+
+        private CountingEmitter(int expected) {
+            super(60_000L);
+            this.received = new CountDownLatch(expected);
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            received.countDown();
+        }
+    }
+}
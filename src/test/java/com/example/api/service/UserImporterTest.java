@@ -0,0 +1,135 @@
+package com.example.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザーを一括登録する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:./target/user-importer-test.db",
+        "app.import.chunk-size=2"
+})
+@DisplayName("UserImporterの振る舞い")
+class UserImporterTest {
+
+    @Autowired
+    private UserImporter userImporter;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private List<JsonNode> importLines(String... lines) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] in = (String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8);
+        userImporter.importUsers(new ByteArrayInputStream(in), out);
+        List<JsonNode> results = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            results.add(objectMapper.readTree(line));
+        }
+        return results;
+    }
+
+    private boolean exists(String name) {
+        return userService.count(name) > 0;
+    }
+
+    private static String user(String name, String extra) {
+        return "{\"name\":\"" + name + "\",\"age\":30,\"birthday\":\"1990/01/01\"" + extra + "}";
+    }
+
+    @Test
+    @Story("正しい行と不正な行を含むNDJSONを登録する")
+    @DisplayName("行ごとにユーザー作成と同じステータスとエラーを返し、正しい行だけを職歴ごと登録する")
+    @Tag("種別:正常系")
+    @Tag("観点:入力検証")
+    void reportsResultPerLine() throws Exception {
+        String prefix = "取込" + UUID.randomUUID();
+        List<JsonNode> results = importLines(
+                user(prefix + "1", ",\"careerHistories\":[{\"title\":\"開発\",\"period\":{\"from\":\"2010/04/01\",\"to\":\"2015/03/31\"}}]"),
+                "{\"name\":\"" + prefix + "2\",\"birthday\":\"1990/01/01\"}",
+                user(prefix + "3", ",\"age\":200"),
+                user(prefix + "4", ",\"careerHistories\":[{\"title\":\"開発\",\"period\":{\"from\":\"2016/04/01\",\"to\":\"2015/03/31\"}}]"),
+                user(prefix + "5", ",\"height\":\"高い\""),
+                "[1, 2]",
+                user(prefix + "6", ""));
+
+        assertEquals(7, results.size());
+        int[] expected = {201, 400, 422, 422, 400, 400, 201};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(i + 1, results.get(i).path("line").asInt());
+            assertEquals(expected[i], results.get(i).path("status").asInt(), "line=" + (i + 1));
+        }
+        assertEquals("age", results.get(1).at("/error/errors/0/field").asText());
+        assertEquals("INVALID_PERIOD", results.get(3).at("/error/errors/0/code").asText());
+        assertEquals("height", results.get(4).at("/error/errors/0/field").asText());
+        JsonNode created = objectMapper.readTree(userService.getJson(results.get(0).path("id").asLong()));
+        assertEquals(prefix + "1", created.path("name").asText());
+        assertEquals("開発", created.at("/careerHistories/0/title").asText());
+        assertTrue(exists(prefix + "6"));
+        assertFalse(exists(prefix + "3"));
+    }
+
+    @Test
+    @Story("既存または同じ入力内で重複するnameを登録する")
+    @DisplayName("重複した行は409とし、チャンクの他の行は登録する")
+    @Tag("種別:異常系")
+    @Tag("観点:データ整合性")
+    void rejectsDuplicateNames() throws Exception {
+        String prefix = "重複" + UUID.randomUUID();
+        importLines(user(prefix + "既存", ""));
+
+        List<JsonNode> results = importLines(
+                user(prefix + "既存", ""),
+                user(prefix + "新規", ""),
+                user(prefix + "新規", ""));
+
+        assertEquals(409, results.get(0).path("status").asInt());
+        assertEquals("DUPLICATE", results.get(0).at("/error/errors/0/code").asText());
+        assertEquals(201, results.get(1).path("status").asInt());
+        assertEquals(409, results.get(2).path("status").asInt());
+    }
+
+    @Test
+    @Story("JSONの構文が壊れたNDJSONを登録する")
+    @DisplayName("壊れた行で終了し、それより前の行は登録済みとなる")
+    @Tag("種別:異常系")
+    @Tag("観点:入力検証")
+    void stopsAtMalformedJson() throws Exception {
+        String prefix = "構文" + UUID.randomUUID();
+
+        List<JsonNode> results = importLines(
+                user(prefix + "1", ""),
+                user(prefix + "2", ""),
+                user(prefix + "3", ""),
+                "{\"name\": ",
+                user(prefix + "5", ""));
+
+        assertEquals(4, results.size());
+        assertEquals(400, results.get(3).path("status").asInt());
+        assertTrue(exists(prefix + "3"));
+        assertFalse(exists(prefix + "5"));
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.api.service;
+
+import com.example.api.dto.CareerHistoryDto;
+import com.example.api.dto.PeriodDto;
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.exception.ResourceNotFoundException;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザーを一括削除する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:./target/user-bulk-delete-test.db")
+@DisplayName("UserServiceの一括削除")
+class UserServiceBulkDeleteTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /** 職歴を1件持つユーザーをまとめて登録し、IDを返します。 */
+    private List<Long> createUsers(String prefix, int count) {
+        List<UserCreateRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            UserCreateRequest request = new UserCreateRequest();
+            request.setName(prefix + i);
+            request.setAge(30);
+            request.setBirthday(LocalDate.of(1990, 1, 1));
+            CareerHistoryDto career = new CareerHistoryDto();
+            career.setTitle("開発");
+            PeriodDto period = new PeriodDto();
+            period.setFrom(LocalDate.of(2010, 4, 1));
+            period.setTo(LocalDate.of(2015, 3, 31));
+            career.setPeriod(period);
+            request.setCareerHistories(List.of(career));
+            requests.add(request);
+        }
+        return userService.createAll(requests);
+    }
+
+    private int countCareerHistories(List<Long> userIds) {
+        return userIds.stream()
+                .mapToInt(id -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM career_histories WHERE user_id = ?", Integer.class, id))
+                .sum();
+    }
+
+    @Test
+    @Story("チャンクの件数を超えるIDを指定して一括削除する")
+    @DisplayName("存在するユーザーだけを数え、職歴もCASCADEで削除する")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void deletesIdsAcrossChunks() {
+        List<Long> userIds = createUsers("一括削除" + UUID.randomUUID(), UserService.DELETE_CHUNK_SIZE + 1);
+        Long remaining = createUsers("残存" + UUID.randomUUID(), 1).get(0);
+        List<Long> targets = new ArrayList<>(userIds);
+        targets.add(userIds.get(0));
+        targets.add(Long.MAX_VALUE);
+
+        long deleted = userService.deleteAll(targets);
+
+        assertEquals(userIds.size(), deleted);
+        assertEquals(0, countCareerHistories(userIds));
+        assertEquals(1, countCareerHistories(List.of(remaining)));
+        assertThrows(ResourceNotFoundException.class, () -> userService.get(userIds.get(userIds.size() - 1)));
+    }
+
+    @Test
+    @Story("名前の部分一致で一括削除する")
+    @DisplayName("一覧のname絞り込みと同じ照合で該当するユーザーだけを削除し、取得結果にすぐ反映する")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void deletesUsersMatchingName() {
+        String marker = UUID.randomUUID().toString();
+        List<Long> matching = createUsers("対象" + marker + "_", 3);
+        Long other = createUsers("対象外" + UUID.randomUUID(), 1).get(0);
+        userService.getJson(matching.get(0));
+        assertEquals(3, userService.count(marker));
+
+        long deleted = userService.deleteByName(marker);
+
+        assertEquals(3, deleted);
+        assertEquals(0, userService.count(marker));
+        assertThrows(ResourceNotFoundException.class, () -> userService.getJson(matching.get(0)));
+        assertNotNull(userService.getJson(other));
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.api.service;
+
+import com.example.api.dto.UserUpdateRequest;
+import com.example.api.entity.CareerHistoryEntity;
+import com.example.api.entity.UserEntity;
+import com.example.api.repository.UserJpaRepository;
+import com.example.api.repository.spec.UserSortKey;
+import com.example.api.service.cache.UserJsonCache;
+import com.example.api.service.cache.UserListCache;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザー一覧取得機能を利用する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:./target/user-list-query-count-test.db",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@DisplayName("一覧取得で発行されるSQL文の数")
+class UserServiceListQueryCountTest {
+
+    private static final int USERS = 250;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserJpaRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserJsonCache userJsonCache;
+
+    @Autowired
+    private UserListCache userListCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    @BeforeAll
+    void setUp() {
+        List<UserEntity> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            UserEntity user = UserEntity.builder()
+                    .name(String.format("一覧%04d", i))
+                    .age(30)
+                    .birthday("1990/01/01")
+                    .height(170.0)
+                    .zipCode("123-4567")
+                    .createdAt("2024-01-01 00:00:00")
+                    .updatedAt("2024-01-01 00:00:00")
+                    .careerHistories(new ArrayList<>())
+                    .build();
+            for (int j = 0; j < 2; j++) {
+                user.getCareerHistories().add(CareerHistoryEntity.builder()
+                        .user(user)
+                        .title("職歴" + j)
+                        .periodFrom("2010/04/01")
+                        .periodTo("2015/03/31")
+                        .build());
+            }
+            users.add(user);
+        }
+        userRepository.saveAll(users);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @BeforeEach
+    void clearCaches() {
+        userJsonCache.invalidateAll();
+        userListCache.invalidateAll();
+    }
+
+    private int careerHistoryCount(byte[] json) {
+        try {
+            return objectMapper.readTree(json).get("careerHistories").size();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Test
+    @Story("offsetとlimitで一覧を取得する")
+    @DisplayName("ページサイズによらず、ユーザーと職歴を2文で取得する")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void listPageRunsConstantStatements() {
+        for (int limit : new int[]{1, 10, 100}) {
+            clearCaches();
+            statistics.clear();
+
+            UserPage page = userService.listPage("一覧0", UserSortKey.ID, limit, 5);
+
+            assertEquals(limit, page.getUsers().size());
+            page.getUsers().forEach(user -> assertEquals(2, careerHistoryCount(user)));
+            assertEquals(2, statistics.getPrepareStatementCount(), "limit=" + limit);
+        }
+    }
+
+    @Test
+    @Story("同じページを繰り返し取得する")
+    @DisplayName("ページのキャッシュがなくても、JSONがキャッシュ済みのユーザーは職歴を取得せずユーザーの1文だけを発行する")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void listPageSkipsCareerHistoriesForCachedUsers() {
+        UserPage first = userService.listPage("一覧0", UserSortKey.ID, 10, 5);
+        userListCache.invalidateAll();
+        statistics.clear();
+
+        UserPage second = userService.listPage("一覧0", UserSortKey.ID, 10, 5);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        for (int i = 0; i < first.getUsers().size(); i++) {
+            assertSame(first.getUsers().get(i), second.getUsers().get(i));
+        }
+    }
+
+    @Test
+    @Story("同じ条件のページと件数を繰り返し取得する")
+    @DisplayName("書き込みがなければSQLを発行せずキャッシュから返し、ヒットがメトリクスに計上される")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void repeatedListServedFromResultCache() {
+        userService.listPage("一覧0", UserSortKey.ID, 10, 5);
+        userService.listAfter("一覧0", UserSortKey.NAME, null, 10);
+        statistics.clear();
+
+        userService.listPage("一覧0", UserSortKey.ID, 10, 5);
+        userService.listAfter("一覧0", UserSortKey.NAME, null, 10);
+        userService.count("一覧0");
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+        FunctionCounter hits = meterRegistry.get("cache.gets")
+                .tags("cache", UserListCache.PAGES, "result", "hit").functionCounter();
+        assertTrue(hits.count() >= 2);
+        assertTrue(meterRegistry.get("cache.weight").tags("cache", UserListCache.PAGES).gauge().value() > 0);
+    }
+
+    @Test
+    @Story("カーソルで一覧を取得する")
+    @DisplayName("ページサイズによらず、総件数・ユーザー・職歴を3文で取得する")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void listAfterRunsConstantStatements() {
+        for (int limit : new int[]{1, 10, 100}) {
+            clearCaches();
+            statistics.clear();
+
+            UserPage page = userService.listAfter("一覧0", UserSortKey.NAME, null, limit);
+
+            assertEquals(limit, page.getUsers().size());
+            page.getUsers().forEach(user -> assertEquals(2, careerHistoryCount(user)));
+            assertEquals(3, statistics.getPrepareStatementCount(), "limit=" + limit);
+        }
+    }
+
+    @Test
+    @Story("limit=0で全件を取得する")
+    @DisplayName("職歴はユーザーの一定件数ごとに1文でまとめて取得する")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void streamListLoadsCareerHistoriesPerChunk() throws Exception {
+        statistics.clear();
+        AtomicInteger users = new AtomicInteger();
+
+        userService.streamList("一覧", UserSortKey.ID, 0, new UserStreamHandler() {
+            @Override
+            public void onTotal(int total) {
+                assertEquals(USERS, total);
+            }
+
+            @Override
+            public void onUser(byte[] user) {
+                assertEquals(2, careerHistoryCount(user));
+                users.incrementAndGet();
+            }
+        });
+
+        assertEquals(USERS, users.get());
+        int chunks = (USERS + UserService.STREAM_CHUNK_SIZE - 1) / UserService.STREAM_CHUNK_SIZE;
+        assertEquals(1 + chunks, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Story("全ユーザーをエクスポートする")
+    @DisplayName("全件をID順に渡し、職歴はユーザーの一定件数ごとに1文でまとめて取得する")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void exportLoadsCareerHistoriesPerChunk() throws Exception {
+        int all = (int) userRepository.count();
+        statistics.clear();
+        List<Long> ids = new ArrayList<>();
+
+        userService.export(user -> ids.add(objectMapper.readTree(user).get("id").asLong()));
+
+        assertEquals(all, ids.size());
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1) < ids.get(i));
+        }
+        int chunks = (all + UserService.STREAM_CHUNK_SIZE - 1) / UserService.STREAM_CHUNK_SIZE;
+        assertEquals(1 + chunks, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @Story("全ユーザーをエクスポートする")
+    @DisplayName("開始後に更新されキャッシュへ載ったユーザーも、開始時点の内容で出力し、キャッシュへは格納しない")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void exportIgnoresCacheUpdatedAfterStart() throws Exception {
+        long lastId = userRepository.findAll().stream().mapToLong(UserEntity::getId).max().orElseThrow();
+        long firstId = userRepository.findAll().stream().mapToLong(UserEntity::getId).min().orElseThrow();
+        int age = objectMapper.readTree(userService.getJson(lastId)).get("age").asInt();
+        userJsonCache.invalidateAll();
+        Map<Long, Integer> exported = new HashMap<>();
+
+        userService.export(user -> {
+            if (exported.isEmpty()) {
+                // 最初のチャンクの出力中に、別スレッドで最後のユーザーを更新して新しい内容をキャッシュへ載せる
+                CompletableFuture.runAsync(() -> {
+                    UserUpdateRequest request = new UserUpdateRequest();
+                    request.setAge(age + 1);
+                    userService.update(lastId, request);
+                    userService.getJson(lastId);
+                }).join();
+            }
+            JsonNode node = objectMapper.readTree(user);
+            exported.put(node.get("id").asLong(), node.get("age").asInt());
+        });
+
+        assertEquals(age, exported.get(lastId));
+        assertEquals(age + 1, objectMapper.readTree(userJsonCache.getIfPresent(lastId)).get("age").asInt());
+        assertNull(userJsonCache.getIfPresent(firstId));
+    }
+}
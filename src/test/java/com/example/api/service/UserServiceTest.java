@@ -5,11 +5,24 @@ import com.example.api.entity.CareerHistoryEntity;
 import com.example.api.entity.UserEntity;
 import com.example.api.exception.*;
 import com.example.api.repository.UserJpaRepository;
+import com.example.api.repository.UserWithTotal;
+import com.example.api.repository.spec.UserSortKey;
+import com.example.api.service.cache.HotKeyTracker;
+import com.example.api.service.cache.SingleFlight;
+import com.example.api.service.cache.UserIdFilter;
+import com.example.api.service.cache.UserJsonCache;
+import com.example.api.service.cache.UserListCache;
+import com.example.api.service.cache.UserWriteEpoch;
 import com.example.api.service.mapper.UserMapStructMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.api.service.write.GroupCommitWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import io.qameta.allure.Epic;
 import io.qameta.allure.Feature;
 import io.qameta.allure.Story;
 import io.qameta.allure.junit5.AllureJunit5;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -20,15 +33,22 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.Mockito;
-import org.springframework.data.domain.PageImpl;
-import org.springframework.data.domain.Pageable;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -45,11 +65,35 @@ class UserServiceTest {
     @Mock
     private UserMapStructMapper userMapper;
 
+    @Mock
+    private GroupCommitWriter userWriter;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private UserWriteEpoch writeEpoch;
+
+    private UserJsonCache userJsonCache;
+
+    private UserListCache userListCache;
+
+    private UserIdFilter userIdFilter;
+
     private UserService userService;
 
     @BeforeEach
     void setUp() {
-        userService = new UserService(userRepository, userMapper);
+        lenient().when(userWriter.submit(any())).thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(0).get());
+        writeEpoch = new UserWriteEpoch();
+        HotKeyTracker hotKeys = new HotKeyTracker(false, Duration.ofMinutes(1), 6, 16, 50, Duration.ofSeconds(5));
+        userJsonCache = new UserJsonCache(objectMapper, writeEpoch, hotKeys, DataSize.ofMegabytes(1));
+        userListCache = new UserListCache(new SimpleMeterRegistry(), writeEpoch, hotKeys, DataSize.ofMegabytes(1), 100);
+        userIdFilter = new UserIdFilter(userRepository, new SimpleMeterRegistry(), true, 0.01);
+        userService = new UserService(userRepository, userMapper, userWriter, userJsonCache, userListCache, writeEpoch,
+                new SingleFlight(Duration.ofSeconds(5)), userIdFilter);
+    }
+
+    private JsonNode readUser(byte[] json) throws IOException {
+        return objectMapper.readTree(json);
     }
 
     private UserCreateRequest createRequest(String name) {
@@ -83,6 +127,13 @@ class UserServiceTest {
         return dto;
     }
 
+    /** Springが変換した制約違反（制約名は「テーブル名.列名」）を生成します。 */
+    private DataIntegrityViolationException integrityViolation(String constraintName) {
+        SQLException cause = new SQLException("constraint failed: " + constraintName, null, 19);
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("could not execute statement", cause, constraintName));
+    }
+
     @Nested
     @Feature("ユーザー作成機能を利用する場合")
     @DisplayName("createの振る舞い")
@@ -115,9 +166,8 @@ class UserServiceTest {
                     .careerHistories(new ArrayList<>(List.of(historyEntity)))
                     .build();
 
-            when(userRepository.existsByName("山田太郎")).thenReturn(false);
             when(userMapper.toEntityForCreate(request)).thenReturn(mappedEntity);
-            when(userRepository.save(any(UserEntity.class))).thenAnswer(invocation -> {
+            when(userRepository.saveAndFlush(any(UserEntity.class))).thenAnswer(invocation -> {
                 UserEntity entity = invocation.getArgument(0);
                 entity.setId(10L);
                 return entity;
@@ -127,7 +177,7 @@ class UserServiceTest {
 
             assertEquals(10L, actual);
             ArgumentCaptor<UserEntity> captor = ArgumentCaptor.forClass(UserEntity.class);
-            verify(userRepository).save(captor.capture());
+            verify(userRepository).saveAndFlush(captor.capture());
             UserEntity saved = captor.getValue();
             assertEquals(1, saved.getCareerHistories().size());
             assertSame(saved, saved.getCareerHistories().get(0).getUser());
@@ -140,12 +190,27 @@ class UserServiceTest {
         @Tag("観点:一意制約")
         void throwConflictWhenNameExists() {
             UserCreateRequest request = createRequest("山田太郎");
-            when(userRepository.existsByName("山田太郎")).thenReturn(true);
+            when(userMapper.toEntityForCreate(request)).thenReturn(UserEntity.builder().name("山田太郎").build());
+            when(userRepository.saveAndFlush(any(UserEntity.class))).thenThrow(integrityViolation("users.name"));
 
-            assertThrows(ConflictException.class, () -> userService.create(request));
+            ConflictException ex = assertThrows(ConflictException.class, () -> userService.create(request));
 
-            verify(userRepository, never()).save(any());
-            verify(userMapper, never()).toEntityForCreate(any());
+            assertEquals(ErrorCatalog.DetailCodes.DUPLICATE, ex.getErrors().get(0).getCode());
+            assertEquals("name", ex.getErrors().get(0).getField());
+        }
+
+        @Test
+        @Story("name以外の制約に違反する")
+        @DisplayName("name以外の制約違反は競合エラーに変換せずそのまま送出する")
+        @Tag("種別:異常系")
+        @Tag("観点:一意制約")
+        void rethrowOtherIntegrityViolations() {
+            UserCreateRequest request = createRequest("山田太郎");
+            DataIntegrityViolationException violation = integrityViolation("career_histories.user_id");
+            when(userMapper.toEntityForCreate(request)).thenReturn(UserEntity.builder().name("山田太郎").build());
+            when(userRepository.saveAndFlush(any(UserEntity.class))).thenThrow(violation);
+
+            assertSame(violation, assertThrows(DataIntegrityViolationException.class, () -> userService.create(request)));
         }
 
         @Test
@@ -207,8 +272,7 @@ class UserServiceTest {
                     careerHistoryUpdateDto(5L, "改訂職歴", LocalDate.of(2010, 4, 1), LocalDate.of(2016, 3, 31))
             ));
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(existing));
-            when(userRepository.existsByNameAndIdNot("新しい名前", userId)).thenReturn(false);
+            when(userRepository.findWithCareerHistoriesById(userId)).thenReturn(Optional.of(existing));
             when(userMapper.now()).thenReturn("2024-06-01 12:34:56");
 
             userService.update(userId, request);
@@ -224,7 +288,7 @@ class UserServiceTest {
             assertEquals("2010/04/01", updatedHistory.getPeriodFrom());
             assertEquals("2016/03/31", updatedHistory.getPeriodTo());
             assertSame(existing, updatedHistory.getUser());
-            verify(userRepository).save(existing);
+            verify(userRepository).saveAndFlush(existing);
         }
 
         @Test
@@ -236,11 +300,11 @@ class UserServiceTest {
             Long userId = 99L;
             UserUpdateRequest request = new UserUpdateRequest();
 
-            when(userRepository.findById(userId)).thenReturn(Optional.empty());
+            when(userRepository.findWithCareerHistoriesById(userId)).thenReturn(Optional.empty());
 
             assertThrows(BadRequestException.class, () -> userService.update(userId, request));
 
-            verify(userRepository, never()).save(any());
+            verify(userRepository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -254,12 +318,13 @@ class UserServiceTest {
             request.setName("重複名前");
             UserEntity existing = UserEntity.builder().id(userId).build();
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(existing));
-            when(userRepository.existsByNameAndIdNot("重複名前", userId)).thenReturn(true);
+            when(userRepository.findWithCareerHistoriesById(userId)).thenReturn(Optional.of(existing));
+            when(userMapper.now()).thenReturn("2024-06-01 12:34:56");
+            when(userRepository.saveAndFlush(existing)).thenThrow(integrityViolation("users.name"));
 
-            assertThrows(ConflictException.class, () -> userService.update(userId, request));
+            ConflictException ex = assertThrows(ConflictException.class, () -> userService.update(userId, request));
 
-            verify(userRepository, never()).save(any());
+            assertEquals(ErrorCatalog.DetailCodes.DUPLICATE, ex.getErrors().get(0).getCode());
         }
 
         @Test
@@ -278,11 +343,11 @@ class UserServiceTest {
             UserUpdateRequest request = new UserUpdateRequest();
             request.setCareerHistories(List.of(dto));
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(existing));
+            when(userRepository.findWithCareerHistoriesById(userId)).thenReturn(Optional.of(existing));
 
             assertThrows(UnprocessableEntityException.class, () -> userService.update(userId, request));
 
-            verify(userRepository, never()).save(any());
+            verify(userRepository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -309,11 +374,11 @@ class UserServiceTest {
                     careerHistoryUpdateDto(5L, "既存職歴", LocalDate.of(2019, 4, 1), LocalDate.of(2018, 3, 31))
             ));
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(existing));
+            when(userRepository.findWithCareerHistoriesById(userId)).thenReturn(Optional.of(existing));
 
             assertThrows(UnprocessableEntityException.class, () -> userService.update(userId, request));
 
-            verify(userRepository, never()).save(any());
+            verify(userRepository, never()).saveAndFlush(any());
         }
 
         @Test
@@ -337,7 +402,7 @@ class UserServiceTest {
             UserUpdateRequest request = new UserUpdateRequest();
             request.setCareerHistories(List.of(newCareer));
 
-            when(userRepository.findById(userId)).thenReturn(Optional.of(existing));
+            when(userRepository.findWithCareerHistoriesById(userId)).thenReturn(Optional.of(existing));
             when(userMapper.now()).thenReturn("2024-06-01 12:34:56");
 
             userService.update(userId, request);
@@ -349,7 +414,75 @@ class UserServiceTest {
             assertEquals("2020/04/01", created.getPeriodFrom());
             assertEquals("2022/03/31", created.getPeriodTo());
             assertSame(existing, created.getUser());
-            verify(userRepository).save(existing);
+            verify(userRepository).saveAndFlush(existing);
+        }
+
+        @Test
+        @Story("既存職歴の一部をリクエストから外す")
+        @DisplayName("リクエストに含まれない既存職歴は削除され、含まれる職歴は同じインスタンスのまま残る")
+        @Tag("種別:正常系")
+        @Tag("観点:状態遷移")
+        void removeCareerHistoriesOmittedFromRequest() {
+            Long userId = 1L;
+            CareerHistoryEntity kept = CareerHistoryEntity.builder()
+                    .id(5L).title("残す職歴").periodFrom("2010/04/01").periodTo("2015/03/31").build();
+            CareerHistoryEntity dropped = CareerHistoryEntity.builder()
+                    .id(6L).title("外す職歴").periodFrom("2015/04/01").periodTo("2018/03/31").build();
+            UserEntity existing = UserEntity.builder()
+                    .id(userId)
+                    .careerHistories(new ArrayList<>(List.of(kept, dropped)))
+                    .build();
+            kept.setUser(existing);
+            dropped.setUser(existing);
+
+            CareerHistoryUpdateDto keep = new CareerHistoryUpdateDto();
+            keep.setId(5L);
+            UserUpdateRequest request = new UserUpdateRequest();
+            request.setCareerHistories(List.of(keep));
+
+            when(userRepository.findWithCareerHistoriesById(userId)).thenReturn(Optional.of(existing));
+            when(userMapper.now()).thenReturn("2024-06-01 12:34:56");
+
+            userService.update(userId, request);
+
+            assertEquals(List.of(kept), existing.getCareerHistories());
+            assertSame(kept, existing.getCareerHistories().get(0));
+            assertEquals("残す職歴", kept.getTitle());
+            assertEquals("2024-06-01 12:34:56", existing.getUpdatedAt());
+            verify(userRepository).saveAndFlush(existing);
+        }
+
+        @Test
+        @Story("現在と同じ値で更新する")
+        @DisplayName("値が変わらない更新では更新日時を変更せず保存もしない")
+        @Tag("種別:正常系")
+        @Tag("観点:無操作確認")
+        void skipSaveWhenNothingChanged() {
+            Long userId = 1L;
+            CareerHistoryEntity history = CareerHistoryEntity.builder()
+                    .id(5L).title("既存職歴").periodFrom("2010/04/01").periodTo("2015/03/31").build();
+            UserEntity existing = UserEntity.builder()
+                    .id(userId)
+                    .name("同じ名前")
+                    .age(30)
+                    .updatedAt("2020-01-01 00:00:00")
+                    .careerHistories(new ArrayList<>(List.of(history)))
+                    .build();
+            history.setUser(existing);
+
+            UserUpdateRequest request = new UserUpdateRequest();
+            request.setName("同じ名前");
+            request.setAge(30);
+            request.setCareerHistories(List.of(
+                    careerHistoryUpdateDto(5L, "既存職歴", LocalDate.of(2010, 4, 1), LocalDate.of(2015, 3, 31))
+            ));
+
+            when(userRepository.findWithCareerHistoriesById(userId)).thenReturn(Optional.of(existing));
+
+            userService.update(userId, request);
+
+            assertEquals("2020-01-01 00:00:00", existing.getUpdatedAt());
+            verify(userRepository, never()).saveAndFlush(any());
         }
     }
 
@@ -360,26 +493,27 @@ class UserServiceTest {
 
         @Test
         @Story("対象IDのユーザーが存在している")
-        @DisplayName("存在するIDなら削除処理を呼び出す")
+        @DisplayName("存在するIDなら1文のDELETEで削除する")
         @Tag("種別:正常系")
         @Tag("観点:状態遷移")
         void deleteByIdWhenUserExists() {
-            when(userRepository.existsById(1L)).thenReturn(true);
+            when(userRepository.deleteUserById(1L)).thenReturn(1);
 
             userService.delete(1L);
 
-            verify(userRepository).deleteById(1L);
+            verify(userRepository).deleteUserById(1L);
+            verify(userRepository, never()).findById(anyLong());
         }
 
         @Test
         @Story("対象IDのユーザーが存在しない")
-        @DisplayName("存在しないIDなら削除処理は呼ばれない")
+        @DisplayName("存在しないIDでも削除件数0として正常終了する")
         @Tag("種別:正常系")
         @Tag("観点:無操作確認")
         void skipDeleteWhenUserMissing() {
-            when(userRepository.existsById(1L)).thenReturn(false);
+            when(userRepository.deleteUserById(1L)).thenReturn(0);
 
-            userService.delete(1L);
+            assertDoesNotThrow(() -> userService.delete(1L));
 
             verify(userRepository, never()).deleteById(anyLong());
         }
@@ -399,7 +533,7 @@ class UserServiceTest {
             UserEntity entity = UserEntity.builder().id(1L).build();
             UserResponse response = UserResponse.builder().id(1L).name("山田太郎").build();
 
-            when(userRepository.findWithCareerHistoriesById(1L)).thenReturn(Optional.of(entity));
+            when(userRepository.findCachedWithCareerHistoriesById(1L)).thenReturn(Optional.of(entity));
             when(userMapper.toResponse(entity)).thenReturn(response);
 
             UserResponse actual = userService.get(1L);
@@ -413,10 +547,80 @@ class UserServiceTest {
         @Tag("種別:異常系")
         @Tag("観点:ID整合性")
         void throwNotFoundWhenUserMissing() {
-            when(userRepository.findWithCareerHistoriesById(1L)).thenReturn(Optional.empty());
+            when(userRepository.findCachedWithCareerHistoriesById(1L)).thenReturn(Optional.empty());
 
             assertThrows(ResourceNotFoundException.class, () -> userService.get(1L));
         }
+
+        @Test
+        @Story("構築時点で存在しなかったIDのユーザーを取得する")
+        @DisplayName("IDのフィルタで存在しないと判定できればDBへ問い合わせずに見つからないエラーを送出する")
+        @Tag("種別:異常系")
+        @Tag("観点:性能")
+        void throwNotFoundWithoutQueryWhenIdFilteredOut() {
+            when(userRepository.count()).thenReturn(2L);
+            when(userRepository.lastAllocatedId()).thenReturn(3L);
+            when(userRepository.streamIds()).thenReturn(Stream.of(1L, 3L));
+            userIdFilter.rebuild();
+
+            assertThrows(ResourceNotFoundException.class, () -> userService.getJson(2L));
+
+            verify(userRepository, never()).findCachedWithCareerHistoriesById(anyLong());
+        }
+
+        @Test
+        @Story("フィルタの構築後に作成されたユーザーを取得する")
+        @DisplayName("構築時点の最大IDより大きいIDはフィルタに含まれなくてもDBから取得する")
+        @Tag("種別:正常系")
+        @Tag("観点:整合性")
+        void queryIdsAllocatedAfterRebuild() {
+            when(userRepository.count()).thenReturn(1L);
+            when(userRepository.lastAllocatedId()).thenReturn(1L);
+            when(userRepository.streamIds()).thenReturn(Stream.of(1L));
+            userIdFilter.rebuild();
+            UserEntity entity = UserEntity.builder().id(2L).build();
+            UserResponse response = UserResponse.builder().id(2L).build();
+            when(userRepository.findCachedWithCareerHistoriesById(2L)).thenReturn(Optional.of(entity));
+            when(userMapper.toResponse(entity)).thenReturn(response);
+
+            assertSame(response, userService.get(2L));
+        }
+
+        @Test
+        @Story("同じユーザーのJSONを繰り返し取得する")
+        @DisplayName("2回目以降はシリアライズ済みのJSONを返し、リポジトリへ問い合わせない")
+        @Tag("種別:正常系")
+        @Tag("観点:性能")
+        void serveJsonFromCacheOnRepeatedReads() throws Exception {
+            UserEntity entity = UserEntity.builder().id(1L).build();
+            when(userRepository.findCachedWithCareerHistoriesById(1L)).thenReturn(Optional.of(entity));
+            when(userMapper.toResponse(entity)).thenReturn(UserResponse.builder().id(1L).name("山田太郎").build());
+
+            byte[] first = userService.getJson(1L);
+            byte[] second = userService.getJson(1L);
+
+            assertSame(first, second);
+            assertEquals("山田太郎", readUser(second).get("name").asText());
+            verify(userRepository, times(1)).findCachedWithCareerHistoriesById(1L);
+        }
+
+        @Test
+        @Story("キャッシュ済みのユーザーを削除する")
+        @DisplayName("削除後はキャッシュ済みのJSONを返さず、見つからないエラーを送出する")
+        @Tag("種別:異常系")
+        @Tag("観点:整合性")
+        void dropCachedJsonOnDelete() {
+            UserEntity entity = UserEntity.builder().id(1L).build();
+            when(userRepository.findCachedWithCareerHistoriesById(1L))
+                    .thenReturn(Optional.of(entity))
+                    .thenReturn(Optional.empty());
+            when(userMapper.toResponse(entity)).thenReturn(UserResponse.builder().id(1L).build());
+            userService.getJson(1L);
+
+            userService.delete(1L);
+
+            assertThrows(ResourceNotFoundException.class, () -> userService.getJson(1L));
+        }
     }
 
     @Nested
@@ -449,6 +653,28 @@ class UserServiceTest {
 
             assertEquals(3, actual);
         }
+
+        @Test
+        @Story("同じ条件の件数を繰り返し取得する")
+        @DisplayName("書き込みがなければキャッシュした件数を返し、作成のコミット後は数え直す")
+        @Tag("種別:正常系")
+        @Tag("観点:整合性")
+        void cacheCountUntilWriteCommitted() {
+            when(userRepository.countByNameContaining("田")).thenReturn(3L, 4L);
+            when(userMapper.toEntityForCreate(any())).thenReturn(UserEntity.builder().name("田中").build());
+            when(userRepository.saveAndFlush(any(UserEntity.class))).thenAnswer(invocation -> {
+                UserEntity entity = invocation.getArgument(0);
+                entity.setId(10L);
+                return entity;
+            });
+
+            assertEquals(3, userService.count("田"));
+            assertEquals(3, userService.count("田"));
+            userService.create(createRequest("田中"));
+
+            assertEquals(4, userService.count("田"));
+            verify(userRepository, times(2)).countByNameContaining("田");
+        }
     }
 
     @Nested
@@ -458,16 +684,15 @@ class UserServiceTest {
 
         @Test
         @Story("制限なしで一覧を取得しオフセットを適用する")
-        @DisplayName("limitが0なら全件取得しオフセット分をスキップする")
+        @DisplayName("limitが0ならoffset以降を逐次ハンドラへ渡し、総件数を先に通知する")
         @Tag("種別:正常系")
         @Tag("観点:ページング")
-        void listSkipsOffsetWhenLimitZero() {
-            UserEntity first = UserEntity.builder().id(1L).name("A").build();
+        void streamListEmitsTotalThenUsersWhenLimitZero() throws Exception {
             UserEntity second = UserEntity.builder().id(2L).name("B").build();
             UserEntity third = UserEntity.builder().id(3L).name("C").build();
 
-            when(userRepository.findAll(Mockito.<Specification<UserEntity>>any(), any(Pageable.class)))
-                    .thenReturn(new PageImpl<>(List.of(first, second, third)));
+            when(userRepository.streamWithTotal(null, UserSortKey.ID, 1, 0))
+                    .thenReturn(Stream.of(new UserWithTotal(second, 3), new UserWithTotal(third, 3)));
             when(userMapper.toResponse(any(UserEntity.class))).thenAnswer(invocation -> {
                 UserEntity entity = invocation.getArgument(0);
                 return UserResponse.builder()
@@ -475,27 +700,37 @@ class UserServiceTest {
                         .name(entity.getName())
                         .build();
             });
+            List<Object> events = new ArrayList<>();
+
+            userService.streamList(null, UserSortKey.ID, 1, new UserStreamHandler() {
+                @Override
+                public void onTotal(int total) {
+                    events.add(total);
+                }
+
+                @Override
+                public void onUser(byte[] user) throws IOException {
+                    events.add(readUser(user).get("id").asLong());
+                }
+            });
 
-            List<UserResponse> actual = userService.list(null, 0, 1);
-
-            assertEquals(2, actual.size());
-            assertEquals(2L, actual.get(0).getId());
-            assertEquals(3L, actual.get(1).getId());
-            verify(userMapper, times(2)).toResponse(any());
+            assertEquals(List.of(3, 2L, 3L), events);
+            verify(userRepository).detach(second);
+            verify(userRepository).detach(third);
+            verify(userRepository, never()).count();
         }
 
         @Test
         @Story("制限値付きでページング条件を指定する")
-        @DisplayName("limitとoffsetから適切なページ条件を算出して一覧を返す")
+        @DisplayName("limitとoffsetをそのまま適用し、同じ文で取得した総件数から次ページの有無を判定する")
         @Tag("種別:正常系")
         @Tag("観点:ページング")
-        void listUsesComputedPageWhenLimitPositive() {
-            UserEntity secondPageFirst = UserEntity.builder().id(4L).name("D").build();
-            UserEntity secondPageSecond = UserEntity.builder().id(5L).name("E").build();
-            UserEntity secondPageThird = UserEntity.builder().id(6L).name("F").build();
+        void listPageAppliesOffsetAndReturnsTotalFromSameQuery() throws Exception {
+            UserEntity seventh = UserEntity.builder().id(7L).name("G").build();
+            UserEntity eighth = UserEntity.builder().id(8L).name("H").build();
 
-            when(userRepository.findAll(Mockito.<Specification<UserEntity>>any(), any(Pageable.class)))
-                    .thenReturn(new PageImpl<>(List.of(secondPageFirst, secondPageSecond, secondPageThird)));
+            when(userRepository.streamWithTotal("田", UserSortKey.ID, 6, 2))
+                    .thenReturn(Stream.of(new UserWithTotal(seventh, 10), new UserWithTotal(eighth, 10)));
             when(userMapper.toResponse(any(UserEntity.class))).thenAnswer(invocation -> {
                 UserEntity entity = invocation.getArgument(0);
                 return UserResponse.builder()
@@ -504,18 +739,147 @@ class UserServiceTest {
                         .build();
             });
 
-            ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+            UserPage actual = userService.listPage("田", UserSortKey.ID, 2, 6);
+
+            assertEquals(2, actual.getUsers().size());
+            assertEquals(7L, readUser(actual.getUsers().get(0)).get("id").asLong());
+            assertEquals(10, actual.getTotal());
+            assertTrue(actual.isHasNext());
+            assertEquals(8L, UserPageCursor.decode(actual.getNextCursor(), UserSortKey.ID).getId());
+            assertEquals(10, UserPageCursor.decode(actual.getNextCursor(), UserSortKey.ID).getTotal());
+            verify(userRepository, never()).countByNameContaining(any());
+        }
+
+        @Test
+        @Story("キャッシュ済みのユーザーを含むページを取得する")
+        @DisplayName("キャッシュ済みのユーザーはJSONを再利用し、職歴の取得とシリアライズは未キャッシュのユーザーに限る")
+        @Tag("種別:正常系")
+        @Tag("観点:性能")
+        void listPageReusesCachedJson() throws Exception {
+            UserEntity cached = UserEntity.builder().id(1L).name("A").build();
+            UserEntity uncached = UserEntity.builder().id(2L).name("B").build();
+            when(userRepository.findCachedWithCareerHistoriesById(1L)).thenReturn(Optional.of(cached));
+            when(userRepository.streamWithTotal(null, UserSortKey.ID, 0, 2))
+                    .thenReturn(Stream.of(new UserWithTotal(cached, 2), new UserWithTotal(uncached, 2)));
+            when(userMapper.toResponse(any(UserEntity.class))).thenAnswer(invocation -> {
+                UserEntity entity = invocation.getArgument(0);
+                return UserResponse.builder().id(entity.getId()).name(entity.getName()).build();
+            });
+            byte[] json = userService.getJson(1L);
+
+            UserPage actual = userService.listPage(null, UserSortKey.ID, 2, 0);
+
+            assertSame(json, actual.getUsers().get(0));
+            assertEquals(2L, readUser(actual.getUsers().get(1)).get("id").asLong());
+            verify(userRepository).fetchCareerHistories(List.of(uncached));
+            verify(userMapper, times(2)).toResponse(any());
+        }
+
+        @Test
+        @Story("同じページを繰り返し取得する")
+        @DisplayName("書き込みがなければキャッシュしたページを返し、更新のコミット後は読み直す")
+        @Tag("種別:正常系")
+        @Tag("観点:整合性")
+        void cachePageUntilWriteCommitted() {
+            UserEntity user = UserEntity.builder().id(1L).name("A").careerHistories(new ArrayList<>()).build();
+            when(userRepository.streamWithTotal(null, UserSortKey.ID, 0, 10))
+                    .thenAnswer(invocation -> Stream.of(new UserWithTotal(user, 1)));
+            when(userRepository.findWithCareerHistoriesById(1L)).thenReturn(Optional.of(user));
+            when(userRepository.saveAndFlush(user)).thenReturn(user);
+            when(userMapper.toResponse(any(UserEntity.class))).thenAnswer(invocation -> {
+                UserEntity entity = invocation.getArgument(0);
+                return UserResponse.builder().id(entity.getId()).age(entity.getAge()).build();
+            });
+
+            UserPage first = userService.listPage(null, UserSortKey.ID, 10, 0);
+            assertSame(first, userService.listPage(null, UserSortKey.ID, 10, 0));
+            UserUpdateRequest request = new UserUpdateRequest();
+            request.setAge(40);
+            userService.update(1L, request);
 
-            List<UserResponse> actual = userService.list("田", 3, 6);
+            UserPage afterUpdate = userService.listPage(null, UserSortKey.ID, 10, 0);
+            assertNotSame(first, afterUpdate);
+            verify(userRepository, times(2)).streamWithTotal(null, UserSortKey.ID, 0, 10);
+        }
 
-            verify(userRepository).findAll(Mockito.<Specification<UserEntity>>any(), pageableCaptor.capture());
-            Pageable pageable = pageableCaptor.getValue();
-            assertEquals(2, pageable.getPageNumber());
-            assertEquals(3, pageable.getPageSize());
-            assertEquals(3, actual.size());
-            assertEquals(4L, actual.get(0).getId());
-            assertEquals(6L, actual.get(2).getId());
+        @Test
+        @Story("総件数を超えるoffsetを指定する")
+        @DisplayName("行が返らない場合のみ総件数を別途取得し、空のページを返す")
+        @Tag("種別:正常系")
+        @Tag("観点:ページング")
+        void listPageCountsSeparatelyWhenOffsetBeyondEnd() {
+            when(userRepository.streamWithTotal(null, UserSortKey.NAME, 50, 10)).thenReturn(Stream.empty());
+            when(userRepository.count()).thenReturn(5L);
+
+            UserPage actual = userService.listPage(null, UserSortKey.NAME, 10, 50);
+
+            assertTrue(actual.getUsers().isEmpty());
+            assertEquals(5, actual.getTotal());
+            assertFalse(actual.isHasNext());
+            assertNull(actual.getNextCursor());
+        }
+
+        @Test
+        @Story("カーソルを指定して続きのページを取得する")
+        @DisplayName("limit+1件取得できた場合は次ページありとし末尾ユーザーのカーソルを返し、総件数は数え直さずカーソルから引き継ぐ")
+        @Tag("種別:正常系")
+        @Tag("観点:ページング")
+        void listAfterReturnsNextCursorWhenMoreRowsExist() {
+            List<UserEntity> rows = List.of(
+                    UserEntity.builder().id(11L).name("A").build(),
+                    UserEntity.builder().id(12L).name("B").build(),
+                    UserEntity.builder().id(13L).name("C").build(),
+                    UserEntity.builder().id(14L).name("D").build());
+            when(userRepository.findSlice(Mockito.<Specification<UserEntity>>any(), eq(Sort.by("id")), eq(0), eq(4)))
+                    .thenReturn(rows);
+            when(userMapper.toResponse(any(UserEntity.class))).thenAnswer(invocation -> {
+                UserEntity entity = invocation.getArgument(0);
+                return UserResponse.builder().id(entity.getId()).name(entity.getName()).build();
+            });
+            String cursor = UserPageCursor.encode(UserSortKey.ID, UserEntity.builder().id(10L).build(), 20);
+
+            UserPage actual = userService.listAfter(null, UserSortKey.ID, cursor, 3);
+
+            assertEquals(3, actual.getUsers().size());
+            assertTrue(actual.isHasNext());
+            UserPageCursor next = UserPageCursor.decode(actual.getNextCursor(), UserSortKey.ID);
+            assertEquals(13L, next.getId());
+            assertEquals(20, actual.getTotal());
+            assertEquals(20, next.getTotal());
             verify(userMapper, times(3)).toResponse(any());
+            verify(userRepository, never()).count();
+        }
+
+        @Test
+        @Story("最終ページをカーソルで取得する")
+        @DisplayName("limit件以下しか取得できなければ次ページなしとしカーソルを返さない")
+        @Tag("種別:正常系")
+        @Tag("観点:ページング")
+        void listAfterReturnsNoCursorOnLastPage() {
+            when(userRepository.findSlice(Mockito.<Specification<UserEntity>>any(), eq(Sort.by("name", "id")), eq(0), eq(4)))
+                    .thenReturn(List.of(UserEntity.builder().id(20L).name("Z").build()));
+            when(userMapper.toResponse(any(UserEntity.class))).thenReturn(UserResponse.builder().id(20L).name("Z").build());
+            String cursor = UserPageCursor.encode(UserSortKey.NAME, UserEntity.builder().id(19L).name("Y").build(), 20);
+
+            UserPage actual = userService.listAfter(null, UserSortKey.NAME, cursor, 3);
+
+            assertEquals(1, actual.getUsers().size());
+            assertFalse(actual.isHasNext());
+            assertNull(actual.getNextCursor());
+        }
+
+        @Test
+        @Story("不正なカーソルを指定する")
+        @DisplayName("復号できない、または並び順が異なるカーソルは不正リクエストエラーを送出する")
+        @Tag("種別:異常系")
+        @Tag("観点:入力チェック")
+        void listAfterRejectsInvalidCursor() {
+            String nameCursor = UserPageCursor.encode(UserSortKey.NAME, UserEntity.builder().id(1L).name("A").build(), 20);
+
+            assertThrows(BadRequestException.class, () -> userService.listAfter(null, UserSortKey.ID, "%%%", 3));
+            assertThrows(BadRequestException.class, () -> userService.listAfter(null, UserSortKey.ID, nameCursor, 3));
+
+            verifyNoInteractions(userRepository, userMapper);
         }
     }
 }
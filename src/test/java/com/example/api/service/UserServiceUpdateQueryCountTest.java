@@ -0,0 +1,168 @@
+package com.example.api.service;
+
+import com.example.api.dto.CareerHistoryDto;
+import com.example.api.dto.CareerHistoryUpdateDto;
+import com.example.api.dto.PeriodDto;
+import com.example.api.dto.PeriodUpdateDto;
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.dto.UserResponse;
+import com.example.api.dto.UserUpdateRequest;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザー情報を更新する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:./target/user-service-update-query-count-test.db",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@DisplayName("職歴の差分更新で発行されるSQL")
+class UserServiceUpdateQueryCountTest {
+    private static final int CAREERS = 10;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    private UserResponse createUser() {
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName("差分" + UUID.randomUUID());
+        request.setAge(30);
+        request.setBirthday(LocalDate.of(1990, 1, 1));
+        request.setHeight(new BigDecimal("170.4"));
+        request.setZipCode("123-4567");
+        List<CareerHistoryDto> histories = new ArrayList<>();
+        for (int i = 0; i < CAREERS; i++) {
+            CareerHistoryDto dto = new CareerHistoryDto();
+            dto.setTitle("職歴" + i);
+            PeriodDto period = new PeriodDto();
+            period.setFrom(LocalDate.of(2010, 4, 1));
+            period.setTo(LocalDate.of(2015, 3, 31));
+            dto.setPeriod(period);
+            histories.add(dto);
+        }
+        request.setCareerHistories(histories);
+        Long id = userService.create(request);
+        // 更新日時は秒単位のため、同じ秒内の更新でも変化するよう過去日時にしておく
+        jdbcTemplate.update("UPDATE users SET updated_at = '2000-01-01 00:00:00' WHERE id = ?", id);
+        return userService.get(id);
+    }
+
+    /** 取得した職歴をIDのみ指定（＝変更なし）の更新DTOへ変換します。 */
+    private List<CareerHistoryUpdateDto> unchanged(UserResponse user) {
+        return user.getCareerHistories().stream().map(history -> {
+            CareerHistoryUpdateDto dto = new CareerHistoryUpdateDto();
+            dto.setId(history.getId());
+            return dto;
+        }).collect(Collectors.toList());
+    }
+
+    @Test
+    @Story("多数の職歴のうち1件のタイトルだけを変更する")
+    @DisplayName("変更した職歴1件とユーザーの更新日時だけをUPDATEする")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void updatesOnlyChangedCareerHistory() {
+        UserResponse user = createUser();
+        List<CareerHistoryUpdateDto> updates = unchanged(user);
+        updates.get(3).setTitle("変更後の職歴");
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setCareerHistories(updates);
+        statistics.clear();
+
+        userService.update(user.getId(), request);
+
+        // ユーザーと職歴の一括取得、職歴1件のUPDATE、usersのUPDATE
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getEntityUpdateCount());
+        assertEquals(0, statistics.getEntityInsertCount());
+        assertEquals(0, statistics.getEntityDeleteCount());
+        UserResponse updated = userService.get(user.getId());
+        assertEquals(CAREERS, updated.getCareerHistories().size());
+        assertEquals("変更後の職歴", updated.getCareerHistories().get(3).getTitle());
+    }
+
+    @Test
+    @Story("職歴を1件外し、1件追加する")
+    @DisplayName("外した職歴のDELETEと追加した職歴のINSERTだけを発行する")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void insertsAndDeletesOnlyDifference() {
+        UserResponse user = createUser();
+        List<CareerHistoryUpdateDto> updates = unchanged(user);
+        Long removedId = updates.remove(0).getId();
+        CareerHistoryUpdateDto added = new CareerHistoryUpdateDto();
+        added.setTitle("追加した職歴");
+        PeriodUpdateDto period = new PeriodUpdateDto();
+        period.setFrom(LocalDate.of(2020, 4, 1));
+        period.setTo(LocalDate.of(2022, 3, 31));
+        added.setPeriod(period);
+        updates.add(added);
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setCareerHistories(updates);
+        statistics.clear();
+
+        userService.update(user.getId(), request);
+
+        assertEquals(1, statistics.getEntityInsertCount());
+        assertEquals(1, statistics.getEntityDeleteCount());
+        assertEquals(1, statistics.getEntityUpdateCount());
+        UserResponse updated = userService.get(user.getId());
+        assertEquals(CAREERS, updated.getCareerHistories().size());
+        assertTrue(updated.getCareerHistories().stream().noneMatch(history -> history.getId().equals(removedId)));
+        assertEquals("追加した職歴", updated.getCareerHistories().get(CAREERS - 1).getTitle());
+    }
+
+    @Test
+    @Story("現在と同じ内容で更新する")
+    @DisplayName("値が変わらなければ取得の1文だけでUPDATEは発行しない")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void issuesNoUpdateWhenNothingChanged() {
+        UserResponse user = createUser();
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setName(user.getName());
+        request.setCareerHistories(unchanged(user));
+        statistics.clear();
+
+        userService.update(user.getId(), request);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityUpdateCount());
+    }
+}
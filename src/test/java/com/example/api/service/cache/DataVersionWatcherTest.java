@@ -0,0 +1,130 @@
+package com.example.api.service.cache;
+
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.doAnswer;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("複数プロセスで同じDBファイルを共有する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + DataVersionWatcherTest.URL,
+        "app.cache.coherence.poll-interval=1h"
+})
+@DisplayName("DataVersionWatcherの振る舞い")
+class DataVersionWatcherTest {
+    static final String URL = "jdbc:sqlite:./target/data-version-watcher-test.db";
+
+    @Autowired
+    private DataVersionWatcher watcher;
+
+    @Autowired
+    private UserService userService;
+
+    @SpyBean
+    private UserJsonCache userJsonCache;
+
+    @Autowired
+    @Qualifier("writerDataSource")
+    private HikariDataSource writerDataSource;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private double invalidations() {
+        return meterRegistry.get("users.cache.coherence.invalidations").counter().count();
+    }
+
+    @Test
+    @Story("他プロセスがユーザーを更新する")
+    @DisplayName("別の接続のコミットを検知してキャッシュを破棄し、更新後の内容を返す")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void invalidatesCachesAfterForeignCommit() throws Exception {
+        userService.getJson(1L);
+        assertNotNull(userJsonCache.getIfPresent(1L));
+        double before = invalidations();
+        String renamed = "他プロセス" + UUID.randomUUID();
+
+        try (Connection other = DriverManager.getConnection(URL); Statement statement = other.createStatement()) {
+            statement.execute("PRAGMA busy_timeout = 5000");
+            statement.executeUpdate("UPDATE users SET name = '" + renamed + "' WHERE id = 1");
+        }
+        watcher.poll();
+
+        assertEquals(before + 1, invalidations());
+        assertNull(userJsonCache.getIfPresent(1L));
+        assertEquals(renamed, objectMapper.readTree(userService.getJson(1L)).path("name").asText());
+    }
+
+    @Test
+    @Story("自プロセスがユーザーを作成する")
+    @DisplayName("自プロセスの書き込み用接続のコミットでは破棄しない")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void ignoresOwnCommits() {
+        watcher.poll();
+        double before = invalidations();
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName("自プロセス" + UUID.randomUUID());
+        request.setAge(30);
+        request.setBirthday(LocalDate.of(1990, 1, 1));
+        request.setHeight(new BigDecimal("170.4"));
+        request.setZipCode("123-4567");
+        userService.create(request);
+
+        watcher.poll();
+
+        assertEquals(before, invalidations());
+    }
+
+    @Test
+    @Story("他プロセスがユーザーを更新する")
+    @DisplayName("キャッシュの破棄は書き込み用の接続を返却してから行う")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void invalidatesAfterReleasingWriterConnection() throws Exception {
+        watcher.poll();
+        AtomicInteger activeDuringInvalidation = new AtomicInteger(-1);
+        doAnswer(invocation -> {
+            activeDuringInvalidation.set(writerDataSource.getHikariPoolMXBean().getActiveConnections());
+            return invocation.callRealMethod();
+        }).when(userJsonCache).invalidateAll();
+
+        try (Connection other = DriverManager.getConnection(URL); Statement statement = other.createStatement()) {
+            statement.execute("PRAGMA busy_timeout = 5000");
+            statement.executeUpdate("UPDATE users SET name = '他プロセス" + UUID.randomUUID() + "' WHERE id = 2");
+        }
+        watcher.poll();
+
+        assertEquals(0, activeDuringInvalidation.get());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.api.service.cache;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("要求の多いキーを集計する場合")
+@ExtendWith(AllureJunit5.class)
+@DisplayName("HeavyHittersの振る舞い")
+class HeavyHittersTest {
+    private static final long SLICE = 10;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private HeavyHitters<Long> heavyHitters() {
+        return new HeavyHitters<>(6, SLICE, 256, clock::get);
+    }
+
+    @Test
+    @Story("少数のキーに要求が集中する")
+    @DisplayName("多数のキーに紛れた上位のキーを回数の多い順に返す")
+    @Tag("種別:正常系")
+    @Tag("観点:同値分類:正常値")
+    void findsTopKeysAmongLongTail() {
+        HeavyHitters<Long> heavyHitters = heavyHitters();
+        for (long id = 1000; id < 11_000; id++) {
+            heavyHitters.record(id);
+        }
+        for (int i = 0; i < 500; i++) heavyHitters.record(1L);
+        for (int i = 0; i < 300; i++) heavyHitters.record(2L);
+        for (int i = 0; i < 200; i++) heavyHitters.record(3L);
+
+        List<HotKey<Long>> top = heavyHitters.top(3, 1);
+
+        assertEquals(List.of(1L, 2L, 3L), top.stream().map(HotKey::getKey).collect(Collectors.toList()));
+        assertTrue(top.get(0).getCount() >= 500);
+        assertEquals(11_000, heavyHitters.total());
+    }
+
+    @Test
+    @Story("ウィンドウより前に記録したキーを集計する")
+    @DisplayName("ウィンドウを外れたスライスの記録は数えない")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void forgetsSlicesOutsideWindow() {
+        HeavyHitters<Long> heavyHitters = heavyHitters();
+        for (int i = 0; i < 100; i++) heavyHitters.record(1L);
+        clock.set(5 * SLICE);
+        for (int i = 0; i < 10; i++) heavyHitters.record(2L);
+
+        assertEquals(List.of(1L, 2L), heavyHitters.top(5, 1).stream().map(HotKey::getKey).collect(Collectors.toList()));
+
+        clock.set(6 * SLICE);
+        heavyHitters.record(3L);
+
+        List<HotKey<Long>> top = heavyHitters.top(5, 1);
+        assertEquals(List.of(2L, 3L), top.stream().map(HotKey::getKey).collect(Collectors.toList()));
+        assertEquals(11, heavyHitters.total());
+    }
+
+    @Test
+    @Story("推定回数の下限を指定する")
+    @DisplayName("下限未満のキーは返さない")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void excludesKeysBelowMinimum() {
+        HeavyHitters<Long> heavyHitters = heavyHitters();
+        for (int i = 0; i < 50; i++) heavyHitters.record(1L);
+        for (int i = 0; i < 49; i++) heavyHitters.record(2L);
+
+        assertEquals(List.of(1L), heavyHitters.top(5, 50).stream().map(HotKey::getKey).collect(Collectors.toList()));
+    }
+
+    @Test
+    @Story("複数スレッドから同時に記録する")
+    @DisplayName("ロックなしで記録しても回数を取りこぼさない")
+    @Tag("種別:正常系")
+    @Tag("観点:並行性")
+    void countsConcurrentRecordsWithoutLoss() throws Exception {
+        HeavyHitters<Long> heavyHitters = heavyHitters();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] futures = new Future<?>[8];
+            for (int t = 0; t < futures.length; t++) {
+                futures[t] = threads.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) heavyHitters.record(7L);
+                });
+            }
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            threads.shutdownNow();
+        }
+
+        assertEquals(new HotKey<>(7L, 80_000), heavyHitters.top(1, 1).get(0));
+    }
+}
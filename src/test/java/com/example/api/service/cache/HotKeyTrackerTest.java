@@ -0,0 +1,106 @@
+package com.example.api.service.cache;
+
+import com.example.api.dto.UserResponse;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("要求の多いキーを集計する場合")
+@ExtendWith(AllureJunit5.class)
+@DisplayName("HotKeyTrackerの振る舞い")
+class HotKeyTrackerTest {
+    private final HotKeyTracker tracker = new HotKeyTracker(true, Duration.ofMinutes(1), 6, 2, 10, Duration.ofSeconds(5));
+
+    @AfterEach
+    void tearDown() {
+        tracker.stop();
+    }
+
+    private static UserResponse user(long id) {
+        return UserResponse.builder().id(id).name("x".repeat(100)).build();
+    }
+
+    @Test
+    @Story("要求の多いIDと名前を選び直す")
+    @DisplayName("推定回数が下限以上の上位のキーだけを固定対象にする")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void pinsTopKeysAboveMinimum() {
+        for (int i = 0; i < 20; i++) tracker.recordId(1);
+        for (int i = 0; i < 15; i++) tracker.recordId(2);
+        for (int i = 0; i < 12; i++) tracker.recordId(3);
+        for (int i = 0; i < 9; i++) tracker.recordName("Taro");
+        for (int i = 0; i < 10; i++) tracker.recordName("Hanako");
+        tracker.recordName(" ");
+        tracker.recordName(null);
+
+        tracker.refresh();
+
+        assertEquals(Set.of(1L, 2L), tracker.pinnedIds());
+        assertEquals(Set.of("Hanako"), tracker.pinnedNames());
+        assertEquals(19, tracker.nameRequests());
+        assertEquals("Taro", tracker.topNames(5).get(1).getKey());
+    }
+
+    @Test
+    @Story("固定対象のユーザーのJSONをキャッシュする")
+    @DisplayName("固定中のエントリは容量に数えず退避されず、ウィンドウを外れて固定が外れると容量に数える")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void pinnedJsonIsExcludedFromEvictionUntilUnpinned() throws Exception {
+        HotKeyTracker shortWindow = new HotKeyTracker(true, Duration.ofMillis(600), 6, 2, 10, Duration.ofSeconds(5));
+        UserWriteEpoch epoch = new UserWriteEpoch();
+        UserJsonCache cache = new UserJsonCache(Jackson2ObjectMapperBuilder.json().build(), epoch, shortWindow, DataSize.ofKilobytes(1));
+        cache.put(user(1), epoch.current());
+        long unpinned = cache.weightedSize();
+        assertTrue(unpinned > 0);
+
+        for (int i = 0; i < 10; i++) shortWindow.recordId(1);
+        shortWindow.refresh();
+        assertEquals(0, cache.weightedSize());
+        for (long id = 2; id < 50; id++) {
+            cache.put(user(id), epoch.current());
+        }
+        assertNotNull(cache.getIfPresent(1L));
+        for (long id = 2; id < 50; id++) {
+            cache.invalidate(id);
+        }
+        assertEquals(0, cache.weightedSize());
+
+        Thread.sleep(700);
+        shortWindow.refresh();
+        assertTrue(shortWindow.pinnedIds().isEmpty());
+        assertEquals(unpinned, cache.weightedSize());
+    }
+
+    @Test
+    @Story("集計が無効")
+    @DisplayName("無効な場合は記録せず、何も固定しない")
+    @Tag("種別:正常系")
+    @Tag("観点:設定")
+    void recordsNothingWhenDisabled() {
+        HotKeyTracker disabled = new HotKeyTracker(false, Duration.ofMinutes(1), 6, 2, 1, Duration.ofSeconds(5));
+        disabled.recordId(1);
+        disabled.recordName("Taro");
+
+        disabled.refresh();
+
+        assertTrue(disabled.topIds(5).isEmpty());
+        assertTrue(disabled.pinnedIds().isEmpty());
+        assertTrue(disabled.pinnedNames().isEmpty());
+    }
+}
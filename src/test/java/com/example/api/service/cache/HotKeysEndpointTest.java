@@ -0,0 +1,56 @@
+package com.example.api.service.cache;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("要求の多いキーを確認する場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:sqlite:./target/hot-keys-endpoint-test.db")
+@AutoConfigureMockMvc
+@DisplayName("HotKeysEndpointによる上位キーの取得")
+class HotKeysEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    @Story("limitを省略して取得する")
+    @DisplayName("limitは任意で、省略してもウィンドウと種類ごとの集計を返す")
+    @Tag("種別:正常系")
+    @Tag("観点:入力検証")
+    void limitIsOptional() throws Exception {
+        mockMvc.perform(get("/actuator/hotkeys"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.window").exists())
+                .andExpect(jsonPath("$.ids.top").isArray())
+                .andExpect(jsonPath("$.names.top").isArray());
+    }
+
+    @Test
+    @Story("limitを指定して取得する")
+    @DisplayName("記録したユーザーIDをlimitの件数以内で返す")
+    @Tag("種別:正常系")
+    @Tag("観点:集計")
+    void returnsRecordedIdsWithinLimit() throws Exception {
+        mockMvc.perform(get("/api/v1/users/999999"));
+
+        mockMvc.perform(get("/actuator/hotkeys").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.ids.top.length()").value(1));
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.api.service.cache;
+
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("存在しないユーザーIDを判定する場合")
+@ExtendWith(AllureJunit5.class)
+@DisplayName("LongBloomFilterの振る舞い")
+class LongBloomFilterTest {
+    private static final int IDS = 100_000;
+
+    @Test
+    @Story("連番のIDを追加する")
+    @DisplayName("追加したIDは必ず含まれると判定し、追加していないIDの誤検知率は指定値程度に収まる")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void keepsFalsePositiveRateNearTarget() {
+        LongBloomFilter filter = new LongBloomFilter(IDS, 0.01);
+        for (long id = 1; id <= IDS; id++) {
+            filter.put(id);
+        }
+
+        for (long id = 1; id <= IDS; id++) {
+            assertTrue(filter.mightContain(id));
+        }
+        int falsePositives = 0;
+        for (long id = IDS + 1; id <= 2L * IDS; id++) {
+            if (filter.mightContain(id)) falsePositives++;
+        }
+        assertTrue(falsePositives < IDS * 0.02, "falsePositives=" + falsePositives);
+        assertEquals(0.01, filter.expectedFpp(IDS), 0.005);
+        assertTrue(filter.sizeInBytes() < IDS * 2);
+    }
+
+    @Test
+    @Story("空のフィルタで判定する")
+    @DisplayName("何も追加していなければどのIDも含まれないと判定する")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void emptyFilterContainsNothing() {
+        LongBloomFilter filter = new LongBloomFilter(0, 0.01);
+
+        assertFalse(filter.mightContain(1));
+        assertFalse(filter.mightContain(0));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.api.service.cache;
+
+import com.example.api.exception.ResourceNotFoundException;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("同時に届いた同じ読み込みをまとめる場合")
+@ExtendWith(AllureJunit5.class)
+@DisplayName("SingleFlightの振る舞い")
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    private ExecutorService callers;
+
+    @BeforeEach
+    void setUp() {
+        callers = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    /** 最初の呼び出しがリーダーとして読み込みを始めてから、残りの呼び出しを同じキーで投入します。 */
+    private <T> List<Future<T>> submitConcurrently(SingleFlight singleFlight, CountDownLatch started, Supplier<T> loader) throws Exception {
+        List<Future<T>> results = new ArrayList<>();
+        results.add(callers.submit(() -> singleFlight.execute("key", loader)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(callers.submit(() -> singleFlight.execute("key", loader)));
+        }
+        return results;
+    }
+
+    /** 投入した呼び出しが実行中の読み込みを待ち始めるまで、リーダーの完了を遅らせます。 */
+    private static void pause() throws InterruptedException {
+        Thread.sleep(200);
+    }
+
+    @Test
+    @Story("同じキーの読み込みが同時に届く")
+    @DisplayName("読み込みは1回だけ実行され、全員が同じ結果を受け取る")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void sharesResultOfInFlightLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object result = new Object();
+
+        List<Future<Object>> results = submitConcurrently(singleFlight, started, () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            return result;
+        });
+        pause();
+        release.countDown();
+
+        for (Future<Object> future : results) {
+            assertSame(result, future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    @Test
+    @Story("実行中の読み込みが例外で終わる")
+    @DisplayName("待っていた呼び出しにも同じ例外を送出し、次の呼び出しは改めて読み込む")
+    @Tag("種別:異常系")
+    @Tag("観点:エラー伝播")
+    void propagatesFailureToWaiters() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ResourceNotFoundException failure = new ResourceNotFoundException("not found");
+
+        List<Future<Object>> results = submitConcurrently(singleFlight, started, () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            await(release);
+            throw failure;
+        });
+        pause();
+        release.countDown();
+
+        for (Future<Object> future : results) {
+            ExecutionException ex = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+            assertSame(failure, ex.getCause());
+        }
+        assertEquals(1, loads.get());
+        assertEquals("next", singleFlight.execute("key", () -> "next"));
+    }
+
+    @Test
+    @Story("実行中の読み込みが待機の上限を超える")
+    @DisplayName("上限を超えた呼び出しは待つのをやめて自ら読み込む")
+    @Tag("種別:異常系")
+    @Tag("観点:タイムアウト")
+    void loadsIndependentlyAfterTimeout() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofMillis(100));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> leader = callers.submit(() -> singleFlight.execute("key", () -> {
+            started.countDown();
+            await(release);
+            return "leader";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        String follower = singleFlight.execute("key", () -> "follower");
+
+        assertEquals("follower", follower);
+        release.countDown();
+        assertEquals("leader", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @Story("異なるキーの読み込みが同時に届く")
+    @DisplayName("キーが異なればまとめずにそれぞれ読み込む")
+    @Tag("種別:正常系")
+    @Tag("観点:同値分類:正常値")
+    void doesNotShareAcrossKeys() {
+        SingleFlight singleFlight = new SingleFlight(Duration.ofSeconds(5));
+
+        String outer = singleFlight.execute(List.of("get", 1L), () -> "1:" + singleFlight.execute(List.of("get", 2L), () -> "2"));
+
+        assertEquals("1:2", outer);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.example.api.service.cache;
+
+import com.example.api.repository.spec.UserSortKey;
+import com.example.api.service.UserPage;
+import com.example.api.service.UserService;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザー一覧の次のページを先読みする場合")
+@ExtendWith(AllureJunit5.class)
+@DisplayName("UserPagePrefetcherの振る舞い")
+class UserPagePrefetcherTest {
+    private static final String CLIENT = "127.0.0.1";
+    private static final UserPage HAS_NEXT = new UserPage(List.of(), 30, true, "next");
+    private static final UserPage LAST = new UserPage(List.of(), 30, false, null);
+
+    private UserService userService;
+    private UserWriteEpoch writeEpoch;
+    private HikariPoolMXBean pool;
+    private HikariDataSource readerDataSource;
+    private MeterRegistry meterRegistry;
+    private UserPagePrefetcher prefetcher;
+
+    @BeforeEach
+    void setUp() {
+        userService = mock(UserService.class);
+        writeEpoch = new UserWriteEpoch();
+        pool = mock(HikariPoolMXBean.class);
+        readerDataSource = mock(HikariDataSource.class);
+        when(readerDataSource.getHikariPoolMXBean()).thenReturn(pool);
+        when(readerDataSource.getMaximumPoolSize()).thenReturn(8);
+        when(pool.getIdleConnections()).thenReturn(1);
+        when(pool.getTotalConnections()).thenReturn(1);
+        meterRegistry = new SimpleMeterRegistry();
+        prefetcher = prefetcher(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        prefetcher.stop();
+    }
+
+    private UserPagePrefetcher prefetcher(boolean enabled) {
+        return new UserPagePrefetcher(userService, writeEpoch, readerDataSource, meterRegistry,
+                enabled, 1, 4, 1, Duration.ofMinutes(1));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("users.list.prefetch.requests").tag("result", result).counter().count();
+    }
+
+    @Test
+    @Story("次のページがある一覧を返す")
+    @DisplayName("offset + limitのページを先読みし、続けて要求されると的中として数える")
+    @Tag("種別:正常系")
+    @Tag("観点:性能")
+    void prefetchesNextOffsetAndCountsHit() {
+        prefetcher.onPageServed(CLIENT, "a", UserSortKey.ID, 10, 0, HAS_NEXT);
+
+        verify(userService, timeout(5000)).listPage("a", UserSortKey.ID, 10, 10);
+        awaitCompleted(1);
+        prefetcher.onPageServed(CLIENT, "a", UserSortKey.ID, 10, 10, LAST);
+
+        assertEquals(1, requests("issued"));
+        assertEquals(1, meterRegistry.get("users.list.prefetch.hits").counter().count());
+        assertEquals(1.0, meterRegistry.get("users.list.prefetch.hit.ratio").gauge().value());
+        verifyNoMoreInteractions(userService);
+    }
+
+    @Test
+    @Story("カーソルで次のページがある一覧を返す")
+    @DisplayName("nextCursorのページを先読みする")
+    @Tag("種別:正常系")
+    @Tag("観点:同値分類:正常値")
+    void prefetchesNextCursor() {
+        prefetcher.onPageServedAfter(CLIENT, null, UserSortKey.NAME, "current", 5, HAS_NEXT);
+
+        verify(userService, timeout(5000)).listAfter(null, UserSortKey.NAME, "next", 5);
+    }
+
+    @Test
+    @Story("最後のページを返す")
+    @DisplayName("次のページがなければ先読みしない")
+    @Tag("種別:正常系")
+    @Tag("観点:境界値")
+    void skipsLastPage() {
+        prefetcher.onPageServed(CLIENT, null, UserSortKey.ID, 10, 20, LAST);
+
+        assertEquals(0, requests("issued"));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @Story("先読みが無効")
+    @DisplayName("無効な場合は何もしない")
+    @Tag("種別:正常系")
+    @Tag("観点:設定")
+    void doesNothingWhenDisabled() {
+        prefetcher.stop();
+        prefetcher = prefetcher(false);
+
+        prefetcher.onPageServed(CLIENT, null, UserSortKey.ID, 10, 0, HAS_NEXT);
+
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @Story("読み取り用プールが飽和している")
+    @DisplayName("接続待ちのスレッドがあれば先読みしない")
+    @Tag("種別:異常系")
+    @Tag("観点:性能")
+    void skipsWhenReadPoolSaturated() {
+        when(pool.getThreadsAwaitingConnection()).thenReturn(1);
+
+        prefetcher.onPageServed(CLIENT, null, UserSortKey.ID, 10, 0, HAS_NEXT);
+
+        assertEquals(1, requests("pool_saturated"));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @Story("読み取り用プールの接続が上限まで使用中")
+    @DisplayName("空き接続がなく上限まで接続していれば先読みしない")
+    @Tag("種別:異常系")
+    @Tag("観点:境界値")
+    void skipsWhenNoIdleConnectionAtMaximum() {
+        when(pool.getIdleConnections()).thenReturn(0);
+        when(pool.getTotalConnections()).thenReturn(8);
+
+        prefetcher.onPageServed(CLIENT, null, UserSortKey.ID, 10, 0, HAS_NEXT);
+
+        assertEquals(1, requests("pool_saturated"));
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    @Story("同じクライアントの先読みが実行中")
+    @DisplayName("クライアントごとの上限を超える先読みは行わず、他のクライアントは先読みできる")
+    @Tag("種別:異常系")
+    @Tag("観点:境界値")
+    void capsInFlightPrefetchesPerClient() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(userService.listPage(isNull(), eq(UserSortKey.ID), anyInt(), anyInt())).thenAnswer(invocation -> {
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return LAST;
+        });
+
+        prefetcher.onPageServed(CLIENT, null, UserSortKey.ID, 10, 0, HAS_NEXT);
+        prefetcher.onPageServed(CLIENT, null, UserSortKey.ID, 10, 10, HAS_NEXT);
+        prefetcher.onPageServed("10.0.0.1", null, UserSortKey.ID, 10, 0, HAS_NEXT);
+        release.countDown();
+
+        assertEquals(2, requests("issued"));
+        assertEquals(1, requests("client_cap"));
+        verify(userService, timeout(5000).times(2)).listPage(null, UserSortKey.ID, 10, 10);
+    }
+
+    @Test
+    @Story("先読みの後に書き込みが行われる")
+    @DisplayName("書き込み後の要求は先読みの的中として数えない")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void ignoresPrefetchFromOlderEpoch() {
+        prefetcher.onPageServed(CLIENT, null, UserSortKey.ID, 10, 0, HAS_NEXT);
+        awaitCompleted(1);
+        writeEpoch.advance();
+        prefetcher.onPageServed(CLIENT, null, UserSortKey.ID, 10, 10, LAST);
+
+        assertEquals(0, meterRegistry.get("users.list.prefetch.hits").counter().count());
+    }
+
+    /** 先読みスレッドで指定件数の読み込みが完了するまで待ちます。 */
+    private void awaitCompleted(double expected) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("users.list.prefetch.completed").counter().count() < expected) {
+            assertTrue(System.nanoTime() < deadline, "prefetch not completed within 5s");
+            Thread.onSpinWait();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.api.service.export;
+
+import com.example.api.dto.CareerHistoryDto;
+import com.example.api.dto.PeriodDto;
+import com.example.api.dto.UserCreateRequest;
+import com.example.api.exception.ResourceNotFoundException;
+import com.example.api.service.UserService;
+import com.example.api.service.mapper.UserMapStructMapper;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("ユーザーをエクスポートする場合")
+@ExtendWith(AllureJunit5.class)
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:sqlite:./target/user-export-jobs-test.db",
+        "app.exports.directory=./target/user-export-jobs-test"
+})
+@DisplayName("UserExportJobsのエクスポート")
+class UserExportJobsTest {
+
+    @Autowired
+    private UserExportJobs userExportJobs;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("readerDataSource")
+    private HikariDataSource readerDataSource;
+
+    @Autowired
+    private UserMapStructMapper userMapper;
+
+    private Long createUser(String name, CareerHistoryDto... careers) {
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName(name);
+        request.setAge(30);
+        request.setBirthday(LocalDate.of(1990, 1, 1));
+        request.setHeight(new BigDecimal("170.4"));
+        request.setZipCode("123-4567");
+        request.setCareerHistories(List.of(careers));
+        return userService.create(request);
+    }
+
+    private static CareerHistoryDto career(String title, LocalDate from, LocalDate to) {
+        CareerHistoryDto career = new CareerHistoryDto();
+        career.setTitle(title);
+        PeriodDto period = new PeriodDto();
+        period.setFrom(from);
+        period.setTo(to);
+        career.setPeriod(period);
+        return career;
+    }
+
+    private List<String> export(ExportFormat format) throws Exception {
+        ExportJob job = userExportJobs.submit(format);
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (job.getStatus() == ExportJob.Status.PENDING || job.getStatus() == ExportJob.Status.RUNNING) {
+            assertTrue(System.currentTimeMillis() < deadline, "export did not finish");
+            Thread.sleep(20);
+        }
+        assertEquals(ExportJob.Status.COMPLETED, job.getStatus());
+        assertSame(job, userExportJobs.get(job.getId()));
+        assertEquals(Files.size(job.getFile()), job.getSize());
+        return Files.readAllLines(job.getFile(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @Story("NDJSONでエクスポートする")
+    @DisplayName("全ユーザーを職歴を含めてID順に1行ずつ書き出す")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void exportsUsersAsNdjson() throws Exception {
+        String name = "出力" + UUID.randomUUID();
+        Long userId = createUser(name,
+                career("開発", LocalDate.of(2010, 4, 1), LocalDate.of(2015, 3, 31)),
+                career("運用", LocalDate.of(2015, 4, 1), LocalDate.of(2020, 3, 31)));
+
+        List<String> lines = export(ExportFormat.NDJSON);
+
+        List<JsonNode> users = lines.stream().map(line -> {
+            try {
+                return objectMapper.readTree(line);
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+        }).collect(Collectors.toList());
+        List<Long> ids = users.stream().map(user -> user.path("id").asLong()).collect(Collectors.toList());
+        assertEquals(ids.stream().sorted().collect(Collectors.toList()), ids);
+        assertEquals(userService.count(null), users.size());
+        JsonNode user = users.stream().filter(u -> u.path("id").asLong() == userId).findFirst().orElseThrow();
+        assertEquals(objectMapper.readTree(userService.getJson(userId)), user);
+        assertEquals("運用", user.at("/careerHistories/1/title").asText());
+    }
+
+    @Test
+    @Story("CSVでエクスポートする")
+    @DisplayName("職歴ごとに1行、職歴のないユーザーは職歴の列を空にした1行とし、区切り文字を含む値は引用符で囲む")
+    @Tag("種別:正常系")
+    @Tag("観点:データ整合性")
+    void exportsUsersAsCsv() throws Exception {
+        String prefix = UUID.randomUUID().toString();
+        Long withCareers = createUser(prefix + "職歴あり",
+                career("開発, \"主任\"", LocalDate.of(2010, 4, 1), LocalDate.of(2015, 3, 31)),
+                career("運用", LocalDate.of(2015, 4, 1), LocalDate.of(2020, 3, 31)));
+        Long withoutCareers = createUser(prefix + "職歴なし");
+
+        List<String> lines = export(ExportFormat.CSV);
+
+        assertEquals("id,name,age,birthday,height,zipCode,careerHistoryId,careerTitle,careerFrom,careerTo", lines.get(0));
+        List<String> rows = lines.stream().filter(line -> line.contains(prefix)).collect(Collectors.toList());
+        assertEquals(3, rows.size());
+        assertTrue(rows.get(0).startsWith(withCareers + "," + prefix + "職歴あり,30,1990/01/01,170.4,123-4567,"));
+        assertTrue(rows.get(0).endsWith(",\"開発, \"\"主任\"\"\",2010/04/01,2015/03/31"));
+        assertTrue(rows.get(1).endsWith(",運用,2015/04/01,2020/03/31"));
+        assertEquals(withoutCareers + "," + prefix + "職歴なし,30,1990/01/01,170.4,123-4567,,,,", rows.get(2));
+    }
+
+    @Test
+    @Story("存在しないジョブを取得する")
+    @DisplayName("ResourceNotFoundExceptionを投げる")
+    @Tag("種別:異常系")
+    @Tag("観点:存在チェック")
+    void unknownJobIsNotFound() {
+        assertThrows(ResourceNotFoundException.class, () -> userExportJobs.get(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    @Story("DBなど他のファイルがあるディレクトリをエクスポート先にして起動する")
+    @DisplayName("起動時は前回のジョブのファイルのみを削除し、他のファイルは残す")
+    @Tag("種別:正常系")
+    @Tag("観点:安全性")
+    void startDeletesOnlyJobFiles() throws Exception {
+        Path directory = Paths.get("./target/user-export-jobs-cleanup-test");
+        Files.createDirectories(directory);
+        String id = UUID.randomUUID().toString();
+        List<Path> jobFiles = List.of(
+                directory.resolve(id + ".snapshot.db"),
+                directory.resolve(id + ".ndjson"),
+                directory.resolve(id + ".csv"),
+                directory.resolve(id + ".csv.part"));
+        List<Path> otherFiles = List.of(
+                directory.resolve("app.db"),
+                directory.resolve("app.db-wal"),
+                directory.resolve("users.csv"),
+                directory.resolve(id + ".txt"));
+        for (Path file : jobFiles) Files.writeString(file, "x");
+        for (Path file : otherFiles) Files.writeString(file, "x");
+
+        UserExportJobs jobs = new UserExportJobs(readerDataSource, userMapper, objectMapper,
+                directory.toString(), 1, 1, Duration.ofHours(1));
+        try {
+            jobs.start();
+        } finally {
+            jobs.stop();
+        }
+
+        for (Path file : jobFiles) assertFalse(Files.exists(file), file.toString());
+        for (Path file : otherFiles) assertTrue(Files.exists(file), file.toString());
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.api.service.write;
+
+import com.example.api.exception.ConflictException;
+import io.qameta.allure.Epic;
+import io.qameta.allure.Feature;
+import io.qameta.allure.Story;
+import io.qameta.allure.junit5.AllureJunit5;
+import org.hibernate.Session;
+import org.hibernate.jdbc.ReturningWork;
+import org.hibernate.jdbc.Work;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.persistence.EntityManager;
+import java.sql.Connection;
+import java.sql.Savepoint;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@Epic("ユーザー管理ドメインとして")
+@Feature("更新処理をグループコミットする場合")
+@ExtendWith({MockitoExtension.class, AllureJunit5.class})
+@DisplayName("GroupCommitWriterの振る舞い")
+class GroupCommitWriterTest {
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private Connection connection;
+
+    @Mock
+    private Savepoint savepoint;
+
+    private GroupCommitWriter writer;
+    private ExecutorService callers;
+    private final List<SimpleTransactionStatus> transactions = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> {
+            SimpleTransactionStatus status = new SimpleTransactionStatus();
+            transactions.add(status);
+            return status;
+        });
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(connection.setSavepoint()).thenReturn(savepoint);
+        when(session.doReturningWork(any())).thenAnswer(invocation ->
+                invocation.<ReturningWork<?>>getArgument(0).execute(connection));
+        doAnswer(invocation -> {
+            invocation.<Work>getArgument(0).execute(connection);
+            return null;
+        }).when(session).doWork(any());
+
+        writer = new GroupCommitWriter(transactionManager, entityManager, 64, Duration.ofMillis(50), 128);
+        writer.start();
+        callers = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        callers.shutdownNow();
+        writer.stop();
+    }
+
+    @Test
+    @Story("複数のリクエストから同時に更新される")
+    @DisplayName("同時に投入された更新は1トランザクションにまとめられ、各呼び出し元へ個別の結果を返す")
+    @Tag("種別:正常系")
+    @Tag("観点:グループコミット")
+    void batchesConcurrentWritesIntoOneTransaction() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> blocker = callers.submit(() -> writer.submit(() -> {
+            awaitQuietly(release);
+            return 0;
+        }));
+        verify(transactionManager, timeout(1000)).getTransaction(any());
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 1; i <= 5; i++) {
+            int value = i;
+            results.add(callers.submit(() -> writer.submit(() -> value)));
+        }
+        TimeUnit.MILLISECONDS.sleep(200);
+        release.countDown();
+
+        assertEquals(0, blocker.get(5, TimeUnit.SECONDS));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        verify(transactionManager, times(2)).commit(any());
+        verify(entityManager, times(6)).flush();
+    }
+
+    @Test
+    @Story("まとめて実行した更新の一部が失敗する")
+    @DisplayName("失敗した処理のみセーブポイントまで戻し、他の処理は同じトランザクションでコミットされる")
+    @Tag("種別:異常系")
+    @Tag("観点:グループコミット")
+    void rollsBackOnlyTheFailingWrite() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> blocker = callers.submit(() -> writer.submit(() -> {
+            awaitQuietly(release);
+            return 0;
+        }));
+        verify(transactionManager, timeout(1000)).getTransaction(any());
+
+        Future<Integer> ok = callers.submit(() -> writer.submit(() -> 1));
+        Future<Integer> conflict = callers.submit(() -> writer.submit(() -> {
+            throw new ConflictException("duplicate", List.of());
+        }));
+        TimeUnit.MILLISECONDS.sleep(200);
+        release.countDown();
+
+        assertEquals(0, blocker.get(5, TimeUnit.SECONDS));
+        assertEquals(1, ok.get(5, TimeUnit.SECONDS));
+        Exception thrown = assertThrows(Exception.class, () -> conflict.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ConflictException.class, thrown.getCause());
+        verify(connection).rollback(savepoint);
+        verify(entityManager).clear();
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    @Story("まとめて実行した更新の一部がトランザクションをロールバック専用にする")
+    @DisplayName("制約違反などでトランザクションが使えなくなった場合、失敗した処理を除いた残りをまとめて再実行する")
+    @Tag("種別:異常系")
+    @Tag("観点:グループコミット")
+    void retriesRemainingWritesTogetherWhenTransactionIsRollbackOnly() throws Exception {
+        doAnswer(invocation -> {
+            if (invocation.<TransactionStatus>getArgument(0).isRollbackOnly()) {
+                throw new UnexpectedRollbackException("Transaction rolled back because it has been marked as rollback-only");
+            }
+            return null;
+        }).when(transactionManager).commit(any());
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> blocker = callers.submit(() -> writer.submit(() -> {
+            awaitQuietly(release);
+            return 0;
+        }));
+        verify(transactionManager, timeout(1000)).getTransaction(any());
+
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            int value = i;
+            results.add(callers.submit(() -> writer.submit(() -> value)));
+        }
+        Future<Integer> conflict = callers.submit(() -> writer.submit(() -> {
+            transactions.get(transactions.size() - 1).setRollbackOnly();
+            throw new ConflictException("duplicate", List.of());
+        }));
+        TimeUnit.MILLISECONDS.sleep(200);
+        release.countDown();
+
+        assertEquals(0, blocker.get(5, TimeUnit.SECONDS));
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i + 1, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        Exception thrown = assertThrows(Exception.class, () -> conflict.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ConflictException.class, thrown.getCause());
+        // 待機用、ロールバックされたバッチ、失敗した処理を除いた再実行の3トランザクション
+        verify(transactionManager, times(3)).getTransaction(any());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}